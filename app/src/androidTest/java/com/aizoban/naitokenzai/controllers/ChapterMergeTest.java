@@ -0,0 +1,130 @@
+package com.aizoban.naitokenzai.controllers;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.controllers.databases.ApplicationSQLiteOpenHelper;
+import com.aizoban.naitokenzai.models.Chapter;
+import com.aizoban.naitokenzai.utils.wrappers.ChapterMergeWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static nl.qbusict.cupboard.CupboardFactory.cupboard;
+
+public class ChapterMergeTest extends AndroidTestCase {
+    public static final String TAG = ChapterMergeTest.class.getSimpleName();
+
+    private static final String SOURCE = "ChapterMergeTest";
+    private static final String PARENT_URL = "http://www.example.com/manga/chapter_merge_test/";
+
+    private static final int CHAPTER_COUNT = 5000;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteTestChapters();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        deleteTestChapters();
+
+        super.tearDown();
+    }
+
+    public void testMergeReportsNewChangedAndRemovedChapters() {
+        List<Chapter> chapterList = constructChapters(CHAPTER_COUNT);
+
+        ChapterMergeWrapper initialMerge = QueryManager.mergeChaptersToApplicationDatabase(SOURCE, PARENT_URL, chapterList);
+        assertEquals(CHAPTER_COUNT, initialMerge.getNewCount());
+        assertEquals(0, initialMerge.getChangedCount());
+        assertEquals(0, initialMerge.getRemovedCount());
+
+        ChapterMergeWrapper unchangedMerge = QueryManager.mergeChaptersToApplicationDatabase(SOURCE, PARENT_URL, constructChapters(CHAPTER_COUNT));
+        assertTrue(unchangedMerge.isUnchanged());
+
+        List<Chapter> updatedChapterList = constructChapters(CHAPTER_COUNT + 10);
+        updatedChapterList.subList(0, 5).clear();
+        for (int index = 0; index < 5; index++) {
+            updatedChapterList.get(index).setName("Renamed " + index);
+        }
+
+        ChapterMergeWrapper updatedMerge = QueryManager.mergeChaptersToApplicationDatabase(SOURCE, PARENT_URL, updatedChapterList);
+        assertEquals(10, updatedMerge.getNewCount());
+        assertEquals(5, updatedMerge.getChangedCount());
+        assertEquals(5, updatedMerge.getRemovedCount());
+
+        assertEquals(CHAPTER_COUNT + 5, countTestChapters());
+    }
+
+    public void testBenchmarkMergeAgainstRewrite() {
+        QueryManager.mergeChaptersToApplicationDatabase(SOURCE, PARENT_URL, constructChapters(CHAPTER_COUNT));
+
+        long rewriteStartTime = SystemClock.elapsedRealtime();
+        rewriteChapters(constructChapters(CHAPTER_COUNT + 1));
+        long rewriteTime = SystemClock.elapsedRealtime() - rewriteStartTime;
+
+        long mergeStartTime = SystemClock.elapsedRealtime();
+        ChapterMergeWrapper chapterMerge = QueryManager.mergeChaptersToApplicationDatabase(SOURCE, PARENT_URL, constructChapters(CHAPTER_COUNT + 2));
+        long mergeTime = SystemClock.elapsedRealtime() - mergeStartTime;
+
+        Log.d(TAG, "Rewrite of " + (CHAPTER_COUNT + 1) + " Chapters in " + rewriteTime + " ms, Merge in " + mergeTime + " ms");
+
+        assertEquals(1, chapterMerge.getNewCount());
+        assertTrue("Merge Took " + mergeTime + " ms, Rewrite " + rewriteTime + " ms", mergeTime < rewriteTime);
+    }
+
+    private static List<Chapter> constructChapters(int chapterCount) {
+        List<Chapter> chapterList = new ArrayList<Chapter>(chapterCount);
+        for (int index = 0; index < chapterCount; index++) {
+            Chapter chapter = new Chapter();
+            chapter.setSource(SOURCE);
+            chapter.setUrl(PARENT_URL + index + "/");
+            chapter.setParentUrl(PARENT_URL);
+            chapter.setName("Chapter " + index);
+            chapter.setNew(false);
+            chapter.setDate(1420070400000L + index * 86400000L);
+            chapter.setNumber(index + 1);
+
+            chapterList.add(chapter);
+        }
+
+        return chapterList;
+    }
+
+    private static void rewriteChapters(List<Chapter> chapterList) {
+        SQLiteDatabase sqLiteDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        sqLiteDatabase.beginTransaction();
+        try {
+            deleteTestChapters();
+
+            for (Chapter chapter : chapterList) {
+                cupboard().withDatabase(sqLiteDatabase).put(chapter);
+            }
+
+            sqLiteDatabase.setTransactionSuccessful();
+        } finally {
+            sqLiteDatabase.endTransaction();
+        }
+    }
+
+    private static long countTestChapters() {
+        SQLiteDatabase sqLiteDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        return DatabaseUtils.queryNumEntries(sqLiteDatabase, ApplicationContract.Chapter.TABLE_NAME,
+                ApplicationContract.Chapter.COLUMN_SOURCE + " = ?", new String[] { SOURCE });
+    }
+
+    private static void deleteTestChapters() {
+        SQLiteDatabase sqLiteDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        sqLiteDatabase.delete(ApplicationContract.Chapter.TABLE_NAME, ApplicationContract.Chapter.COLUMN_SOURCE + " = ?", new String[] { SOURCE });
+    }
+}
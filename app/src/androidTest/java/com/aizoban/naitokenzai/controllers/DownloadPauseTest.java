@@ -0,0 +1,126 @@
+package com.aizoban.naitokenzai.controllers;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.controllers.databases.ApplicationSQLiteOpenHelper;
+import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
+import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
+import com.aizoban.naitokenzai.models.downloads.DownloadPage;
+import com.aizoban.naitokenzai.utils.DownloadUtils;
+import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static nl.qbusict.cupboard.CupboardFactory.cupboard;
+
+public class DownloadPauseTest extends AndroidTestCase {
+    private static final String SOURCE = "DownloadPauseTest";
+    private static final String URL = "http://www.example.com/chapter/download_pause_test/";
+
+    private static final int PAGE_COUNT = 20;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteTestDownloadChapters();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        deleteTestDownloadChapters();
+
+        super.tearDown();
+    }
+
+    public void testPauseKeepsCompletedPages() {
+        DownloadChapter downloadChapter = DefaultFactory.DownloadChapter.constructDefault();
+        downloadChapter.setSource(SOURCE);
+        downloadChapter.setUrl(URL);
+        downloadChapter.setFlag(DownloadUtils.FLAG_RUNNING);
+
+        SQLiteDatabase sqLiteDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+        downloadChapter.setId(cupboard().withDatabase(sqLiteDatabase).put(downloadChapter));
+
+        List<String> pageUrls = new ArrayList<String>(PAGE_COUNT);
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            pageUrls.add(URL + index + ".jpg");
+        }
+
+        QueryManager.addDownloadPagesForDownloadChapter(downloadChapter, pageUrls)
+                .toBlocking()
+                .single();
+
+        List<Integer> completedPageIndexes = new ArrayList<Integer>();
+        for (int index = 0; index < PAGE_COUNT / 2; index++) {
+            completedPageIndexes.add(index);
+        }
+
+        Map<Long, List<Integer>> completedPageIndexMap = new HashMap<Long, List<Integer>>();
+        completedPageIndexMap.put(downloadChapter.getId(), completedPageIndexes);
+        Map<Long, Integer> currentPageMap = new HashMap<Long, Integer>();
+        currentPageMap.put(downloadChapter.getId(), PAGE_COUNT / 2);
+
+        QueryManager.updateDownloadProgressInApplicationDatabase(completedPageIndexMap, currentPageMap);
+
+        assertTrue(QueryManager.pauseNonCompletedDownloadChapters().toBlocking().single() >= 1);
+
+        Cursor pausedCursor = QueryManager.queryDownloadChapterFromRequest(new RequestWrapper(SOURCE, URL))
+                .toBlocking()
+                .single();
+        DownloadChapter pausedChapter;
+        try {
+            pausedChapter = QueryManager.toObject(pausedCursor, DownloadChapter.class);
+        } finally {
+            pausedCursor.close();
+        }
+        assertEquals(DownloadUtils.FLAG_PAUSED, pausedChapter.getFlag());
+        assertEquals(PAGE_COUNT / 2, pausedChapter.getCurrentPage());
+        assertEquals(PAGE_COUNT, pausedChapter.getTotalPages());
+
+        List<DownloadPage> downloadPages = QueryManager.queryDownloadPagesOfDownloadChapter(pausedChapter)
+                .toBlocking()
+                .single();
+        assertEquals(PAGE_COUNT, downloadPages.size());
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            DownloadPage downloadPage = downloadPages.get(index);
+
+            assertEquals(pageUrls.get(index), downloadPage.getUrl());
+            assertEquals("Page " + index, index < PAGE_COUNT / 2 ? DownloadUtils.FLAG_COMPLETED : DownloadUtils.FLAG_PENDING, downloadPage.getFlag());
+        }
+    }
+
+    public void testPauseLeavesCompletedChapters() {
+        DownloadChapter downloadChapter = DefaultFactory.DownloadChapter.constructDefault();
+        downloadChapter.setSource(SOURCE);
+        downloadChapter.setUrl(URL);
+        downloadChapter.setFlag(DownloadUtils.FLAG_COMPLETED);
+
+        SQLiteDatabase sqLiteDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+        cupboard().withDatabase(sqLiteDatabase).put(downloadChapter);
+
+        QueryManager.pauseNonCompletedDownloadChapters().toBlocking().single();
+
+        Cursor completedCursor = QueryManager.queryDownloadChapterFromRequest(new RequestWrapper(SOURCE, URL))
+                .toBlocking()
+                .single();
+        try {
+            assertEquals(DownloadUtils.FLAG_COMPLETED, QueryManager.toObject(completedCursor, DownloadChapter.class).getFlag());
+        } finally {
+            completedCursor.close();
+        }
+    }
+
+    private static void deleteTestDownloadChapters() {
+        SQLiteDatabase sqLiteDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        sqLiteDatabase.delete(ApplicationContract.DownloadChapter.TABLE_NAME,
+                ApplicationContract.DownloadChapter.COLUMN_SOURCE + " = ?", new String[] { SOURCE });
+    }
+}
@@ -0,0 +1,224 @@
+package com.aizoban.naitokenzai.controllers.databases;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.models.Manga;
+import com.aizoban.naitokenzai.utils.SearchUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static nl.qbusict.cupboard.CupboardFactory.cupboard;
+
+public class CataloguePagerTest extends AndroidTestCase {
+    public static final String TAG = CataloguePagerTest.class.getSimpleName();
+
+    private static final String SOURCE = "CataloguePagerTest";
+    private static final String URL = "http://www.example.com/manga/catalogue_pager_test/";
+
+    private static final int MANGA_COUNT = 50000;
+    private static final int RANK_COUNT = 1000;
+
+    private static final String SEARCH_QUERY = "4217";
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteTestMangas();
+        insertTestMangas();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        deleteTestMangas();
+
+        super.tearDown();
+    }
+
+    public void testPagesCoverCatalogueInRankOrder() {
+        CataloguePager cataloguePager = constructPager(LibraryContract.Manga.COLUMN_RANK);
+        assertEquals(MANGA_COUNT, cataloguePager.getCount());
+
+        Set<Long> pagedIds = new HashSet<Long>(MANGA_COUNT);
+        int previousRank = Integer.MIN_VALUE;
+        long previousId = Long.MIN_VALUE;
+
+        int pageCount = (MANGA_COUNT + CataloguePager.PAGE_SIZE - 1) / CataloguePager.PAGE_SIZE;
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+            List<Manga> page = cataloguePager.queryPage(pageIndex);
+            assertTrue("Empty Page " + pageIndex, page.size() > 0);
+
+            for (Manga manga : page) {
+                assertTrue("Duplicate Manga " + manga.getId(), pagedIds.add(manga.getId()));
+                assertTrue("Out of Order at Manga " + manga.getId(),
+                        manga.getRank() > previousRank || (manga.getRank() == previousRank && manga.getId() > previousId));
+
+                previousRank = manga.getRank();
+                previousId = manga.getId();
+            }
+        }
+
+        assertEquals(MANGA_COUNT, pagedIds.size());
+    }
+
+    public void testBenchmarkFirstPageAgainstFullCursor() {
+        long fullStartTime = SystemClock.elapsedRealtime();
+        long fullHeapBefore = Debug.getNativeHeapAllocatedSize();
+        Cursor fullCursor = queryFullCatalogue();
+        try {
+            fullCursor.getCount();
+            long fullHeap = Debug.getNativeHeapAllocatedSize() - fullHeapBefore;
+            for (int position = 0; position < CataloguePager.PAGE_SIZE && fullCursor.moveToPosition(position); position++) {
+                cupboard().withCursor(fullCursor).get(Manga.class);
+            }
+            long fullTime = SystemClock.elapsedRealtime() - fullStartTime;
+
+            CataloguePager cataloguePager = constructPager(LibraryContract.Manga.COLUMN_RANK);
+
+            long pagedStartTime = SystemClock.elapsedRealtime();
+            long pagedHeapBefore = Debug.getNativeHeapAllocatedSize();
+            List<Manga> firstPage = cataloguePager.queryPage(0);
+            long pagedHeap = Debug.getNativeHeapAllocatedSize() - pagedHeapBefore;
+            long pagedTime = SystemClock.elapsedRealtime() - pagedStartTime;
+
+            Log.d(TAG, "First " + CataloguePager.PAGE_SIZE + " of " + MANGA_COUNT + " Mangas: Full Cursor " + fullTime + " ms (" + fullHeap + " B Native), " +
+                    "Paged " + pagedTime + " ms (" + pagedHeap + " B Native)");
+
+            assertEquals(CataloguePager.PAGE_SIZE, firstPage.size());
+            assertTrue("Paged Took " + pagedTime + " ms, Full Cursor " + fullTime + " ms", pagedTime < fullTime);
+        } finally {
+            fullCursor.close();
+        }
+    }
+
+    public void testBenchmarkScrollAgainstFullCursor() {
+        long fullStartTime = SystemClock.elapsedRealtime();
+        Cursor fullCursor = queryFullCatalogue();
+        try {
+            for (int position = 0; fullCursor.moveToPosition(position); position++) {
+                cupboard().withCursor(fullCursor).get(Manga.class);
+            }
+        } finally {
+            fullCursor.close();
+        }
+        long fullTime = SystemClock.elapsedRealtime() - fullStartTime;
+
+        CataloguePager cataloguePager = constructPager(LibraryContract.Manga.COLUMN_RANK);
+
+        long pagedStartTime = SystemClock.elapsedRealtime();
+        int pagedCount = 0;
+        for (int pageIndex = 0; pagedCount < MANGA_COUNT; pageIndex++) {
+            pagedCount += cataloguePager.queryPage(pageIndex).size();
+        }
+        long pagedTime = SystemClock.elapsedRealtime() - pagedStartTime;
+
+        Log.d(TAG, "Scroll of " + MANGA_COUNT + " Mangas: Full Cursor " + fullTime + " ms, Paged " + pagedTime + " ms, " +
+                "Paged Holds at Most " + (CataloguePager.MAXIMUM_PAGES * CataloguePager.PAGE_SIZE) + " Mangas");
+
+        assertEquals(MANGA_COUNT, pagedCount);
+    }
+
+    public void testBenchmarkNameSearchLikeAgainstFts() {
+        long likeTotalTime = 0;
+        long ftsTotalTime = 0;
+        CataloguePager likePager = null;
+        CataloguePager ftsPager = null;
+
+        StringBuilder keystrokeLog = new StringBuilder();
+        for (int length = 1; length <= SEARCH_QUERY.length(); length++) {
+            String query = SEARCH_QUERY.substring(0, length);
+
+            long likeStartTime = SystemClock.elapsedRealtime();
+            likePager = new CataloguePager(
+                    LibraryContract.Manga.COLUMN_SOURCE + " = ? AND " + LibraryContract.Manga.COLUMN_NAME + " LIKE ?",
+                    new String[] { SOURCE, "%" + query + "%" },
+                    LibraryContract.Manga.COLUMN_RANK
+            );
+            likePager.queryPage(0);
+            long likeTime = SystemClock.elapsedRealtime() - likeStartTime;
+
+            long ftsStartTime = SystemClock.elapsedRealtime();
+            ftsPager = new CataloguePager(
+                    LibraryContract.Manga.COLUMN_SOURCE + " = ? AND " + LibraryContract.Manga.COLUMN_ID + " IN (SELECT " + LibraryContract.MangaSearch.COLUMN_DOCID + " FROM " + LibraryContract.MangaSearch.TABLE_NAME + " WHERE " + LibraryContract.MangaSearch.TABLE_NAME + " MATCH ?)",
+                    new String[] { SOURCE, SearchUtils.constructPrefixMatch(LibraryContract.MangaSearch.COLUMN_NAME, query) },
+                    LibraryContract.Manga.COLUMN_RANK
+            );
+            ftsPager.queryPage(0);
+            long ftsTime = SystemClock.elapsedRealtime() - ftsStartTime;
+
+            likeTotalTime += likeTime;
+            ftsTotalTime += ftsTime;
+
+            keystrokeLog.append(keystrokeLog.length() > 0 ? ", " : "")
+                    .append("'").append(query).append("' LIKE ").append(likeTime).append(" ms (").append(likePager.getCount()).append(")")
+                    .append(" FTS ").append(ftsTime).append(" ms (").append(ftsPager.getCount()).append(")");
+        }
+
+        Log.d(TAG, "Keystroke to First Page over " + MANGA_COUNT + " Mangas: " + keystrokeLog + "; " +
+                "Total LIKE " + likeTotalTime + " ms, FTS " + ftsTotalTime + " ms");
+
+        assertTrue(ftsPager.getCount() > 0);
+        assertTrue(ftsPager.getCount() <= likePager.getCount());
+        assertTrue("FTS Took " + ftsTotalTime + " ms, LIKE " + likeTotalTime + " ms", ftsTotalTime < likeTotalTime);
+    }
+
+    private static CataloguePager constructPager(String orderColumn) {
+        return new CataloguePager(LibraryContract.Manga.COLUMN_SOURCE + " = ?", new String[] { SOURCE }, orderColumn);
+    }
+
+    private static Cursor queryFullCatalogue() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        return sqLiteDatabase.query(
+                LibraryContract.Manga.TABLE_NAME,
+                null,
+                LibraryContract.Manga.COLUMN_SOURCE + " = ?",
+                new String[] { SOURCE },
+                null,
+                null,
+                LibraryContract.Manga.COLUMN_RANK + " ASC"
+        );
+    }
+
+    private static void insertTestMangas() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        sqLiteDatabase.beginTransaction();
+        try {
+            ContentValues contentValues = new ContentValues();
+            for (int index = 0; index < MANGA_COUNT; index++) {
+                contentValues.clear();
+                contentValues.put(LibraryContract.Manga.COLUMN_SOURCE, SOURCE);
+                contentValues.put(LibraryContract.Manga.COLUMN_URL, URL + index + "/");
+                contentValues.put(LibraryContract.Manga.COLUMN_NAME, "Manga " + index);
+                contentValues.put(LibraryContract.Manga.COLUMN_GENRE, "Action, Comedy");
+                contentValues.put(LibraryContract.Manga.COLUMN_THUMBNAIL_URL, URL + index + "/cover.jpg");
+                contentValues.put(LibraryContract.Manga.COLUMN_COMPLETED, false);
+                contentValues.put(LibraryContract.Manga.COLUMN_RANK, index % RANK_COUNT);
+                contentValues.put(LibraryContract.Manga.COLUMN_UPDATED, 0L);
+                contentValues.put(LibraryContract.Manga.COLUMN_UPDATE_COUNT, 0);
+                contentValues.put(LibraryContract.Manga.COLUMN_INITIALIZED, false);
+
+                sqLiteDatabase.insert(LibraryContract.Manga.TABLE_NAME, null, contentValues);
+            }
+
+            sqLiteDatabase.setTransactionSuccessful();
+        } finally {
+            sqLiteDatabase.endTransaction();
+        }
+    }
+
+    private static void deleteTestMangas() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        sqLiteDatabase.delete(LibraryContract.Manga.TABLE_NAME, LibraryContract.Manga.COLUMN_SOURCE + " = ?", new String[] { SOURCE });
+    }
+}
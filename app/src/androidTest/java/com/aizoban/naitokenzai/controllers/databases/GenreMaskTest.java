@@ -0,0 +1,172 @@
+package com.aizoban.naitokenzai.controllers.databases;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+
+import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
+import com.aizoban.naitokenzai.models.Manga;
+import com.aizoban.naitokenzai.utils.SearchUtils;
+import com.aizoban.naitokenzai.utils.wrappers.SearchCatalogueWrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class GenreMaskTest extends AndroidTestCase {
+    private static final String SOURCE = "GenreMaskTest";
+    private static final String URL = "http://www.example.com/manga/genre_mask_test/";
+
+    private static final String[] MANGA_GENRES = new String[] {
+            "Action, Comedy",
+            "Comedy, Martial Arts",
+            "Drama",
+            "Action, Martial Arts, Drama"
+    };
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteTestRows();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        deleteTestRows();
+
+        super.tearDown();
+    }
+
+    public void testBackfillMasksExistingRows() {
+        insertTestMangas();
+        assertMasks(0, 0, 0, 0);
+
+        synchronizeGenres("Action", "Comedy", "Martial Arts");
+        assertMasks(0x3, 0x6, 0x0, 0x5);
+
+        synchronizeGenres("Action", "Comedy", "Martial Arts", "Drama");
+        assertMasks(0x3, 0x6, 0x8, 0xD);
+    }
+
+    public void testTriggersMaintainMaskOnInsertAndUpdate() {
+        synchronizeGenres("Action", "Comedy", "Martial Arts", "Drama");
+        insertTestMangas();
+        assertMasks(0x3, 0x6, 0x8, 0xD);
+
+        ContentValues updateValues = new ContentValues(1);
+        updateValues.put(LibraryContract.Manga.COLUMN_GENRE, "Comedy, Drama");
+
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+        sqLiteDatabase.update(LibraryContract.Manga.TABLE_NAME, updateValues, LibraryContract.Manga.COLUMN_URL + " = ?", new String[] { URL + 0 + "/" });
+
+        assertMasks(0xA, 0x6, 0x8, 0xD);
+    }
+
+    public void testFilterMatchesAllAnyAndNot() {
+        synchronizeGenres("Action", "Comedy", "Martial Arts", "Drama");
+        insertTestMangas();
+
+        assertFiltered(SearchUtils.GENRE_MATCH_ALL, Arrays.asList("Action", "Martial Arts"), new ArrayList<String>(), 3);
+        assertFiltered(SearchUtils.GENRE_MATCH_ANY, Arrays.asList("Action", "Martial Arts"), new ArrayList<String>(), 0, 1, 3);
+        assertFiltered(SearchUtils.GENRE_MATCH_ALL, Arrays.asList("Comedy"), Arrays.asList("Martial Arts"), 0);
+        assertFiltered(SearchUtils.GENRE_MATCH_ALL, new ArrayList<String>(), Arrays.asList("Drama"), 0, 1);
+    }
+
+    public void testGenresPastMaximumBitsMatchByText() {
+        String[] sourceGenres = new String[LibraryContract.Genre.MAXIMUM_BITS + 2];
+        for (int bit = 0; bit < LibraryContract.Genre.MAXIMUM_BITS; bit++) {
+            sourceGenres[bit] = "Filler " + bit;
+        }
+        sourceGenres[LibraryContract.Genre.MAXIMUM_BITS] = "Action";
+        sourceGenres[LibraryContract.Genre.MAXIMUM_BITS + 1] = "Drama";
+
+        synchronizeGenres(sourceGenres);
+        insertTestMangas();
+        assertMasks(0, 0, 0, 0);
+
+        assertFiltered(SearchUtils.GENRE_MATCH_ALL, Arrays.asList("Action"), new ArrayList<String>(), 0, 3);
+        assertFiltered(SearchUtils.GENRE_MATCH_ANY, Arrays.asList("Action", "Drama"), new ArrayList<String>(), 0, 2, 3);
+        assertFiltered(SearchUtils.GENRE_MATCH_ALL, new ArrayList<String>(), Arrays.asList("Drama"), 0, 1);
+    }
+
+    private void assertMasks(long... expectedMasks) {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        for (int index = 0; index < expectedMasks.length; index++) {
+            Cursor maskCursor = sqLiteDatabase.query(
+                    LibraryContract.Manga.TABLE_NAME,
+                    new String[] { LibraryContract.Manga.COLUMN_GENRE_MASK },
+                    LibraryContract.Manga.COLUMN_URL + " = ?",
+                    new String[] { URL + index + "/" },
+                    null, null, null
+            );
+            try {
+                assertTrue(maskCursor.moveToFirst());
+                assertEquals("Manga " + index, expectedMasks[index], maskCursor.getLong(0));
+            } finally {
+                maskCursor.close();
+            }
+        }
+    }
+
+    private void assertFiltered(String genreMatch, List<String> includedGenres, List<String> excludedGenres, int... expectedIndexes) {
+        SearchCatalogueWrapper searchCatalogueWrapper = DefaultFactory.SearchCatalogueWrapper.constructDefault();
+        searchCatalogueWrapper.setGenreMatchArgs(genreMatch);
+        searchCatalogueWrapper.setGenresArgs(new ArrayList<String>(includedGenres));
+        searchCatalogueWrapper.setExcludedGenresArgs(new ArrayList<String>(excludedGenres));
+
+        CataloguePager cataloguePager = QueryManager.queryCatalogueMangasFromSource(SOURCE, searchCatalogueWrapper)
+                .toBlocking()
+                .single();
+
+        Set<String> expectedUrls = new HashSet<String>();
+        for (int index : expectedIndexes) {
+            expectedUrls.add(URL + index + "/");
+        }
+
+        Set<String> filteredUrls = new HashSet<String>();
+        for (Manga manga : cataloguePager.queryPage(0)) {
+            filteredUrls.add(manga.getUrl());
+        }
+
+        assertEquals(genreMatch + " " + includedGenres + " Not " + excludedGenres, expectedUrls, filteredUrls);
+    }
+
+    private static void synchronizeGenres(String... sourceGenres) {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        LibrarySQLiteOpenHelper.synchronizeGenres(sqLiteDatabase, SOURCE, Arrays.asList(sourceGenres));
+    }
+
+    private static void insertTestMangas() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        ContentValues contentValues = new ContentValues();
+        for (int index = 0; index < MANGA_GENRES.length; index++) {
+            contentValues.clear();
+            contentValues.put(LibraryContract.Manga.COLUMN_SOURCE, SOURCE);
+            contentValues.put(LibraryContract.Manga.COLUMN_URL, URL + index + "/");
+            contentValues.put(LibraryContract.Manga.COLUMN_NAME, "Manga " + index);
+            contentValues.put(LibraryContract.Manga.COLUMN_GENRE, MANGA_GENRES[index]);
+            contentValues.put(LibraryContract.Manga.COLUMN_COMPLETED, false);
+            contentValues.put(LibraryContract.Manga.COLUMN_RANK, index + 1);
+            contentValues.put(LibraryContract.Manga.COLUMN_UPDATED, 0L);
+            contentValues.put(LibraryContract.Manga.COLUMN_UPDATE_COUNT, 0);
+            contentValues.put(LibraryContract.Manga.COLUMN_INITIALIZED, false);
+
+            sqLiteDatabase.insert(LibraryContract.Manga.TABLE_NAME, null, contentValues);
+        }
+    }
+
+    private static void deleteTestRows() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        sqLiteDatabase.delete(LibraryContract.Manga.TABLE_NAME, LibraryContract.Manga.COLUMN_SOURCE + " = ?", new String[] { SOURCE });
+        sqLiteDatabase.delete(LibraryContract.Genre.TABLE_NAME, LibraryContract.Genre.COLUMN_SOURCE + " = ?", new String[] { SOURCE });
+    }
+}
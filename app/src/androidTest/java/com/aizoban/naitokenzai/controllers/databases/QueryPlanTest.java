@@ -0,0 +1,80 @@
+package com.aizoban.naitokenzai.controllers.databases;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+
+import com.aizoban.naitokenzai.utils.DownloadUtils;
+
+public class QueryPlanTest extends AndroidTestCase {
+    private static final String SOURCE = "QueryPlanTest";
+    private static final String URL = "http://www.example.com/manga/query_plan_test";
+
+    public void testMangaFromRequestUsesSourceUrlIndex() {
+        SQLiteDatabase libraryDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        assertQueryUsesIndex(libraryDatabase, LibraryContract.Manga.INDEX_SOURCE_URL,
+                "SELECT * FROM " + LibraryContract.Manga.TABLE_NAME +
+                        " WHERE " + LibraryContract.Manga.COLUMN_SOURCE + " = ?" +
+                        " AND " + LibraryContract.Manga.COLUMN_URL + " = ? LIMIT 1",
+                SOURCE, URL);
+    }
+
+    public void testCatalogueByRankUsesSourceRankIndex() {
+        SQLiteDatabase libraryDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        assertQueryUsesIndex(libraryDatabase, LibraryContract.Manga.INDEX_SOURCE_RANK,
+                "SELECT * FROM " + LibraryContract.Manga.TABLE_NAME +
+                        " WHERE " + LibraryContract.Manga.COLUMN_SOURCE + " = ?" +
+                        " ORDER BY " + LibraryContract.Manga.COLUMN_RANK + " ASC",
+                SOURCE);
+    }
+
+    public void testChaptersOfMangaUsesSourceParentUrlNumberIndex() {
+        SQLiteDatabase applicationDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        assertQueryUsesIndex(applicationDatabase, ApplicationContract.Chapter.INDEX_SOURCE_PARENT_URL_NUMBER,
+                "SELECT * FROM " + ApplicationContract.Chapter.TABLE_NAME +
+                        " WHERE " + ApplicationContract.Chapter.COLUMN_SOURCE + " = ?" +
+                        " AND " + ApplicationContract.Chapter.COLUMN_PARENT_URL + " = ?" +
+                        " ORDER BY " + ApplicationContract.Chapter.COLUMN_NUMBER + " DESC",
+                SOURCE, URL);
+    }
+
+    public void testAdjacentChapterUsesSourceParentUrlNumberIndex() {
+        SQLiteDatabase applicationDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        assertQueryUsesIndex(applicationDatabase, ApplicationContract.Chapter.INDEX_SOURCE_PARENT_URL_NUMBER,
+                "SELECT * FROM " + ApplicationContract.Chapter.TABLE_NAME +
+                        " WHERE " + ApplicationContract.Chapter.COLUMN_SOURCE + " = ?" +
+                        " AND " + ApplicationContract.Chapter.COLUMN_PARENT_URL + " = ?" +
+                        " AND " + ApplicationContract.Chapter.COLUMN_NUMBER + " = ? LIMIT 1",
+                SOURCE, URL, "1");
+    }
+
+    public void testDownloadChaptersByFlagUsesFlagIndex() {
+        SQLiteDatabase applicationDatabase = ApplicationSQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        assertQueryUsesIndex(applicationDatabase, ApplicationContract.DownloadChapter.INDEX_FLAG,
+                "SELECT * FROM " + ApplicationContract.DownloadChapter.TABLE_NAME +
+                        " WHERE " + ApplicationContract.DownloadChapter.COLUMN_FLAG + " = ?",
+                String.valueOf(DownloadUtils.FLAG_COMPLETED));
+    }
+
+    private static void assertQueryUsesIndex(SQLiteDatabase db, String indexName, String sql, String... selectionArgs) {
+        StringBuilder queryPlan = new StringBuilder();
+
+        Cursor queryPlanCursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, selectionArgs);
+        try {
+            int detailIndex = queryPlanCursor.getColumnIndexOrThrow("detail");
+            while (queryPlanCursor.moveToNext()) {
+                queryPlan.append(queryPlanCursor.getString(detailIndex)).append('\n');
+            }
+        } finally {
+            queryPlanCursor.close();
+        }
+
+        assertTrue("Expected " + indexName + " in Query Plan:\n" + queryPlan, queryPlan.indexOf(indexName) >= 0);
+        assertTrue("Unexpected Temporary B-Tree in Query Plan:\n" + queryPlan, queryPlan.indexOf("USE TEMP B-TREE") < 0);
+    }
+}
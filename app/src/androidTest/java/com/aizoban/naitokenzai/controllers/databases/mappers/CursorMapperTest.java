@@ -0,0 +1,160 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.MatrixCursor;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.controllers.databases.LibraryContract;
+import com.aizoban.naitokenzai.models.Manga;
+
+import static nl.qbusict.cupboard.CupboardFactory.cupboard;
+
+public class CursorMapperTest extends AndroidTestCase {
+    public static final String TAG = CursorMapperTest.class.getSimpleName();
+
+    private static final String SOURCE = "CursorMapperTest";
+    private static final String URL = "http://www.example.com/manga/cursor_mapper_test/";
+
+    private static final int ROW_COUNT = 2000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+
+    private static final String[] MANGA_COLUMNS = new String[] {
+            LibraryContract.Manga.COLUMN_ID,
+            LibraryContract.Manga.COLUMN_SOURCE,
+            LibraryContract.Manga.COLUMN_URL,
+            LibraryContract.Manga.COLUMN_ARTIST,
+            LibraryContract.Manga.COLUMN_AUTHOR,
+            LibraryContract.Manga.COLUMN_DESCRIPTION,
+            LibraryContract.Manga.COLUMN_GENRE,
+            LibraryContract.Manga.COLUMN_NAME,
+            LibraryContract.Manga.COLUMN_COMPLETED,
+            LibraryContract.Manga.COLUMN_THUMBNAIL_URL,
+            LibraryContract.Manga.COLUMN_RANK,
+            LibraryContract.Manga.COLUMN_UPDATED,
+            LibraryContract.Manga.COLUMN_UPDATE_COUNT,
+            LibraryContract.Manga.COLUMN_INITIALIZED
+    };
+
+    public void testMangaMapperMatchesCupboard() {
+        MatrixCursor mangaCursor = constructMangaCursor();
+        MangaCursorMapper mangaCursorMapper = new MangaCursorMapper();
+
+        while (mangaCursor.moveToNext()) {
+            Manga cupboardManga = cupboard().withCursor(mangaCursor).get(Manga.class);
+            Manga mappedManga = mangaCursorMapper.mapRow(mangaCursor, null);
+
+            assertEquals(cupboardManga.getId(), mappedManga.getId());
+            assertEquals(cupboardManga.getSource(), mappedManga.getSource());
+            assertEquals(cupboardManga.getUrl(), mappedManga.getUrl());
+            assertEquals(cupboardManga.getArtist(), mappedManga.getArtist());
+            assertEquals(cupboardManga.getAuthor(), mappedManga.getAuthor());
+            assertEquals(cupboardManga.getDescription(), mappedManga.getDescription());
+            assertEquals(cupboardManga.getGenre(), mappedManga.getGenre());
+            assertEquals(cupboardManga.getName(), mappedManga.getName());
+            assertEquals(cupboardManga.isCompleted(), mappedManga.isCompleted());
+            assertEquals(cupboardManga.getThumbnailUrl(), mappedManga.getThumbnailUrl());
+            assertEquals(cupboardManga.getRank(), mappedManga.getRank());
+            assertEquals(cupboardManga.getUpdated(), mappedManga.getUpdated());
+            assertEquals(cupboardManga.getUpdateCount(), mappedManga.getUpdateCount());
+            assertEquals(cupboardManga.isInitialized(), mappedManga.isInitialized());
+        }
+
+        mangaCursor.close();
+    }
+
+    public void testMapperSkipsMissingColumns() {
+        MatrixCursor partialCursor = new MatrixCursor(new String[] { LibraryContract.Manga.COLUMN_ID, LibraryContract.Manga.COLUMN_NAME });
+        partialCursor.addRow(new Object[] { 1L, "Partial" });
+        partialCursor.moveToFirst();
+
+        Manga mappedManga = new MangaCursorMapper().mapRow(partialCursor, null);
+        assertEquals(Long.valueOf(1L), mappedManga.getId());
+        assertEquals("Partial", mappedManga.getName());
+        assertNull(mappedManga.getUrl());
+        assertEquals(0, mappedManga.getRank());
+
+        partialCursor.close();
+    }
+
+    public void testBenchmarkMapperAgainstCupboard() {
+        MatrixCursor mangaCursor = constructMangaCursor();
+        MangaCursorMapper mangaCursorMapper = new MangaCursorMapper();
+        Manga reusableManga = new Manga();
+
+        Debug.startAllocCounting();
+        try {
+            Debug.resetThreadAllocSize();
+            long cupboardStartTime = SystemClock.elapsedRealtime();
+            for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+                mangaCursor.moveToPosition(-1);
+                while (mangaCursor.moveToNext()) {
+                    cupboard().withCursor(mangaCursor).get(Manga.class);
+                }
+            }
+            long cupboardTime = SystemClock.elapsedRealtime() - cupboardStartTime;
+            long cupboardAllocations = Debug.getThreadAllocSize();
+
+            Debug.resetThreadAllocSize();
+            long mapperStartTime = SystemClock.elapsedRealtime();
+            for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+                mangaCursor.moveToPosition(-1);
+                while (mangaCursor.moveToNext()) {
+                    mangaCursorMapper.mapRow(mangaCursor, null);
+                }
+            }
+            long mapperTime = SystemClock.elapsedRealtime() - mapperStartTime;
+            long mapperAllocations = Debug.getThreadAllocSize();
+
+            Debug.resetThreadAllocSize();
+            long reusedStartTime = SystemClock.elapsedRealtime();
+            for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+                mangaCursor.moveToPosition(-1);
+                while (mangaCursor.moveToNext()) {
+                    mangaCursorMapper.mapRow(mangaCursor, reusableManga);
+                }
+            }
+            long reusedTime = SystemClock.elapsedRealtime() - reusedStartTime;
+            long reusedAllocations = Debug.getThreadAllocSize();
+
+            int rowCount = ROW_COUNT * BENCHMARK_ITERATIONS;
+
+            Log.d(TAG, "Cupboard: " + (cupboardTime * 1000000 / rowCount) + " ns, " + (cupboardAllocations / rowCount) + " Bytes per Row");
+            Log.d(TAG, "Mapper: " + (mapperTime * 1000000 / rowCount) + " ns, " + (mapperAllocations / rowCount) + " Bytes per Row");
+            Log.d(TAG, "Mapper Reused: " + (reusedTime * 1000000 / rowCount) + " ns, " + (reusedAllocations / rowCount) + " Bytes per Row");
+
+            assertTrue("Mapper Took " + mapperTime + " ms, Cupboard " + cupboardTime + " ms", mapperTime < cupboardTime);
+            assertTrue("Mapper Allocated " + mapperAllocations + " Bytes, Cupboard " + cupboardAllocations, mapperAllocations < cupboardAllocations);
+            assertTrue("Reused Allocated " + reusedAllocations + " Bytes, Mapper " + mapperAllocations, reusedAllocations < mapperAllocations);
+        } finally {
+            Debug.stopAllocCounting();
+
+            mangaCursor.close();
+        }
+    }
+
+    private static MatrixCursor constructMangaCursor() {
+        MatrixCursor mangaCursor = new MatrixCursor(MANGA_COLUMNS, ROW_COUNT);
+        for (int index = 0; index < ROW_COUNT; index++) {
+            mangaCursor.addRow(new Object[] {
+                    (long) index + 1,
+                    SOURCE,
+                    URL + index + "/",
+                    "Artist " + index,
+                    "Author " + index,
+                    "Description of Manga " + index,
+                    "Action, Comedy",
+                    "Manga " + index,
+                    index % 2,
+                    URL + index + "/cover.jpg",
+                    index,
+                    1420070400000L + index,
+                    index % 5,
+                    (index + 1) % 2
+            });
+        }
+
+        return mangaCursor;
+    }
+}
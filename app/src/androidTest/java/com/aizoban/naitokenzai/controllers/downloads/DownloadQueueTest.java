@@ -0,0 +1,103 @@
+package com.aizoban.naitokenzai.controllers.downloads;
+
+import android.test.AndroidTestCase;
+
+import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
+import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
+import com.aizoban.naitokenzai.utils.DownloadUtils;
+
+public class DownloadQueueTest extends AndroidTestCase {
+    private static final String PARENT_URL_A = "http://www.example.com/manga/download_queue_test_a/";
+    private static final String PARENT_URL_B = "http://www.example.com/manga/download_queue_test_b/";
+
+    // Ids Far Outside the Autoincrement Range, so Polls Touch No Real Rows.
+    private static final long BASE_ID = Long.MAX_VALUE - 1000;
+
+    private DownloadQueue mDownloadQueue;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mDownloadQueue = new DownloadQueue();
+    }
+
+    public void testPollsHigherPriorityFirst() {
+        mDownloadQueue.offer(constructDownloadChapter(0, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(1, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(2, PARENT_URL_B, DownloadUtils.PRIORITY_FIRST));
+        mDownloadQueue.offer(constructDownloadChapter(3, PARENT_URL_A, DownloadUtils.PRIORITY_FIRST));
+
+        assertPolled(3, 2, 0, 1);
+    }
+
+    public void testRoundRobinsAcrossParentUrls() {
+        mDownloadQueue.offer(constructDownloadChapter(0, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(1, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(2, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(3, PARENT_URL_B, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(4, PARENT_URL_B, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+
+        assertPolled(0, 3, 1, 4, 2);
+    }
+
+    public void testRemoveWhileQueued() {
+        mDownloadQueue.offer(constructDownloadChapter(0, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(1, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(2, PARENT_URL_B, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+
+        assertTrue(mDownloadQueue.remove(BASE_ID));
+        assertTrue(mDownloadQueue.remove(BASE_ID + 2));
+        assertFalse(mDownloadQueue.remove(BASE_ID + 2));
+
+        assertPolled(1);
+        assertTrue(mDownloadQueue.isEmpty());
+        assertFalse(mDownloadQueue.isIdle());
+
+        assertTrue(mDownloadQueue.finish(BASE_ID + 1));
+        assertTrue(mDownloadQueue.isIdle());
+    }
+
+    public void testRunningChapterIsNotOfferedTwice() {
+        DownloadChapter downloadChapter = constructDownloadChapter(0, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY);
+
+        mDownloadQueue.offer(downloadChapter);
+        mDownloadQueue.offer(downloadChapter);
+        assertPolled(0);
+
+        mDownloadQueue.offer(downloadChapter);
+        assertTrue(mDownloadQueue.isEmpty());
+        assertEquals(1, mDownloadQueue.getRunningCount());
+    }
+
+    public void testReprioritizeMovesQueuedChapterToFront() {
+        mDownloadQueue.offer(constructDownloadChapter(0, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(1, PARENT_URL_A, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+        mDownloadQueue.offer(constructDownloadChapter(2, PARENT_URL_B, DefaultFactory.DownloadChapter.DEFAULT_PRIORITY));
+
+        assertTrue(mDownloadQueue.reprioritize(BASE_ID + 1, DownloadUtils.PRIORITY_FIRST));
+        assertFalse(mDownloadQueue.reprioritize(BASE_ID + 3, DownloadUtils.PRIORITY_FIRST));
+
+        assertPolled(1, 2, 0);
+    }
+
+    private void assertPolled(int... indexes) {
+        for (int index : indexes) {
+            DownloadChapter downloadChapter = mDownloadQueue.poll();
+
+            assertNotNull("Queue Empty Before Chapter " + index, downloadChapter);
+            assertEquals(Long.valueOf(BASE_ID + index), downloadChapter.getId());
+            assertEquals(DownloadUtils.FLAG_RUNNING, downloadChapter.getFlag());
+        }
+    }
+
+    private static DownloadChapter constructDownloadChapter(int index, String parentUrl, int priority) {
+        DownloadChapter downloadChapter = DefaultFactory.DownloadChapter.constructDefault();
+        downloadChapter.setId(BASE_ID + index);
+        downloadChapter.setParentUrl(parentUrl);
+        downloadChapter.setUrl(parentUrl + index + "/");
+        downloadChapter.setPriority(priority);
+
+        return downloadChapter;
+    }
+}
@@ -0,0 +1,158 @@
+package com.aizoban.naitokenzai.controllers.downloads;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.utils.DiskUtils;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Observable;
+
+public class DownloadSchedulerTest extends AndroidTestCase {
+    public static final String TAG = DownloadSchedulerTest.class.getSimpleName();
+
+    private static final int PAGE_COUNT = 40;
+    private static final int PAGE_SIZE = 64 * 1024;
+    private static final long PAGE_LATENCY_MS = 100;
+    private static final int THROTTLE_EVERY = 5;
+
+    private MockWebServer mServer;
+    private File mDirectory;
+
+    private final AtomicInteger mRequestCount = new AtomicInteger();
+    private final AtomicInteger mThrottledCount = new AtomicInteger();
+    private final AtomicInteger mActiveCount = new AtomicInteger();
+    private final AtomicInteger mMaximumActiveCount = new AtomicInteger();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        final byte[] pageBytes = new byte[PAGE_SIZE];
+
+        mServer = new MockWebServer();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                int activeCount = mActiveCount.incrementAndGet();
+                try {
+                    int maximumActiveCount = mMaximumActiveCount.get();
+                    while (activeCount > maximumActiveCount && !mMaximumActiveCount.compareAndSet(maximumActiveCount, activeCount)) {
+                        maximumActiveCount = mMaximumActiveCount.get();
+                    }
+
+                    Thread.sleep(PAGE_LATENCY_MS);
+
+                    if (mRequestCount.incrementAndGet() % THROTTLE_EVERY == 0) {
+                        mThrottledCount.incrementAndGet();
+
+                        return new MockResponse()
+                                .setResponseCode(429)
+                                .setHeader("Retry-After", "0");
+                    }
+
+                    return new MockResponse()
+                            .setHeader("Content-Type", "image/jpeg")
+                            .setBody(pageBytes);
+                } finally {
+                    mActiveCount.decrementAndGet();
+                }
+            }
+        });
+        mServer.play();
+
+        mDirectory = new File(getContext().getCacheDir(), TAG);
+        DiskUtils.deleteFiles(mDirectory);
+        mDirectory.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+
+        DiskUtils.deleteFiles(mDirectory);
+
+        super.tearDown();
+    }
+
+    public void testThrottledPagesAreRetried() {
+        List<File> pageFiles = downloadPages(DownloadScheduler.MAXIMUM_REQUESTS_PER_HOST);
+
+        assertEquals(PAGE_COUNT, pageFiles.size());
+        for (File pageFile : pageFiles) {
+            assertEquals(PAGE_SIZE, pageFile.length());
+        }
+
+        assertTrue("No Requests Were Throttled", mThrottledCount.get() > 0);
+        assertEquals(PAGE_COUNT + mThrottledCount.get(), mRequestCount.get());
+        assertTrue("Maximum Active Requests " + mMaximumActiveCount.get(), mMaximumActiveCount.get() <= DownloadScheduler.MAXIMUM_REQUESTS_PER_HOST);
+    }
+
+    public void testRetryAfterIsHonoured() throws IOException {
+        mServer.shutdown();
+
+        mServer = new MockWebServer();
+        mServer.enqueue(new MockResponse()
+                .setResponseCode(503)
+                .setHeader("Retry-After", "1"));
+        mServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "image/jpeg")
+                .setBody(new byte[PAGE_SIZE]));
+        mServer.play();
+
+        long startTime = SystemClock.elapsedRealtime();
+        File pageFile = DownloadScheduler.getInstance()
+                .downloadPage(mServer.getUrl("/retry_after.jpg").toString(), mDirectory.getAbsolutePath(), "0")
+                .toBlocking()
+                .single();
+        long elapsedTime = SystemClock.elapsedRealtime() - startTime;
+
+        assertEquals(PAGE_SIZE, pageFile.length());
+        assertEquals(2, mServer.getRequestCount());
+        assertTrue("Retried After " + elapsedTime + " ms", elapsedTime >= 1000);
+    }
+
+    public void testBenchmarkThroughputAgainstSequential() {
+        long sequentialStartTime = SystemClock.elapsedRealtime();
+        downloadPages(1);
+        long sequentialTime = SystemClock.elapsedRealtime() - sequentialStartTime;
+
+        DiskUtils.deleteFiles(mDirectory);
+        mDirectory.mkdirs();
+
+        mThrottledCount.set(0);
+
+        long scheduledStartTime = SystemClock.elapsedRealtime();
+        downloadPages(DownloadScheduler.MAXIMUM_REQUESTS_PER_HOST);
+        long scheduledTime = SystemClock.elapsedRealtime() - scheduledStartTime;
+
+        Log.d(TAG, PAGE_COUNT + " Pages with " + PAGE_LATENCY_MS + " ms Latency and a 429 Every " + THROTTLE_EVERY + " Requests: " +
+                "Sequential " + sequentialTime + " ms, Scheduled " + scheduledTime + " ms (" + (PAGE_COUNT * 1000L / Math.max(1, scheduledTime)) + " Pages/s), " +
+                mThrottledCount.get() + " Throttled, at Most " + mMaximumActiveCount.get() + " Concurrent");
+
+        assertTrue("Scheduled Took " + scheduledTime + " ms, Sequential " + sequentialTime + " ms", scheduledTime < sequentialTime);
+    }
+
+    private List<File> downloadPages(int pageParallelism) {
+        List<Observable<File>> pageDownloads = new ArrayList<Observable<File>>(PAGE_COUNT);
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            pageDownloads.add(DownloadScheduler.getInstance()
+                    .downloadPage(mServer.getUrl("/pages/" + index + ".jpg").toString(), mDirectory.getAbsolutePath(), String.valueOf(index)));
+        }
+
+        return Observable.merge(Observable.from(pageDownloads), pageParallelism)
+                .toList()
+                .toBlocking()
+                .single();
+    }
+}
@@ -0,0 +1,206 @@
+package com.aizoban.naitokenzai.controllers.downloads;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.utils.DiskUtils;
+import com.aizoban.naitokenzai.utils.DownloadUtils;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okio.BufferedSource;
+import okio.Okio;
+
+public class PageResumeTest extends AndroidTestCase {
+    public static final String TAG = PageResumeTest.class.getSimpleName();
+
+    private static final int PAGE_SIZE = 256 * 1024;
+    private static final int PAGE_COUNT = 10;
+    private static final String ENTITY_TAG = "\"page-v1\"";
+
+    private static final int THROTTLE_BYTES = 64 * 1024;
+    private static final long THROTTLE_PERIOD_MS = 50;
+
+    private MockWebServer mServer;
+    private File mDirectory;
+
+    private byte[] mPageBytes;
+    private final AtomicLong mServedBytes = new AtomicLong();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mPageBytes = new byte[PAGE_SIZE];
+        for (int index = 0; index < PAGE_SIZE; index++) {
+            mPageBytes[index] = (byte) (index * 31);
+        }
+
+        mServer = new MockWebServer();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String range = request.getHeader("Range");
+                String ifRange = request.getHeader("If-Range");
+
+                if (range != null && ENTITY_TAG.equals(ifRange)) {
+                    int rangeStart = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+                    if (rangeStart >= PAGE_SIZE) {
+                        return new MockResponse()
+                                .setResponseCode(416)
+                                .setHeader("Content-Range", "bytes */" + PAGE_SIZE);
+                    }
+
+                    mServedBytes.addAndGet(PAGE_SIZE - rangeStart);
+
+                    return new MockResponse()
+                            .setResponseCode(206)
+                            .setHeader("Content-Type", "image/jpeg")
+                            .setHeader("ETag", ENTITY_TAG)
+                            .setHeader("Content-Range", "bytes " + rangeStart + "-" + (PAGE_SIZE - 1) + "/" + PAGE_SIZE)
+                            .setBody(Arrays.copyOfRange(mPageBytes, rangeStart, PAGE_SIZE))
+                            .throttleBody(THROTTLE_BYTES, THROTTLE_PERIOD_MS, TimeUnit.MILLISECONDS);
+                }
+
+                mServedBytes.addAndGet(PAGE_SIZE);
+
+                return new MockResponse()
+                        .setHeader("Content-Type", "image/jpeg")
+                        .setHeader("ETag", ENTITY_TAG)
+                        .setBody(mPageBytes)
+                        .throttleBody(THROTTLE_BYTES, THROTTLE_PERIOD_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+        mServer.play();
+
+        mDirectory = new File(getContext().getCacheDir(), TAG);
+        DiskUtils.deleteFiles(mDirectory);
+        mDirectory.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+
+        DiskUtils.deleteFiles(mDirectory);
+
+        super.tearDown();
+    }
+
+    public void testPartialPageIsResumedWithRange() throws IOException, InterruptedException {
+        writePartialPage("0", PAGE_SIZE / 2, ENTITY_TAG);
+
+        File pageFile = downloadPage("0");
+
+        RecordedRequest request = mServer.takeRequest();
+        assertEquals("bytes=" + (PAGE_SIZE / 2) + "-", request.getHeader("Range"));
+        assertEquals(ENTITY_TAG, request.getHeader("If-Range"));
+
+        assertEquals(PAGE_SIZE / 2, mServedBytes.get());
+        assertPageComplete(pageFile);
+    }
+
+    public void testChangedEntityTagRestartsPage() throws IOException {
+        writePartialPage("0", PAGE_SIZE / 2, "\"page-v0\"");
+
+        File pageFile = downloadPage("0");
+
+        assertEquals(PAGE_SIZE, mServedBytes.get());
+        assertPageComplete(pageFile);
+    }
+
+    public void testWeakEntityTagIsNotResumed() throws IOException, InterruptedException {
+        writePartialPage("0", PAGE_SIZE / 2, "W/" + ENTITY_TAG);
+
+        File pageFile = downloadPage("0");
+
+        assertNull(mServer.takeRequest().getHeader("Range"));
+        assertPageComplete(pageFile);
+    }
+
+    public void testUnsatisfiableRangeDiscardsPartialPage() throws IOException {
+        writePartialPage("0", PAGE_SIZE, ENTITY_TAG);
+
+        try {
+            downloadPage("0");
+            fail("Expected 416 to Fail the Page");
+        } catch (RuntimeException e) {
+            // Do Nothing.
+        }
+
+        assertFalse(new File(mDirectory, "0" + DownloadUtils.PARTIAL_FILE_EXTENSION).exists());
+        assertPageComplete(downloadPage("0"));
+    }
+
+    public void testBenchmarkResumeAgainstRestart() throws IOException {
+        long restartStartTime = SystemClock.elapsedRealtime();
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            downloadPage(String.valueOf(index));
+        }
+        long restartTime = SystemClock.elapsedRealtime() - restartStartTime;
+        long restartBytes = mServedBytes.getAndSet(0);
+
+        DiskUtils.deleteFiles(mDirectory);
+        mDirectory.mkdirs();
+
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            writePartialPage(String.valueOf(index), PAGE_SIZE / 2, ENTITY_TAG);
+        }
+
+        long resumeStartTime = SystemClock.elapsedRealtime();
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            assertPageComplete(downloadPage(String.valueOf(index)));
+        }
+        long resumeTime = SystemClock.elapsedRealtime() - resumeStartTime;
+        long resumeBytes = mServedBytes.get();
+
+        Log.d(TAG, PAGE_COUNT + " Pages Interrupted Halfway: Restart " + restartTime + " ms, " + restartBytes + " Bytes, " +
+                "Resume " + resumeTime + " ms, " + resumeBytes + " Bytes");
+
+        assertEquals(restartBytes / 2, resumeBytes);
+        assertTrue("Resume Took " + resumeTime + " ms, Restart " + restartTime + " ms", resumeTime < restartTime);
+    }
+
+    private File downloadPage(String name) {
+        return DownloadScheduler.getInstance()
+                .downloadPage(mServer.getUrl("/pages/" + name + ".jpg").toString(), mDirectory.getAbsolutePath(), name)
+                .toBlocking()
+                .single();
+    }
+
+    private void writePartialPage(String name, int length, String entityTag) throws IOException {
+        FileOutputStream partialOutputStream = new FileOutputStream(new File(mDirectory, name + DownloadUtils.PARTIAL_FILE_EXTENSION));
+        try {
+            partialOutputStream.write(mPageBytes, 0, length);
+        } finally {
+            partialOutputStream.close();
+        }
+
+        DiskUtils.writeStringToFile(entityTag, new File(mDirectory, name + DownloadUtils.PARTIAL_FILE_EXTENSION + DownloadUtils.ENTITY_TAG_FILE_EXTENSION));
+    }
+
+    private void assertPageComplete(File pageFile) throws IOException {
+        assertFalse(pageFile.getName().endsWith(DownloadUtils.PARTIAL_FILE_EXTENSION));
+
+        BufferedSource pageSource = Okio.buffer(Okio.source(pageFile));
+        try {
+            assertTrue("Page Content Differs", Arrays.equals(mPageBytes, pageSource.readByteArray()));
+        } finally {
+            pageSource.close();
+        }
+
+        String name = pageFile.getName().substring(0, pageFile.getName().indexOf('.'));
+        assertFalse(new File(mDirectory, name + DownloadUtils.PARTIAL_FILE_EXTENSION).exists());
+        assertFalse(new File(mDirectory, name + DownloadUtils.PARTIAL_FILE_EXTENSION + DownloadUtils.ENTITY_TAG_FILE_EXTENSION).exists());
+    }
+}
@@ -0,0 +1,222 @@
+package com.aizoban.naitokenzai.controllers.downloads;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.controllers.NaitoKenzaiManager;
+import com.aizoban.naitokenzai.controllers.networks.MangaService;
+import com.aizoban.naitokenzai.controllers.networks.OkHttpStreamFetcher;
+import com.aizoban.naitokenzai.controllers.sources.English_MangaHere;
+import com.aizoban.naitokenzai.utils.DiskUtils;
+import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Func1;
+
+public class ReaderPriorityTest extends AndroidTestCase {
+    public static final String TAG = ReaderPriorityTest.class.getSimpleName();
+
+    private static final int CHAPTER_COUNT = 50;
+    private static final int PAGES_PER_CHAPTER = 4;
+    private static final int CHAPTER_PARALLELISM = 5;
+    private static final int READER_PAGE_COUNT = 20;
+
+    private static final int DOWNLOAD_PAGE_SIZE = 256 * 1024;
+    private static final int READER_PAGE_SIZE = 16 * 1024;
+    private static final int THROTTLE_BYTES = 32 * 1024;
+    private static final long THROTTLE_PERIOD_MS = 100;
+    private static final long QUEUE_WARM_UP_MS = 1000;
+
+    private MockWebServer mServer;
+    private File mDirectory;
+
+    private volatile String mBaseUrl;
+    private long mRunId;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        final byte[] downloadPageBytes = new byte[DOWNLOAD_PAGE_SIZE];
+        final byte[] readerPageBytes = new byte[READER_PAGE_SIZE];
+
+        mServer = new MockWebServer();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String path = request.getPath();
+
+                if (path.startsWith("/chapter/")) {
+                    String name = path.substring("/chapter/".length(), path.length() - 1);
+
+                    StringBuilder chapterHtml = new StringBuilder("<html><body><select class=\"wid60\">");
+                    for (int index = 0; index < READER_PAGE_COUNT; index++) {
+                        chapterHtml.append("<option value=\"").append(mBaseUrl).append("page/").append(name).append("/").append(index).append(".html\">").append(index + 1).append("</option>");
+                    }
+                    chapterHtml.append("</select></body></html>");
+
+                    return new MockResponse()
+                            .setHeader("Content-Type", "text/html; charset=utf-8")
+                            .setBody(chapterHtml.toString());
+                }
+                if (path.startsWith("/page/")) {
+                    String imagePath = path.substring("/page/".length(), path.length() - ".html".length());
+
+                    return new MockResponse()
+                            .setHeader("Content-Type", "text/html; charset=utf-8")
+                            .setBody("<html><body><img id=\"image\" src=\"" + mBaseUrl + "reader/" + imagePath + ".jpg\"></body></html>");
+                }
+                if (path.startsWith("/reader/")) {
+                    return new MockResponse()
+                            .setHeader("Content-Type", "image/jpeg")
+                            .setBody(readerPageBytes);
+                }
+
+                return new MockResponse()
+                        .setHeader("Content-Type", "image/jpeg")
+                        .setBody(downloadPageBytes)
+                        .throttleBody(THROTTLE_BYTES, THROTTLE_PERIOD_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+        mServer.play();
+
+        mBaseUrl = mServer.getUrl("/").toString();
+        mRunId = System.currentTimeMillis();
+
+        mDirectory = new File(getContext().getCacheDir(), TAG);
+        DiskUtils.deleteFiles(mDirectory);
+        mDirectory.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+
+        DiskUtils.deleteFiles(mDirectory);
+
+        super.tearDown();
+    }
+
+    public void testBenchmarkTimeToFirstPageDuringQueue() throws Exception {
+        Subscription queueSubscription = startDownloadQueue();
+        try {
+            SystemClock.sleep(QUEUE_WARM_UP_MS);
+
+            long sharedTime = openChapterShared("shared");
+
+            DownloadScheduler.getInstance().onReaderResumed();
+            try {
+                long readerTime = openChapterForeground("reader");
+
+                Log.d(TAG, "Time to First Page (Url Resolution and First Image) with " + CHAPTER_COUNT + " Chapters Queued: " +
+                        "Shared " + sharedTime + " ms, Foreground " + readerTime + " ms");
+
+                assertTrue("Foreground Took " + readerTime + " ms, Shared " + sharedTime + " ms", readerTime < sharedTime);
+            } finally {
+                DownloadScheduler.getInstance().onReaderPaused();
+            }
+        } finally {
+            queueSubscription.unsubscribe();
+        }
+    }
+
+    private long openChapterShared(String name) throws Exception {
+        long startTime = SystemClock.elapsedRealtime();
+
+        String firstImageUrl = NaitoKenzaiManager
+                .pullImageUrlsFromNetwork(constructChapterRequest(name))
+                .toBlocking()
+                .first();
+
+        Response imageResponse = MangaService.getInstance()
+                .getResponse(firstImageUrl)
+                .toBlocking()
+                .single();
+        try {
+            imageResponse.body().bytes();
+        } finally {
+            MangaService.closeQuietly(imageResponse);
+        }
+
+        return SystemClock.elapsedRealtime() - startTime;
+    }
+
+    private long openChapterForeground(String name) throws Exception {
+        long startTime = SystemClock.elapsedRealtime();
+
+        String firstImageUrl = NaitoKenzaiManager
+                .pullImageUrlsFromNetwork(constructChapterRequest(name), true)
+                .toBlocking()
+                .first();
+
+        OkHttpStreamFetcher streamFetcher = new OkHttpStreamFetcher(new GlideUrl(firstImageUrl));
+        try {
+            InputStream pageInputStream = streamFetcher.loadData(Priority.IMMEDIATE);
+
+            byte[] readBuffer = new byte[8192];
+            while (pageInputStream.read(readBuffer) != -1) {
+                // Drain the Page.
+            }
+        } finally {
+            streamFetcher.cleanup();
+        }
+
+        return SystemClock.elapsedRealtime() - startTime;
+    }
+
+    private RequestWrapper constructChapterRequest(String name) {
+        return new RequestWrapper(English_MangaHere.NAME, mBaseUrl + "chapter/" + name + "-" + mRunId + "/");
+    }
+
+    private Subscription startDownloadQueue() {
+        List<Observable<File>> chapterDownloads = new ArrayList<Observable<File>>(CHAPTER_COUNT);
+        for (int chapterIndex = 0; chapterIndex < CHAPTER_COUNT; chapterIndex++) {
+            final File chapterDirectory = new File(mDirectory, String.valueOf(chapterIndex));
+
+            Observable<Observable<File>> pageDownloads = Observable.range(0, PAGES_PER_CHAPTER)
+                    .map(new Func1<Integer, Observable<File>>() {
+                        @Override
+                        public Observable<File> call(Integer pageIndex) {
+                            return DownloadScheduler.getInstance()
+                                    .downloadPage(mServer.getUrl("/pages/" + chapterDirectory.getName() + "/" + pageIndex + ".jpg").toString(), chapterDirectory.getAbsolutePath(), String.valueOf(pageIndex));
+                        }
+                    });
+
+            chapterDownloads.add(Observable.merge(pageDownloads, DownloadScheduler.MAXIMUM_REQUESTS_PER_HOST));
+        }
+
+        return Observable.merge(Observable.from(chapterDownloads), CHAPTER_PARALLELISM)
+                .subscribe(new Subscriber<File>() {
+                    @Override
+                    public void onCompleted() {
+                        // Do Nothing.
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        // Do Nothing.
+                    }
+
+                    @Override
+                    public void onNext(File file) {
+                        // Do Nothing.
+                    }
+                });
+    }
+}
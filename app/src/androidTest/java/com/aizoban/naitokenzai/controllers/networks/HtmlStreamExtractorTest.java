@@ -0,0 +1,111 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import org.jsoup.Jsoup;
+
+import java.io.IOException;
+
+import okio.Buffer;
+
+public class HtmlStreamExtractorTest extends AndroidTestCase {
+    public static final String TAG = HtmlStreamExtractorTest.class.getSimpleName();
+
+    private static final String IMAGE_URL = "http://images.example.com/manga/chapter/12.jpg?token=1&amp;size=full";
+    private static final String UNESCAPED_IMAGE_URL = "http://images.example.com/manga/chapter/12.jpg?token=1&size=full";
+
+    private static final int BENCHMARK_ITERATIONS = 200;
+
+    public void testExtractsImageUrlFromStream() throws IOException {
+        String imageUrl = HtmlStreamExtractor.extractAttributeFromElement(new Buffer().writeUtf8(constructPageHtml("")), "img", "image", "src");
+
+        assertEquals(UNESCAPED_IMAGE_URL, imageUrl);
+    }
+
+    public void testFallsBackToJsoupWithoutSecondRequest() throws IOException {
+        StringBuilder oversizedAttribute = new StringBuilder(" data-preload=\"");
+        for (int index = 0; index < 8192; index++) {
+            oversizedAttribute.append('x');
+        }
+        oversizedAttribute.append('"');
+
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody(constructPageHtml(oversizedAttribute.toString())));
+        server.play();
+
+        try {
+            Response response = MangaService.getInstance()
+                    .getUncachedResponse(server.getUrl("/manga/chapter/12.html").toString())
+                    .toBlocking()
+                    .single();
+
+            assertEquals(UNESCAPED_IMAGE_URL, HtmlStreamExtractor.extractImageUrl(response, "image"));
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public void testBenchmarkStreamingAgainstJsoup() throws IOException {
+        String pageHtml = constructPageHtml("");
+
+        Debug.startAllocCounting();
+        try {
+            Debug.resetThreadAllocSize();
+            long streamingStartTime = SystemClock.elapsedRealtime();
+            for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+                assertNotNull(HtmlStreamExtractor.extractAttributeFromElement(new Buffer().writeUtf8(pageHtml), "img", "image", "src"));
+            }
+            long streamingTime = SystemClock.elapsedRealtime() - streamingStartTime;
+            long streamingAllocations = Debug.getThreadAllocSize();
+
+            Debug.resetThreadAllocSize();
+            long jsoupStartTime = SystemClock.elapsedRealtime();
+            for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+                String unparsedHtml = new Buffer().writeUtf8(pageHtml).readUtf8();
+                assertNotNull(Jsoup.parse(unparsedHtml).getElementById("image").attr("src"));
+            }
+            long jsoupTime = SystemClock.elapsedRealtime() - jsoupStartTime;
+            long jsoupAllocations = Debug.getThreadAllocSize();
+
+            Log.d(TAG, "Streaming: " + (streamingTime * 1000 / BENCHMARK_ITERATIONS) + " us, " + (streamingAllocations / BENCHMARK_ITERATIONS) + " Bytes per Page");
+            Log.d(TAG, "Jsoup: " + (jsoupTime * 1000 / BENCHMARK_ITERATIONS) + " us, " + (jsoupAllocations / BENCHMARK_ITERATIONS) + " Bytes per Page");
+
+            assertTrue("Streaming Allocated " + streamingAllocations + " Bytes, Jsoup " + jsoupAllocations, streamingAllocations < jsoupAllocations);
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    private static String constructPageHtml(String extraImageAttributes) {
+        StringBuilder pageHtml = new StringBuilder();
+        pageHtml.append("<!DOCTYPE html><html><head><title>Chapter 12</title>");
+        for (int index = 0; index < 40; index++) {
+            pageHtml.append("<script type=\"text/javascript\">var slot").append(index).append(" = { id: ").append(index).append(", sizes: [[300, 250], [728, 90]] };</script>");
+        }
+        pageHtml.append("</head><body><div class=\"header\"><ul>");
+        for (int index = 0; index < 200; index++) {
+            pageHtml.append("<li><a href=\"http://www.example.com/directory/").append(index).append("/\">Genre ").append(index).append("</a></li>");
+        }
+        pageHtml.append("</ul></div><select class=\"wid60\">");
+        for (int index = 0; index < 60; index++) {
+            pageHtml.append("<option value=\"http://www.example.com/manga/chapter/").append(index).append(".html\">").append(index).append("</option>");
+        }
+        pageHtml.append("</select><section class=\"read_img\"><a href=\"http://www.example.com/manga/chapter/13.html\">");
+        pageHtml.append("<img src=\"").append(IMAGE_URL).append("\"").append(extraImageAttributes).append(" id=\"image\" alt=\"Page 12\"></a></section>");
+        for (int index = 0; index < 300; index++) {
+            pageHtml.append("<div class=\"comment\"><p>Comment ").append(index).append(" on this chapter.</p></div>");
+        }
+        pageHtml.append("</body></html>");
+
+        return pageHtml.toString();
+    }
+}
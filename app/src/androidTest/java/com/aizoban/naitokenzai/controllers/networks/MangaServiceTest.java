@@ -0,0 +1,91 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import android.test.AndroidTestCase;
+
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.net.HttpURLConnection;
+
+public class MangaServiceTest extends AndroidTestCase {
+    private static final int REQUEST_COUNT = 5;
+
+    private static final String ENTITY_TAG = "\"manga-service-test\"";
+    private static final String PAGE_BODY = "<html><body><div class=\"read\"><img id=\"image\" src=\"http://images.example.com/0.jpg\"></div></body></html>";
+
+    private MockWebServer mServer;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mServer = new MockWebServer();
+        mServer.play();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+
+        super.tearDown();
+    }
+
+    public void testSequentialRequestsReuseOneConnection() throws Exception {
+        for (int index = 0; index < REQUEST_COUNT; index++) {
+            mServer.enqueue(new MockResponse()
+                    .setHeader("Cache-Control", "no-store")
+                    .setBody(PAGE_BODY));
+        }
+
+        for (int index = 0; index < REQUEST_COUNT; index++) {
+            Response response = MangaService.getInstance()
+                    .getResponse(mServer.getUrl("/manga/chapter/" + index).toString())
+                    .toBlocking()
+                    .single();
+            assertEquals(PAGE_BODY, response.body().string());
+        }
+
+        for (int index = 0; index < REQUEST_COUNT; index++) {
+            RecordedRequest recordedRequest = mServer.takeRequest();
+
+            assertEquals("/manga/chapter/" + index, recordedRequest.getPath());
+            assertEquals("Request " + index + " Opened a New Connection", index, recordedRequest.getSequenceNumber());
+        }
+    }
+
+    public void testRevalidationServesNotModifiedFromCache() throws Exception {
+        mServer.enqueue(new MockResponse()
+                .setHeader("ETag", ENTITY_TAG)
+                .setHeader("Cache-Control", "max-age=0")
+                .setBody(PAGE_BODY));
+        mServer.enqueue(new MockResponse()
+                .setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED)
+                .setHeader("ETag", ENTITY_TAG));
+
+        String url = mServer.getUrl("/manga/revalidation_" + System.currentTimeMillis() + "/").toString();
+
+        Response firstResponse = MangaService.getInstance()
+                .getRevalidatedResponse(url)
+                .toBlocking()
+                .single();
+        assertFalse(MangaService.isNotModified(firstResponse));
+        assertEquals(PAGE_BODY, firstResponse.body().string());
+
+        Response secondResponse = MangaService.getInstance()
+                .getRevalidatedResponse(url)
+                .toBlocking()
+                .single();
+        assertTrue(MangaService.isNotModified(secondResponse));
+        assertNotNull(secondResponse.cacheResponse());
+        assertEquals(HttpURLConnection.HTTP_OK, secondResponse.code());
+        assertEquals(PAGE_BODY, secondResponse.body().string());
+
+        assertNull(mServer.takeRequest().getHeader("If-None-Match"));
+        RecordedRequest revalidationRequest = mServer.takeRequest();
+        assertEquals(ENTITY_TAG, revalidationRequest.getHeader("If-None-Match"));
+        assertEquals(1, revalidationRequest.getSequenceNumber());
+        assertEquals(2, mServer.getRequestCount());
+    }
+}
@@ -0,0 +1,101 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import rx.functions.Action1;
+
+public class PageUrlResolverTest extends AndroidTestCase {
+    public static final String TAG = PageUrlResolverTest.class.getSimpleName();
+
+    private static final int PAGE_COUNT = 60;
+    private static final long PAGE_LATENCY_MS = 100;
+
+    private MockWebServer mServer;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mServer = new MockWebServer();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                Thread.sleep(PAGE_LATENCY_MS);
+
+                String pageNumber = request.getPath().substring(request.getPath().lastIndexOf('/') + 1);
+
+                return new MockResponse()
+                        .setBody("<html><body><div class=\"read\"><img id=\"image\" src=\"http://images.example.com/" + pageNumber + ".jpg\" alt=\"\"></div></body></html>");
+            }
+        });
+        mServer.play();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+
+        super.tearDown();
+    }
+
+    public void testResolvesImageUrlsInPageOrder() {
+        List<String> imageUrls = PageUrlResolver.getInstance()
+                .resolveImageUrls(constructPageUrls(), "image")
+                .toList()
+                .toBlocking()
+                .single();
+
+        assertEquals(PAGE_COUNT, imageUrls.size());
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            assertEquals("http://images.example.com/" + index + ".jpg", imageUrls.get(index));
+        }
+    }
+
+    public void testBenchmarkTimeToFirstUrl() {
+        final long startTime = SystemClock.elapsedRealtime();
+        final long[] firstUrlTime = new long[] { -1 };
+        final List<String> imageUrls = new ArrayList<String>();
+
+        PageUrlResolver.getInstance()
+                .resolveImageUrls(constructPageUrls(), "image")
+                .toBlocking()
+                .forEach(new Action1<String>() {
+                    @Override
+                    public void call(String imageUrl) {
+                        if (firstUrlTime[0] < 0) {
+                            firstUrlTime[0] = SystemClock.elapsedRealtime() - startTime;
+                        }
+
+                        imageUrls.add(imageUrl);
+                    }
+                });
+
+        long totalTime = SystemClock.elapsedRealtime() - startTime;
+        long sequentialTime = PAGE_COUNT * PAGE_LATENCY_MS;
+
+        Log.d(TAG, "First Url in " + firstUrlTime[0] + " ms, " + PAGE_COUNT + " Urls in " + totalTime + " ms, Sequential Bound " + sequentialTime + " ms");
+
+        assertEquals(PAGE_COUNT, imageUrls.size());
+        assertTrue("First Url Took " + firstUrlTime[0] + " ms", firstUrlTime[0] < PAGE_LATENCY_MS * 4);
+        assertTrue("Resolution Took " + totalTime + " ms", totalTime < sequentialTime / 2);
+    }
+
+    private List<String> constructPageUrls() {
+        List<String> pageUrls = new ArrayList<String>();
+        for (int index = 0; index < PAGE_COUNT; index++) {
+            pageUrls.add(mServer.getUrl("/manga/chapter/" + index).toString());
+        }
+
+        return pageUrls;
+    }
+}
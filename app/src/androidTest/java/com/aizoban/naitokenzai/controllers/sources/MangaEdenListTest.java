@@ -0,0 +1,271 @@
+package com.aizoban.naitokenzai.controllers.sources;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.controllers.databases.LibraryContract;
+import com.aizoban.naitokenzai.controllers.databases.LibrarySQLiteOpenHelper;
+import com.aizoban.naitokenzai.controllers.networks.MangaService;
+import com.aizoban.naitokenzai.models.Manga;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static nl.qbusict.cupboard.CupboardFactory.cupboard;
+
+public class MangaEdenListTest extends AndroidTestCase {
+    public static final String TAG = MangaEdenListTest.class.getSimpleName();
+
+    private static final String ID_PREFIX = "mangaedenlisttest";
+    private static final String URL_PREFIX = "https://www.mangaeden.com/api/manga/" + ID_PREFIX;
+
+    private static final int MANGA_COUNT = 15000;
+    private static final long HEAP_SAMPLE_INTERVAL_MS = 5;
+
+    private MockWebServer mServer;
+    private String mListFixture;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mListFixture = constructListFixture();
+
+        mServer = new MockWebServer();
+        mServer.play();
+
+        deleteTestMangas();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+
+        deleteTestMangas();
+
+        super.tearDown();
+    }
+
+    public void testStreamingListWritesRankedMangas() {
+        mServer.enqueue(new MockResponse().setBody(mListFixture));
+
+        new English_MangaEden()
+                .recursivelyConstructDatabase(mServer.getUrl("/api/list/0/").toString())
+                .toBlocking()
+                .single();
+
+        assertEquals(MANGA_COUNT, countTestMangas());
+
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+        Cursor topMangaCursor = sqLiteDatabase.query(
+                LibraryContract.Manga.TABLE_NAME,
+                new String[] { LibraryContract.Manga.COLUMN_URL, LibraryContract.Manga.COLUMN_COMPLETED },
+                LibraryContract.Manga.COLUMN_URL + " LIKE ?",
+                new String[] { URL_PREFIX + "%" },
+                null,
+                null,
+                LibraryContract.Manga.COLUMN_RANK + " ASC",
+                "1"
+        );
+        try {
+            assertTrue(topMangaCursor.moveToFirst());
+            assertEquals(URL_PREFIX + (MANGA_COUNT - 1) + "/", topMangaCursor.getString(0));
+            assertEquals((MANGA_COUNT - 1) % 3 == 2, topMangaCursor.getInt(1) != 0);
+        } finally {
+            topMangaCursor.close();
+        }
+    }
+
+    public void testBenchmarkStreamingAgainstJsonObject() throws Exception {
+        mServer.enqueue(new MockResponse().setBody(mListFixture));
+        mServer.enqueue(new MockResponse().setBody(mListFixture));
+
+        HeapSampler jsonObjectSampler = new HeapSampler();
+        long jsonObjectStartTime = SystemClock.elapsedRealtime();
+        jsonObjectSampler.start();
+        try {
+            constructDatabaseWithJsonObject(mServer.getUrl("/api/list/0/").toString());
+        } finally {
+            jsonObjectSampler.finish();
+        }
+        long jsonObjectTime = SystemClock.elapsedRealtime() - jsonObjectStartTime;
+
+        deleteTestMangas();
+
+        HeapSampler streamingSampler = new HeapSampler();
+        long streamingStartTime = SystemClock.elapsedRealtime();
+        streamingSampler.start();
+        try {
+            new English_MangaEden()
+                    .recursivelyConstructDatabase(mServer.getUrl("/api/list/0/").toString())
+                    .toBlocking()
+                    .single();
+        } finally {
+            streamingSampler.finish();
+        }
+        long streamingTime = SystemClock.elapsedRealtime() - streamingStartTime;
+
+        Log.d(TAG, "List of " + MANGA_COUNT + " Mangas (" + mListFixture.length() + " Chars): " +
+                "JSONObject " + jsonObjectTime + " ms, " + jsonObjectSampler.getPeakGrowth() + " B Peak Heap Growth, " +
+                "JsonReader " + streamingTime + " ms, " + streamingSampler.getPeakGrowth() + " B Peak Heap Growth");
+
+        assertEquals(MANGA_COUNT, countTestMangas());
+        assertTrue("JsonReader Peak " + streamingSampler.getPeakGrowth() + " B, JSONObject " + jsonObjectSampler.getPeakGrowth() + " B",
+                streamingSampler.getPeakGrowth() < jsonObjectSampler.getPeakGrowth());
+    }
+
+    private static String constructListFixture() throws JSONException {
+        JSONArray mangaArray = new JSONArray();
+        for (int index = 0; index < MANGA_COUNT; index++) {
+            JSONObject mangaNode = new JSONObject();
+            mangaNode.put("a", ID_PREFIX + "-alias-" + index);
+            mangaNode.put("c", new JSONArray().put("Action").put("Comedy").put("Drama"));
+            mangaNode.put("h", index);
+            mangaNode.put("i", ID_PREFIX + index);
+            mangaNode.put("im", "4f/4f" + index + ".jpg");
+            mangaNode.put("ld", 1420070400.0 + index);
+            mangaNode.put("s", index % 3);
+            mangaNode.put("t", "Manga Title Number " + index);
+
+            mangaArray.put(mangaNode);
+        }
+
+        JSONObject listNode = new JSONObject();
+        listNode.put("manga", mangaArray);
+        listNode.put("end", MANGA_COUNT);
+        listNode.put("page", 0);
+        listNode.put("start", 0);
+        listNode.put("total", MANGA_COUNT);
+
+        return listNode.toString();
+    }
+
+    private static void constructDatabaseWithJsonObject(String url) throws IOException, JSONException {
+        Response response = MangaService.getInstance()
+                .getResponse(url)
+                .toBlocking()
+                .single();
+
+        String unparsedJson = response.body().string();
+
+        JSONObject parsedJson = new JSONObject(unparsedJson);
+
+        List<Manga> mangaList = new ArrayList<Manga>();
+        JSONArray mangaArrayNodes = parsedJson.getJSONArray("manga");
+        for (int index = 0; index < mangaArrayNodes.length(); index++) {
+            JSONObject currentMangaNode = mangaArrayNodes.getJSONObject(index);
+
+            Manga newManga = new Manga();
+            newManga.setSource(English_MangaEden.NAME);
+            newManga.setUrl("https://www.mangaeden.com/api/manga/" + currentMangaNode.getString("i") + "/");
+            newManga.setName(currentMangaNode.getString("t"));
+            newManga.setThumbnailUrl("https://cdn.mangaeden.com/mangasimg/" + currentMangaNode.getString("im"));
+            newManga.setCompleted(currentMangaNode.getInt("s") == 2);
+            newManga.setRank(currentMangaNode.getInt("h"));
+
+            mangaList.add(newManga);
+        }
+
+        Collections.sort(mangaList, new Comparator<Manga>() {
+            @Override
+            public int compare(Manga lhs, Manga rhs) {
+                if (lhs.getRank() < rhs.getRank()) {
+                    return 1;
+                } else if (lhs.getRank() == rhs.getRank()) {
+                    return 0;
+                } else {
+                    return -1;
+                }
+            }
+        });
+
+        for (int index = 0; index < mangaList.size(); index++) {
+            mangaList.get(index).setRank(index + 1);
+        }
+
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+        sqLiteDatabase.beginTransaction();
+        try {
+            for (Manga currentManga : mangaList) {
+                cupboard().withDatabase(sqLiteDatabase).put(currentManga);
+            }
+
+            sqLiteDatabase.setTransactionSuccessful();
+        } finally {
+            sqLiteDatabase.endTransaction();
+        }
+    }
+
+    private static long countTestMangas() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        return DatabaseUtils.queryNumEntries(sqLiteDatabase, LibraryContract.Manga.TABLE_NAME,
+                LibraryContract.Manga.COLUMN_URL + " LIKE ?", new String[] { URL_PREFIX + "%" });
+    }
+
+    private static void deleteTestMangas() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        sqLiteDatabase.delete(LibraryContract.Manga.TABLE_NAME, LibraryContract.Manga.COLUMN_URL + " LIKE ?", new String[] { URL_PREFIX + "%" });
+    }
+
+    private static class HeapSampler extends Thread {
+        private final long mBaseline;
+
+        private volatile boolean mIsFinished;
+        private volatile long mPeakGrowth;
+
+        private HeapSampler() {
+            Runtime.getRuntime().gc();
+
+            mBaseline = getUsedHeap();
+        }
+
+        @Override
+        public void run() {
+            while (!mIsFinished) {
+                sample();
+
+                SystemClock.sleep(HEAP_SAMPLE_INTERVAL_MS);
+            }
+        }
+
+        public void finish() throws InterruptedException {
+            sample();
+
+            mIsFinished = true;
+            join();
+        }
+
+        public long getPeakGrowth() {
+            return mPeakGrowth;
+        }
+
+        private synchronized void sample() {
+            long growth = getUsedHeap() - mBaseline;
+            if (growth > mPeakGrowth) {
+                mPeakGrowth = growth;
+            }
+        }
+
+        private static long getUsedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+}
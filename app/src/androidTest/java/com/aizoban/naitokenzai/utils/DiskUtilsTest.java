@@ -0,0 +1,196 @@
+package com.aizoban.naitokenzai.utils;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.controllers.networks.MangaService;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import okio.BufferedSink;
+import okio.Okio;
+
+public class DiskUtilsTest extends AndroidTestCase {
+    public static final String TAG = DiskUtilsTest.class.getSimpleName();
+
+    private static final int PAGE_SIZE = 512 * 1024;
+    private static final int PAGE_COUNT = 20;
+
+    private static final int WRITE_METHOD_LEGACY = 0;
+    private static final int WRITE_METHOD_OKIO = 1;
+    private static final int WRITE_METHOD_OKIO_FSYNC = 2;
+
+    private MockWebServer mServer;
+    private File mDirectory;
+
+    private byte[] mPageBytes;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mPageBytes = new byte[PAGE_SIZE];
+        for (int index = 0; index < PAGE_SIZE; index++) {
+            mPageBytes[index] = (byte) (index * 31);
+        }
+
+        mServer = new MockWebServer();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                return new MockResponse()
+                        .setHeader("Content-Type", "image/jpeg")
+                        .setBody(mPageBytes);
+            }
+        });
+        mServer.play();
+
+        mDirectory = new File(getContext().getCacheDir(), TAG);
+        DiskUtils.deleteFiles(mDirectory);
+        mDirectory.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+
+        DiskUtils.deleteFiles(mDirectory);
+
+        super.tearDown();
+    }
+
+    public void testWriteSourceToFileWritesWholePage() throws IOException {
+        File pageFile = new File(mDirectory, "0");
+
+        Response response = fetchPage(0);
+        assertEquals(PAGE_SIZE, DiskUtils.writeSourceToFile(response.body().source(), pageFile, false));
+        assertEquals(PAGE_SIZE, pageFile.length());
+
+        response = fetchPage(1);
+        DiskUtils.writeSourceToFile(response.body().source(), pageFile, true);
+        assertEquals(PAGE_SIZE * 2, pageFile.length());
+    }
+
+    public void testBenchmarkWriteSourceToFileAgainstInputStreamCopy() throws IOException {
+        long[] legacyResult = writePages(WRITE_METHOD_LEGACY);
+        long[] okioResult = writePages(WRITE_METHOD_OKIO);
+        long[] fsyncResult = writePages(WRITE_METHOD_OKIO_FSYNC);
+
+        Log.d(TAG, PAGE_COUNT + " Pages of " + PAGE_SIZE + " Bytes: " +
+                "saveInputStreamToDirectory " + describe(legacyResult) + ", " +
+                "Okio writeAll " + describe(okioResult) + ", " +
+                "writeSourceToFile (Okio + fsync) " + describe(fsyncResult) + ", " +
+                "fsync Costs " + ((fsyncResult[0] - okioResult[0]) / PAGE_COUNT) + " ms per Page");
+
+        assertTrue("Okio Allocated " + okioResult[1] + " Bytes, Legacy " + legacyResult[1], okioResult[1] < legacyResult[1]);
+    }
+
+    private long[] writePages(int writeMethod) throws IOException {
+        DiskUtils.deleteFiles(mDirectory);
+        mDirectory.mkdirs();
+
+        long writeTime = 0;
+        long writeAllocations = 0;
+
+        Debug.startAllocCounting();
+        try {
+            for (int index = 0; index < PAGE_COUNT; index++) {
+                Response response = fetchPage(index);
+                File pageFile = new File(mDirectory, String.valueOf(index));
+
+                Debug.resetThreadAllocSize();
+                long startTime = SystemClock.elapsedRealtime();
+
+                if (writeMethod == WRITE_METHOD_LEGACY) {
+                    saveInputStreamToDirectory(response.body().byteStream(), mDirectory.getAbsolutePath(), pageFile.getName());
+                } else if (writeMethod == WRITE_METHOD_OKIO) {
+                    BufferedSink sink = Okio.buffer(Okio.sink(new FileOutputStream(pageFile)));
+                    try {
+                        sink.writeAll(response.body().source());
+                    } finally {
+                        response.body().close();
+                        sink.close();
+                    }
+                } else {
+                    DiskUtils.writeSourceToFile(response.body().source(), pageFile, false);
+                }
+
+                writeTime += SystemClock.elapsedRealtime() - startTime;
+                writeAllocations += Debug.getThreadAllocSize();
+
+                assertEquals(PAGE_SIZE, pageFile.length());
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+
+        return new long[] { writeTime, writeAllocations };
+    }
+
+    private Response fetchPage(int index) {
+        return MangaService.getInstance()
+                .getUncachedResponse(mServer.getUrl("/pages/" + index + ".jpg").toString())
+                .toBlocking()
+                .single();
+    }
+
+    private static String describe(long[] result) {
+        long totalBytes = (long) PAGE_SIZE * PAGE_COUNT;
+        long bytesPerSecond = totalBytes * 1000 / Math.max(1, result[0]);
+        long allocationsPerMegabyte = result[1] * 1024 * 1024 / totalBytes;
+
+        return result[0] + " ms (" + bytesPerSecond + " Bytes/s, " + allocationsPerMegabyte + " Bytes Allocated per MB)";
+    }
+
+    // The Page Write Path Before Okio Streaming, Kept as the Benchmark Baseline.
+    private static File saveInputStreamToDirectory(InputStream inputStream, String directory, String name) throws IOException {
+        File fileDirectory = new File(directory);
+        if (!fileDirectory.exists()) {
+            if (!fileDirectory.mkdirs()) {
+                throw new IOException("Failed Creating  Directory");
+            }
+        }
+
+        File writeFile = new File(fileDirectory, name);
+        if (writeFile.exists()) {
+            if (writeFile.delete()) {
+                writeFile = new File(fileDirectory, name);
+            } else {
+                throw new IOException("Failed Deleting Existing File for Overwrite");
+            }
+        }
+
+        OutputStream outputStream = null;
+
+        try {
+            outputStream = new FileOutputStream(writeFile);
+
+            byte[] fileBuffer = new byte[1024];
+            for (int counter = 0; counter != -1; counter = inputStream.read(fileBuffer, 0, 1024)) {
+                outputStream.write(fileBuffer, 0, counter);
+            }
+
+            outputStream.flush();
+        } finally {
+            if (inputStream != null) {
+                inputStream.close();
+            }
+            if (outputStream != null) {
+                outputStream.close();
+            }
+        }
+
+        return writeFile;
+    }
+}
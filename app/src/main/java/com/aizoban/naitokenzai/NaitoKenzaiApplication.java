@@ -4,13 +4,20 @@ import android.app.Application;
 import android.preference.PreferenceManager;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.aizoban.naitokenzai.controllers.caches.ImageDiskCache;
+import com.aizoban.naitokenzai.controllers.caches.StorageGovernor;
+import com.aizoban.naitokenzai.controllers.networks.OkHttpUrlLoader;
+import com.aizoban.naitokenzai.controllers.networks.PrefetchUrl;
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.Manga;
 import com.aizoban.naitokenzai.models.databases.FavouriteManga;
 import com.aizoban.naitokenzai.models.databases.RecentChapter;
 import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
 import com.aizoban.naitokenzai.models.downloads.DownloadManga;
-import com.aizoban.naitokenzai.models.downloads.DownloadPage;
+
+import java.io.InputStream;
 
 import static nl.qbusict.cupboard.CupboardFactory.cupboard;
 
@@ -22,7 +29,6 @@ public class NaitoKenzaiApplication extends Application {
         cupboard().register(RecentChapter.class);
         cupboard().register(DownloadManga.class);
         cupboard().register(DownloadChapter.class);
-        cupboard().register(DownloadPage.class);
 
     }
 
@@ -41,6 +47,8 @@ public class NaitoKenzaiApplication extends Application {
         super.onCreate();
 
         initializePreferences();
+        initializeImageLoader();
+        initializeStorageGovernor();
     }
 
     @Override
@@ -62,4 +70,17 @@ public class NaitoKenzaiApplication extends Application {
     private void initializePreferences() {
         PreferenceManager.setDefaultValues(this, R.xml.preferences, false);
     }
+
+    private void initializeImageLoader() {
+        if (!Glide.isSetup()) {
+            Glide.setup(new GlideBuilder(this).setDiskCache(ImageDiskCache.getInstance()));
+        }
+
+        Glide.get(this).register(GlideUrl.class, InputStream.class, new OkHttpUrlLoader.Factory());
+        Glide.get(this).register(PrefetchUrl.class, InputStream.class, new OkHttpUrlLoader.PrefetchFactory());
+    }
+
+    private void initializeStorageGovernor() {
+        StorageGovernor.getInstance().requestTrim();
+    }
 }
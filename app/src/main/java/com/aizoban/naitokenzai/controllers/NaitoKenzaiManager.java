@@ -2,40 +2,49 @@ package com.aizoban.naitokenzai.controllers;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.request.FutureTarget;
+import com.aizoban.naitokenzai.BuildConfig;
 import com.aizoban.naitokenzai.NaitoKenzaiApplication;
 import com.aizoban.naitokenzai.controllers.caches.CacheProvider;
 import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.controllers.downloads.DownloadProgressTracker;
+import com.aizoban.naitokenzai.controllers.downloads.DownloadScheduler;
 import com.aizoban.naitokenzai.controllers.events.DownloadChapterUpdateEvent;
 import com.aizoban.naitokenzai.controllers.factories.SourceFactory;
-import com.aizoban.naitokenzai.controllers.networks.MangaService;
+import com.aizoban.naitokenzai.controllers.networks.RequestCoalescer;
 import com.aizoban.naitokenzai.controllers.sources.UpdatePageMarker;
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.Manga;
 import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
 import com.aizoban.naitokenzai.models.downloads.DownloadPage;
-import com.aizoban.naitokenzai.utils.DiskUtils;
 import com.aizoban.naitokenzai.utils.DownloadUtils;
+import com.aizoban.naitokenzai.utils.wrappers.MangaUpdateWrapper;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
-import com.squareup.okhttp.Response;
 
 import java.io.File;
-import java.io.InputStream;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.greenrobot.event.EventBus;
 import rx.Observable;
 import rx.Subscriber;
 import rx.functions.Action0;
 import rx.functions.Action1;
+import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.schedulers.Schedulers;
 
 public class NaitoKenzaiManager {
+    public static final String TAG = NaitoKenzaiManager.class.getSimpleName();
+
+    private static final RequestCoalescer<MangaUpdateWrapper> MANGA_REQUESTS = new RequestCoalescer<MangaUpdateWrapper>();
+    private static final RequestCoalescer<String> IMAGE_URL_REQUESTS = new RequestCoalescer<String>();
+    private static final RequestCoalescer<String> FOREGROUND_IMAGE_URL_REQUESTS = new RequestCoalescer<String>();
+
     public static Observable<String> getNameFromPreferenceSource() {
         return SourceFactory.constructSourceFromPreferences().getName();
     }
@@ -64,15 +73,86 @@ public class NaitoKenzaiManager {
         return SourceFactory.constructSourceFromName(request.getSource()).pullChaptersFromNetwork(request);
     }
 
+    public static Observable<MangaUpdateWrapper> pullMangaAndChaptersFromNetwork(final RequestWrapper request) {
+        return MANGA_REQUESTS.coalesce(request, new Func0<Observable<MangaUpdateWrapper>>() {
+            @Override
+            public Observable<MangaUpdateWrapper> call() {
+                final long startTime = SystemClock.elapsedRealtime();
+
+                boolean isRevalidation = false;
+
+                Cursor mangaCursor = QueryManager.queryMangaFromRequest(request)
+                        .toBlocking()
+                        .single();
+
+                if (mangaCursor != null) {
+                    Manga existingManga = QueryManager.toObject(mangaCursor, Manga.class);
+
+                    isRevalidation = existingManga != null && existingManga.isInitialized();
+                }
+
+                return SourceFactory.constructSourceFromName(request.getSource())
+                        .pullMangaAndChaptersFromNetwork(request, isRevalidation)
+                        .doOnNext(new Action1<MangaUpdateWrapper>() {
+                            @Override
+                            public void call(MangaUpdateWrapper mangaUpdateWrapper) {
+                                if (BuildConfig.DEBUG) {
+                                    Log.d(TAG, (mangaUpdateWrapper.isModified() ? "Modified" : "Not Modified") + " Manga Refreshed in " + (SystemClock.elapsedRealtime() - startTime) + " ms");
+                                }
+                            }
+                        });
+            }
+        });
+    }
+
     public static Observable<String> pullImageUrlsFromNetwork(final RequestWrapper request) {
-        return NaitoKenzaiManager.getImageUrlsFromDiskCache(request.getUrl())
+        return pullImageUrlsFromNetwork(request, false);
+    }
+
+    public static Observable<String> pullImageUrlsFromNetwork(final RequestWrapper request, final boolean isForeground) {
+        final RequestCoalescer<String> imageUrlRequests = isForeground ? FOREGROUND_IMAGE_URL_REQUESTS : IMAGE_URL_REQUESTS;
+
+        final Observable<String> imageUrlObservable = NaitoKenzaiManager.getImageUrlsFromCache(request)
                 .onBackpressureBuffer()
                 .onErrorResumeNext(new Func1<Throwable, Observable<? extends String>>() {
                     @Override
                     public Observable<? extends String> call(Throwable throwable) {
-                        return SourceFactory.constructSourceFromName(request.getSource()).pullImageUrlsFromNetwork(request);
+                        return imageUrlRequests.coalesce(request, new Func0<Observable<String>>() {
+                            @Override
+                            public Observable<String> call() {
+                                return SourceFactory.constructSourceFromName(request.getSource()).pullImageUrlsFromNetwork(request, isForeground);
+                            }
+                        });
                     }
                 });
+
+        if (!isForeground) {
+            return imageUrlObservable;
+        }
+
+        return Observable.using(
+                new Func0<DownloadScheduler>() {
+                    @Override
+                    public DownloadScheduler call() {
+                        DownloadScheduler downloadScheduler = DownloadScheduler.getInstance();
+                        downloadScheduler.beginForegroundRequest();
+
+                        return downloadScheduler;
+                    }
+                },
+                new Func1<DownloadScheduler, Observable<String>>() {
+                    @Override
+                    public Observable<String> call(DownloadScheduler downloadScheduler) {
+                        return imageUrlObservable;
+                    }
+                },
+                new Action1<DownloadScheduler>() {
+                    @Override
+                    public void call(DownloadScheduler downloadScheduler) {
+                        downloadScheduler.endForegroundRequest();
+                    }
+                }
+        );
     }
 
     public static Observable<File> downloadChapterFromNetwork(final DownloadChapter downloadChapter) {
@@ -81,13 +161,7 @@ public class NaitoKenzaiManager {
         final AtomicBoolean isUnsubscribed = new AtomicBoolean(false);
 
         return QueryManager
-                .queryDownloadPagesOfDownloadChapter(downloadRequest)
-                .flatMap(new Func1<Cursor, Observable<List<DownloadPage>>>() {
-                    @Override
-                    public Observable<List<DownloadPage>> call(Cursor downloadPagesCursor) {
-                        return Observable.just(QueryManager.toList(downloadPagesCursor, DownloadPage.class));
-                    }
-                })
+                .queryDownloadPagesOfDownloadChapter(downloadChapter)
                 .onErrorResumeNext(new Func1<Throwable, Observable<? extends List<DownloadPage>>>() {
                     @Override
                     public Observable<? extends List<DownloadPage>> call(Throwable throwable) {
@@ -106,73 +180,58 @@ public class NaitoKenzaiManager {
                 .doOnNext(new Action1<List<DownloadPage>>() {
                     @Override
                     public void call(List<DownloadPage> downloadPages) {
-                        ContentValues updateValues = new ContentValues(1);
-                        updateValues.put(ApplicationContract.DownloadChapter.COLUMN_TOTAL_PAGES, downloadPages.size());
-
-                        QueryManager.updateDownloadChapter(downloadChapter.getId(), updateValues)
-                                .toBlocking()
-                                .single();
-
                         EventBus.getDefault().post(new DownloadChapterUpdateEvent());
                     }
                 })
                 .flatMap(new Func1<List<DownloadPage>, Observable<File>>() {
                     @Override
                     public Observable<File> call(final List<DownloadPage> downloadPages) {
-                        return Observable.from(downloadPages.toArray(new DownloadPage[downloadPages.size()]))
+                        int completedPages = 0;
+                        for (DownloadPage downloadPage : downloadPages) {
+                            if (downloadPage.getFlag() == DownloadUtils.FLAG_COMPLETED) {
+                                completedPages++;
+                            }
+                        }
+
+                        final AtomicInteger currentPage = new AtomicInteger(completedPages);
+
+                        Observable<Observable<File>> pageDownloads = Observable.from(downloadPages.toArray(new DownloadPage[downloadPages.size()]))
                                 .filter(new Func1<DownloadPage, Boolean>() {
                                     @Override
                                     public Boolean call(DownloadPage downloadPage) {
                                         return downloadPage.getFlag() != DownloadUtils.FLAG_COMPLETED;
                                     }
                                 })
-                                .flatMap(new Func1<DownloadPage, Observable<File>>() {
+                                .map(new Func1<DownloadPage, Observable<File>>() {
                                     @Override
                                     public Observable<File> call(final DownloadPage downloadPage) {
-                                        return MangaService.getInstance()
-                                                .getResponse(downloadPage.getUrl())
-                                                .flatMap(new Func1<Response, Observable<File>>() {
-                                                    @Override
-                                                    public Observable<File> call(Response response) {
-                                                        String fileDirectory = downloadPage.getDirectory();
-                                                        String fileName = downloadPage.getName();
-                                                        String fileType = response.body().contentType().subtype();
-                                                        InputStream fileData = response.body().byteStream();
-
-                                                        return NaitoKenzaiManager.saveInputStreamToDirectory(fileData, fileDirectory, fileName + "." + fileType);
-                                                    }
-                                                })
+                                        return DownloadScheduler.getInstance()
+                                                .downloadPage(downloadPage.getUrl(), downloadPage.getDirectory(), downloadPage.getName())
                                                 .doOnCompleted(new Action0() {
                                                     @Override
                                                     public void call() {
-                                                        ContentValues pageValues = new ContentValues(1);
-                                                        pageValues.put(ApplicationContract.DownloadPage.COLUMN_FLAG, DownloadUtils.FLAG_COMPLETED);
-                                                        QueryManager.updateDownloadPage(downloadPage.getId(), pageValues)
-                                                                .toBlocking()
-                                                                .single();
-
-                                                        ContentValues chapterValues = new ContentValues(1);
-                                                        chapterValues.put(ApplicationContract.DownloadChapter.COLUMN_CURRENT_PAGE, downloadPages.indexOf(downloadPage) + 1);
-                                                        QueryManager.updateDownloadChapter(downloadChapter.getId(), chapterValues)
-                                                                .toBlocking()
-                                                                .single();
-
-                                                        EventBus.getDefault().post(new DownloadChapterUpdateEvent());
+                                                        DownloadProgressTracker.getInstance().recordPageCompleted(downloadChapter.getId(), Integer.parseInt(downloadPage.getName()), currentPage.incrementAndGet());
                                                     }
                                                 });
                                     }
                                 });
+
+                        return Observable.merge(pageDownloads, DownloadScheduler.MAXIMUM_REQUESTS_PER_HOST);
                     }
                 })
                 .doOnUnsubscribe(new Action0() {
                     @Override
                     public void call() {
                         isUnsubscribed.set(true);
+
+                        DownloadProgressTracker.getInstance().flush();
                     }
                 })
                 .doOnError(new Action1<Throwable>() {
                     @Override
                     public void call(Throwable throwable) {
+                        DownloadProgressTracker.getInstance().flush();
+
                         if (!isUnsubscribed.get()) {
                             ContentValues updateValues = new ContentValues(1);
                             updateValues.put(ApplicationContract.DownloadChapter.COLUMN_FLAG, DownloadUtils.FLAG_FAILED);
@@ -188,6 +247,8 @@ public class NaitoKenzaiManager {
                 .doOnCompleted(new Action0() {
                     @Override
                     public void call() {
+                        DownloadProgressTracker.getInstance().flush();
+
                         Cursor downloadChapterCursor = QueryManager.queryDownloadChapterFromRequest(downloadRequest)
                                 .toBlocking()
                                 .single();
@@ -198,12 +259,10 @@ public class NaitoKenzaiManager {
                             if (updatedDownloadChapter != null) {
                                 if (updatedDownloadChapter.getCurrentPage() != 0 && updatedDownloadChapter.getTotalPages() != 0) {
                                     if (updatedDownloadChapter.getCurrentPage() == updatedDownloadChapter.getTotalPages()) {
-                                        QueryManager.deleteDownloadPagesOfDownloadChapter(downloadRequest)
-                                                .toBlocking()
-                                                .single();
-
-                                        ContentValues updateValues = new ContentValues(1);
+                                        ContentValues updateValues = new ContentValues(3);
                                         updateValues.put(ApplicationContract.DownloadChapter.COLUMN_FLAG, DownloadUtils.FLAG_COMPLETED);
+                                        updateValues.putNull(ApplicationContract.DownloadChapter.COLUMN_PAGE_URLS);
+                                        updateValues.putNull(ApplicationContract.DownloadChapter.COLUMN_COMPLETED_PAGES);
 
                                         QueryManager.updateDownloadChapter(downloadChapter.getId(), updateValues)
                                                 .toBlocking()
@@ -222,28 +281,6 @@ public class NaitoKenzaiManager {
                 });
     }
 
-    public static Observable<File> cacheFromImagesOfSize(final List<String> imageUrls, final int cacheWidth, final int cacheHeight) {
-        return Observable.create(new Observable.OnSubscribe<File>() {
-            @Override
-            public void call(Subscriber<? super File> subscriber) {
-                try {
-                    for (String imageUrl : imageUrls) {
-                        if (!subscriber.isUnsubscribed()) {
-                            FutureTarget<File> cacheFuture = Glide.with(NaitoKenzaiApplication.getInstance())
-                                    .load(imageUrl)
-                                    .downloadOnly(cacheWidth, cacheHeight);
-
-                            subscriber.onNext(cacheFuture.get(MangaService.READ_TIMEOUT, TimeUnit.SECONDS));
-                        }
-                    }
-                    subscriber.onCompleted();
-                } catch (Throwable e) {
-                    subscriber.onError(e);
-                }
-            }
-        }).subscribeOn(Schedulers.newThread());
-    }
-
     public static Observable<Boolean> clearImageCache() {
         return Observable.create(new Observable.OnSubscribe<Boolean>() {
             @Override
@@ -262,6 +299,8 @@ public class NaitoKenzaiManager {
                         isSuccessful = false;
                     }
 
+                    CacheProvider.getInstance().evictAll();
+
                     File urlCacheDirectory = CacheProvider.getInstance().getCacheDir();
                     if (urlCacheDirectory.isDirectory()) {
                         for (File cachedFile : urlCacheDirectory.listFiles()) {
@@ -282,12 +321,12 @@ public class NaitoKenzaiManager {
         });
     }
 
-    private static Observable<String> getImageUrlsFromDiskCache(final String chapterUrl) {
+    private static Observable<String> getImageUrlsFromCache(final RequestWrapper request) {
         return Observable.create(new Observable.OnSubscribe<String>() {
             @Override
             public void call(Subscriber<? super String> subscriber) {
                 try {
-                    String[] imageUrls = CacheProvider.getInstance().getImageUrlsFromDiskCache(chapterUrl);
+                    String[] imageUrls = CacheProvider.getInstance().getImageUrlsFromCache(request);
 
                     for (String imageUrl : imageUrls) {
                         if (!subscriber.isUnsubscribed()) {
@@ -301,18 +340,4 @@ public class NaitoKenzaiManager {
             }
         });
     }
-
-    private static Observable<File> saveInputStreamToDirectory(final InputStream inputStream, final String directory, final String name) {
-        return Observable.create(new Observable.OnSubscribe<File>() {
-            @Override
-            public void call(Subscriber<? super File> subscriber) {
-                try {
-                    subscriber.onNext(DiskUtils.saveInputStreamToDirectory(inputStream, directory, name));
-                    subscriber.onCompleted();
-                } catch (Throwable e) {
-                    subscriber.onError(e);
-                }
-            }
-        });
-    }
 }
@@ -3,11 +3,15 @@ package com.aizoban.naitokenzai.controllers;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
 
 import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
 import com.aizoban.naitokenzai.controllers.databases.ApplicationSQLiteOpenHelper;
+import com.aizoban.naitokenzai.controllers.databases.CataloguePager;
 import com.aizoban.naitokenzai.controllers.databases.LibraryContract;
 import com.aizoban.naitokenzai.controllers.databases.LibrarySQLiteOpenHelper;
+import com.aizoban.naitokenzai.controllers.databases.mappers.CursorMapper;
 import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.Manga;
@@ -18,18 +22,36 @@ import com.aizoban.naitokenzai.models.downloads.DownloadManga;
 import com.aizoban.naitokenzai.models.downloads.DownloadPage;
 import com.aizoban.naitokenzai.utils.DownloadUtils;
 import com.aizoban.naitokenzai.utils.SearchUtils;
+import com.aizoban.naitokenzai.utils.wrappers.ChapterMergeWrapper;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.aizoban.naitokenzai.utils.wrappers.SearchCatalogueWrapper;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import rx.Observable;
 import rx.Subscriber;
+import rx.functions.Func0;
 
 import static nl.qbusict.cupboard.CupboardFactory.cupboard;
 
 public class QueryManager {
+    private static final String[] DOWNLOAD_CHAPTER_PROJECTION = new String[] {
+            ApplicationContract.DownloadChapter.COLUMN_ID,
+            ApplicationContract.DownloadChapter.COLUMN_SOURCE,
+            ApplicationContract.DownloadChapter.COLUMN_URL,
+            ApplicationContract.DownloadChapter.COLUMN_PARENT_URL,
+            ApplicationContract.DownloadChapter.COLUMN_NAME,
+            ApplicationContract.DownloadChapter.COLUMN_DIRECTORY,
+            ApplicationContract.DownloadChapter.COLUMN_CURRENT_PAGE,
+            ApplicationContract.DownloadChapter.COLUMN_TOTAL_PAGES,
+            ApplicationContract.DownloadChapter.COLUMN_FLAG,
+            ApplicationContract.DownloadChapter.COLUMN_PRIORITY
+    };
+
     public static Observable<Cursor> queryMangaFromRequest(final RequestWrapper request) {
         return Observable.create(new Observable.OnSubscribe<Cursor>() {
             @Override
@@ -59,49 +81,65 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Cursor> queryCatalogueMangasFromPreferenceSource(final SearchCatalogueWrapper searchCatalogueWrapper) {
-        return Observable.create(new Observable.OnSubscribe<Cursor>() {
+    public static Observable<CataloguePager> queryCatalogueMangasFromPreferenceSource(final SearchCatalogueWrapper searchCatalogueWrapper) {
+        return Observable.defer(new Func0<Observable<CataloguePager>>() {
             @Override
-            public void call(Subscriber<? super Cursor> subscriber) {
+            public Observable<CataloguePager> call() {
+                return queryCatalogueMangasFromSource(NaitoKenzaiManager.getNameFromPreferenceSource().toBlocking().single(), searchCatalogueWrapper);
+            }
+        });
+    }
+
+    public static Observable<CataloguePager> queryCatalogueMangasFromSource(final String sourceName, final SearchCatalogueWrapper searchCatalogueWrapper) {
+        return Observable.create(new Observable.OnSubscribe<CataloguePager>() {
+            @Override
+            public void call(Subscriber<? super CataloguePager> subscriber) {
                 try {
                     LibrarySQLiteOpenHelper librarySQLiteOpenHelper = LibrarySQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = librarySQLiteOpenHelper.getWritableDatabase();
                     StringBuilder selection = new StringBuilder();
                     List<String> selectionArgs = new ArrayList<String>();
-                    String orderBy = null;
+                    String orderColumn = null;
 
                     selection.append(LibraryContract.Manga.COLUMN_SOURCE + " = ?");
-                    selectionArgs.add(NaitoKenzaiManager.getNameFromPreferenceSource().toBlocking().single());
+                    selectionArgs.add(sourceName);
                     selection.append(" AND ").append(LibraryContract.Manga.COLUMN_NAME + " != ?");
                     selectionArgs.add(String.valueOf(DefaultFactory.Manga.DEFAULT_NAME));
                     selection.append(" AND ").append(LibraryContract.Manga.COLUMN_RANK + " != ?");
                     selectionArgs.add(String.valueOf(DefaultFactory.Manga.DEFAULT_RANK));
 
                     if (searchCatalogueWrapper != null) {
-                        for (String currentGenre : searchCatalogueWrapper.getGenresArgs()) {
-                            selection.append(" AND ").append(LibraryContract.Manga.COLUMN_GENRE + " LIKE ?");
-                            selectionArgs.add("%" + currentGenre + "%");
+                        StringBuilder searchMatch = new StringBuilder();
+
+                        if (searchCatalogueWrapper.getGenresArgs().size() > 0 || searchCatalogueWrapper.getExcludedGenresArgs().size() > 0) {
+                            Map<String, Integer> genreBitMap = queryGenreBitsFromSource(sqLiteDatabase, sourceName);
+
+                            appendGenreSelection(selection, selectionArgs, genreBitMap, searchCatalogueWrapper);
                         }
 
                         if (searchCatalogueWrapper.getNameArgs() != null) {
-                            selection.append(" AND ").append(LibraryContract.Manga.COLUMN_NAME + " LIKE ?");
-                            selectionArgs.add("%" + searchCatalogueWrapper.getNameArgs() + "%");
+                            String nameMatch = SearchUtils.constructPrefixMatch(LibraryContract.MangaSearch.COLUMN_NAME, searchCatalogueWrapper.getNameArgs());
+                            if (nameMatch.length() > 0) {
+                                searchMatch.append(searchMatch.length() > 0 ? " " : "").append(nameMatch);
+                            }
+                        }
+
+                        if (searchMatch.length() > 0) {
+                            selection.append(" AND ").append(LibraryContract.Manga.COLUMN_ID + " IN (SELECT " + LibraryContract.MangaSearch.COLUMN_DOCID + " FROM " + LibraryContract.MangaSearch.TABLE_NAME + " WHERE " + LibraryContract.MangaSearch.TABLE_NAME + " MATCH ?)");
+                            selectionArgs.add(searchMatch.toString());
                         }
                         if (searchCatalogueWrapper.getStatusArgs() != null && !searchCatalogueWrapper.getStatusArgs().equals(SearchUtils.STATUS_ALL)) {
                             selection.append(" AND ").append(LibraryContract.Manga.COLUMN_COMPLETED + " = ?");
                             selectionArgs.add(searchCatalogueWrapper.getStatusArgs());
                         }
                         if (searchCatalogueWrapper.getOrderByArgs() != null) {
-                            orderBy = searchCatalogueWrapper.getOrderByArgs() + " ASC";
+                            orderColumn = searchCatalogueWrapper.getOrderByArgs();
                         }
                     }
 
-                    Cursor catalogueMangasCursor = cupboard().withDatabase(sqLiteDatabase).query(Manga.class)
-                            .withSelection(selection.toString(), selectionArgs.toArray(new String[selectionArgs.size()]))
-                            .orderBy(orderBy)
-                            .getCursor();
+                    CataloguePager cataloguePager = new CataloguePager(selection.toString(), selectionArgs.toArray(new String[selectionArgs.size()]), orderColumn);
 
-                    subscriber.onNext(catalogueMangasCursor);
+                    subscriber.onNext(cataloguePager);
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -563,6 +601,7 @@ public class QueryManager {
                     selectionArgs.add(request.getUrl());
 
                     Cursor downloadChapterCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
+                            .withProjection(DOWNLOAD_CHAPTER_PROJECTION)
                             .withSelection(selection.toString(), selectionArgs.toArray(new String[selectionArgs.size()]))
                             .limit(1)
                             .getCursor();
@@ -597,6 +636,7 @@ public class QueryManager {
                     }
 
                     Cursor downloadChaptersOfDownloadMangaCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
+                            .withProjection(DOWNLOAD_CHAPTER_PROJECTION)
                             .withSelection(selection.toString(), selectionArgs.toArray(new String[selectionArgs.size()]))
                             .getCursor();
 
@@ -609,7 +649,7 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Cursor> queryAvailableDownloadChapters(final int dequeueLimit) {
+    public static Observable<Cursor> queryNonCompletedDownloadChapters() {
         return Observable.create(new Observable.OnSubscribe<Cursor>() {
             @Override
             public void call(Subscriber<? super Cursor> subscriber) {
@@ -617,12 +657,12 @@ public class QueryManager {
                     ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                    Cursor runningDownloadChapterCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
-                            .withSelection(ApplicationContract.DownloadChapter.COLUMN_FLAG + " < ?", String.valueOf(DownloadUtils.FLAG_RUNNING))
-                            .limit(dequeueLimit)
+                    Cursor nonCompletedDownloadChaptersCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
+                            .withProjection(DOWNLOAD_CHAPTER_PROJECTION)
+                            .withSelection(ApplicationContract.DownloadChapter.COLUMN_FLAG + " != ?", String.valueOf(DownloadUtils.FLAG_COMPLETED))
                             .getCursor();
 
-                    subscriber.onNext(runningDownloadChapterCursor);
+                    subscriber.onNext(nonCompletedDownloadChaptersCursor);
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -631,19 +671,25 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Cursor> queryRunningDownloadChapters() {
-        return Observable.create(new Observable.OnSubscribe<Cursor>() {
+    public static Observable<Integer> pauseNonCompletedDownloadChapters() {
+        return Observable.create(new Observable.OnSubscribe<Integer>() {
             @Override
-            public void call(Subscriber<? super Cursor> subscriber) {
+            public void call(Subscriber<? super Integer> subscriber) {
                 try {
                     ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                    Cursor runningDownloadChapterCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
-                            .withSelection(ApplicationContract.DownloadChapter.COLUMN_FLAG + " = ?", String.valueOf(DownloadUtils.FLAG_RUNNING))
-                            .getCursor();
+                    ContentValues updateValues = new ContentValues(1);
+                    updateValues.put(ApplicationContract.DownloadChapter.COLUMN_FLAG, DownloadUtils.FLAG_PAUSED);
 
-                    subscriber.onNext(runningDownloadChapterCursor);
+                    int amountPaused = sqLiteDatabase.update(
+                            ApplicationContract.DownloadChapter.TABLE_NAME,
+                            updateValues,
+                            ApplicationContract.DownloadChapter.COLUMN_FLAG + " != ?",
+                            new String[] { String.valueOf(DownloadUtils.FLAG_COMPLETED) }
+                    );
+
+                    subscriber.onNext(amountPaused);
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -652,19 +698,56 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Cursor> queryNonCompletedDownloadChapters() {
+    public static Observable<Cursor> queryEvictableDownloadChapters(final int limit, final List<String> excludedUrls) {
         return Observable.create(new Observable.OnSubscribe<Cursor>() {
             @Override
             public void call(Subscriber<? super Cursor> subscriber) {
                 try {
+                    StringBuilder exclusionBuilder = new StringBuilder();
+                    List<String> selectionArgs = new ArrayList<String>();
+                    selectionArgs.add(String.valueOf(DownloadUtils.FLAG_COMPLETED));
+
+                    if (excludedUrls != null && !excludedUrls.isEmpty()) {
+                        exclusionBuilder.append(" AND ").append(ApplicationContract.DownloadChapter.TABLE_NAME).append(".").append(ApplicationContract.DownloadChapter.COLUMN_URL).append(" NOT IN (");
+                        for (int index = 0; index < excludedUrls.size(); index++) {
+                            exclusionBuilder.append(index == 0 ? "?" : ", ?");
+                            selectionArgs.add(excludedUrls.get(index));
+                        }
+                        exclusionBuilder.append(")");
+                    }
+
+                    selectionArgs.add(String.valueOf(limit));
+
                     ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                    Cursor nonCompletedDownloadChaptersCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
-                            .withSelection(ApplicationContract.DownloadChapter.COLUMN_FLAG + " != ?", String.valueOf(DownloadUtils.FLAG_COMPLETED))
-                            .getCursor();
-
-                    subscriber.onNext(nonCompletedDownloadChaptersCursor);
+                    Cursor evictableDownloadChaptersCursor = sqLiteDatabase.rawQuery(
+                            "SELECT " + ApplicationContract.DownloadChapter.TABLE_NAME + ".* FROM " + ApplicationContract.DownloadChapter.TABLE_NAME +
+                                    " INNER JOIN (SELECT " +
+                                    ApplicationContract.RecentChapter.COLUMN_SOURCE + ", " +
+                                    ApplicationContract.RecentChapter.COLUMN_URL + ", MAX(" +
+                                    ApplicationContract.RecentChapter.COLUMN_DATE + ") AS ReadDate FROM " +
+                                    ApplicationContract.RecentChapter.TABLE_NAME + " GROUP BY " +
+                                    ApplicationContract.RecentChapter.COLUMN_SOURCE + ", " +
+                                    ApplicationContract.RecentChapter.COLUMN_URL + ") AS ReadChapter ON ReadChapter." +
+                                    ApplicationContract.RecentChapter.COLUMN_SOURCE + " = " + ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_SOURCE + " AND ReadChapter." +
+                                    ApplicationContract.RecentChapter.COLUMN_URL + " = " + ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_URL +
+                                    " WHERE " + ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_FLAG + " = ?" +
+                                    exclusionBuilder.toString() +
+                                    " AND NOT EXISTS (SELECT 1 FROM " + ApplicationContract.FavouriteManga.TABLE_NAME + " WHERE " +
+                                    ApplicationContract.FavouriteManga.TABLE_NAME + "." + ApplicationContract.FavouriteManga.COLUMN_SOURCE + " = " +
+                                    ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_SOURCE + " AND " +
+                                    ApplicationContract.FavouriteManga.TABLE_NAME + "." + ApplicationContract.FavouriteManga.COLUMN_URL + " = " +
+                                    ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_PARENT_URL +
+                                    " AND ReadChapter.ReadDate >= (SELECT MAX(LatestChapter." + ApplicationContract.RecentChapter.COLUMN_DATE + ") FROM " +
+                                    ApplicationContract.RecentChapter.TABLE_NAME + " AS LatestChapter WHERE LatestChapter." +
+                                    ApplicationContract.RecentChapter.COLUMN_SOURCE + " = " + ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_SOURCE + " AND LatestChapter." +
+                                    ApplicationContract.RecentChapter.COLUMN_PARENT_URL + " = " + ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_PARENT_URL + "))" +
+                                    " ORDER BY ReadChapter.ReadDate ASC LIMIT ?",
+                            selectionArgs.toArray(new String[selectionArgs.size()])
+                    );
+
+                    subscriber.onNext(evictableDownloadChaptersCursor);
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -673,7 +756,7 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Integer> updateDownloadChapter(final Long id, final ContentValues updateValues) {
+    public static Observable<Integer> addDownloadChaptersFromChapterIds(final long[] chapterIds, final File downloadDirectory) {
         return Observable.create(new Observable.OnSubscribe<Integer>() {
             @Override
             public void call(Subscriber<? super Integer> subscriber) {
@@ -681,9 +764,63 @@ public class QueryManager {
                     ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                    int amountUpdated = cupboard().withDatabase(sqLiteDatabase).update(DownloadChapter.class, updateValues, ApplicationContract.DownloadChapter.COLUMN_ID + " = ?", String.valueOf(id));
+                    int amountQueued = 0;
 
-                    subscriber.onNext(amountUpdated);
+                    sqLiteDatabase.beginTransaction();
+                    try {
+                        SQLiteStatement insertStatement = sqLiteDatabase.compileStatement(
+                                "INSERT INTO " + ApplicationContract.DownloadChapter.TABLE_NAME + " (" +
+                                        ApplicationContract.DownloadChapter.COLUMN_SOURCE + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_URL + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_PARENT_URL + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_NAME + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_DIRECTORY + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_CURRENT_PAGE + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_TOTAL_PAGES + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_FLAG + ", " +
+                                        ApplicationContract.DownloadChapter.COLUMN_PRIORITY + ") " +
+                                        "SELECT " +
+                                        ApplicationContract.Chapter.COLUMN_SOURCE + ", " +
+                                        ApplicationContract.Chapter.COLUMN_URL + ", " +
+                                        ApplicationContract.Chapter.COLUMN_PARENT_URL + ", " +
+                                        ApplicationContract.Chapter.COLUMN_NAME + ", " +
+                                        "?1 || '" + File.separator + "' || " + ApplicationContract.Chapter.COLUMN_SOURCE + " || '" + File.separator + "' || " + ApplicationContract.Chapter.COLUMN_NAME + ", " +
+                                        DefaultFactory.DownloadChapter.DEFAULT_CURRENT_PAGE + ", " +
+                                        DefaultFactory.DownloadChapter.DEFAULT_TOTAL_PAGES + ", " +
+                                        DownloadUtils.FLAG_PENDING + ", " +
+                                        DefaultFactory.DownloadChapter.DEFAULT_PRIORITY +
+                                        " FROM " + ApplicationContract.Chapter.TABLE_NAME + " WHERE " +
+                                        ApplicationContract.Chapter.COLUMN_ID + " = ?2 AND NOT EXISTS (SELECT 1 FROM " +
+                                        ApplicationContract.DownloadChapter.TABLE_NAME + " WHERE " +
+                                        ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_SOURCE + " = " +
+                                        ApplicationContract.Chapter.TABLE_NAME + "." + ApplicationContract.Chapter.COLUMN_SOURCE + " AND " +
+                                        ApplicationContract.DownloadChapter.TABLE_NAME + "." + ApplicationContract.DownloadChapter.COLUMN_URL + " = " +
+                                        ApplicationContract.Chapter.TABLE_NAME + "." + ApplicationContract.Chapter.COLUMN_URL + ")"
+                        );
+
+                        try {
+                            insertStatement.bindString(1, downloadDirectory.getAbsolutePath());
+
+                            for (int index = 0; index < chapterIds.length; index++) {
+                                insertStatement.bindLong(2, chapterIds[index]);
+                                if (insertStatement.executeInsert() != -1) {
+                                    amountQueued++;
+                                }
+
+                                if ((index + 1) % DownloadUtils.QUEUE_PROGRESS_INTERVAL == 0) {
+                                    subscriber.onNext(amountQueued);
+                                }
+                            }
+                        } finally {
+                            insertStatement.close();
+                        }
+
+                        sqLiteDatabase.setTransactionSuccessful();
+                    } finally {
+                        sqLiteDatabase.endTransaction();
+                    }
+
+                    subscriber.onNext(amountQueued);
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -692,24 +829,17 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Cursor> queryDownloadPagesOfDownloadChapter(final RequestWrapper request) {
-        return Observable.create(new Observable.OnSubscribe<Cursor>() {
+    public static Observable<Integer> updateDownloadChapter(final Long id, final ContentValues updateValues) {
+        return Observable.create(new Observable.OnSubscribe<Integer>() {
             @Override
-            public void call(Subscriber<? super Cursor> subscriber) {
+            public void call(Subscriber<? super Integer> subscriber) {
                 try {
                     ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                    Cursor downloadPagesOfDownloadChapterCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadPage.class)
-                            .withSelection(ApplicationContract.DownloadPage.COLUMN_PARENT_URL + " = ?", request.getUrl())
-                            .getCursor();
-
-                    if (downloadPagesOfDownloadChapterCursor != null && downloadPagesOfDownloadChapterCursor.getCount() != 0) {
-                        subscriber.onNext(downloadPagesOfDownloadChapterCursor);
-                    } else {
-                        throw new IllegalArgumentException("No DownloadPages of Download Chapter: " + request.getSource());
-                    }
+                    int amountUpdated = cupboard().withDatabase(sqLiteDatabase).update(DownloadChapter.class, updateValues, ApplicationContract.DownloadChapter.COLUMN_ID + " = ?", String.valueOf(id));
 
+                    subscriber.onNext(amountUpdated);
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -718,37 +848,41 @@ public class QueryManager {
         });
     }
 
-    public static synchronized Observable<List<DownloadPage>> addDownloadPagesForDownloadChapter(final DownloadChapter downloadChapter, final List<String> imageUrls) {
+    public static Observable<List<DownloadPage>> queryDownloadPagesOfDownloadChapter(final DownloadChapter downloadChapter) {
         return Observable.create(new Observable.OnSubscribe<List<DownloadPage>>() {
             @Override
             public void call(Subscriber<? super List<DownloadPage>> subscriber) {
                 try {
-                    List<DownloadPage> downloadPageList = new ArrayList<DownloadPage>(imageUrls.size());
-                    for (int index = 0; index < imageUrls.size(); index++) {
-                        DownloadPage downloadPage = DefaultFactory.DownloadPage.constructDefault();
-                        downloadPage.setUrl(imageUrls.get(index));
-                        downloadPage.setParentUrl(downloadChapter.getUrl());
-                        downloadPage.setDirectory(downloadChapter.getDirectory());
-                        downloadPage.setName(String.valueOf(index));
-                        downloadPage.setFlag(DownloadUtils.FLAG_PENDING);
-
-                        downloadPageList.add(downloadPage);
-                    }
-
                     ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                    sqLiteDatabase.beginTransaction();
-                    try {
-                        for (DownloadPage downloadPage : downloadPageList) {
-                            cupboard().withDatabase(sqLiteDatabase).put(downloadPage);
+                    Cursor manifestCursor = sqLiteDatabase.query(
+                            ApplicationContract.DownloadChapter.TABLE_NAME,
+                            new String[] { ApplicationContract.DownloadChapter.COLUMN_PAGE_URLS, ApplicationContract.DownloadChapter.COLUMN_COMPLETED_PAGES },
+                            ApplicationContract.DownloadChapter.COLUMN_ID + " = ?",
+                            new String[] { String.valueOf(downloadChapter.getId()) },
+                            null, null, null
+                    );
+
+                    List<String> pageUrls = null;
+                    byte[] completedPages = null;
+
+                    if (manifestCursor != null) {
+                        try {
+                            if (manifestCursor.moveToFirst() && !manifestCursor.isNull(0)) {
+                                pageUrls = DownloadUtils.splitPageUrls(manifestCursor.getString(0));
+                                completedPages = manifestCursor.isNull(1) ? null : manifestCursor.getBlob(1);
+                            }
+                        } finally {
+                            manifestCursor.close();
                         }
-                        sqLiteDatabase.setTransactionSuccessful();
-                    } finally {
-                        sqLiteDatabase.endTransaction();
                     }
 
-                    subscriber.onNext(downloadPageList);
+                    if (pageUrls == null || pageUrls.size() == 0) {
+                        throw new IllegalArgumentException("No DownloadPages of Download Chapter: " + downloadChapter.getSource());
+                    }
+
+                    subscriber.onNext(constructDownloadPages(downloadChapter, pageUrls, completedPages));
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -757,17 +891,27 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Integer> updateDownloadPage(final Long id, final ContentValues updateValues) {
-        return Observable.create(new Observable.OnSubscribe<Integer>() {
+    public static synchronized Observable<List<DownloadPage>> addDownloadPagesForDownloadChapter(final DownloadChapter downloadChapter, final List<String> imageUrls) {
+        return Observable.create(new Observable.OnSubscribe<List<DownloadPage>>() {
             @Override
-            public void call(Subscriber<? super Integer> subscriber) {
+            public void call(Subscriber<? super List<DownloadPage>> subscriber) {
                 try {
                     ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
                     SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                    int amountUpdated = cupboard().withDatabase(sqLiteDatabase).update(DownloadPage.class, updateValues, ApplicationContract.DownloadPage.COLUMN_ID + " = ?", String.valueOf(id));
+                    ContentValues updateValues = new ContentValues(3);
+                    updateValues.put(ApplicationContract.DownloadChapter.COLUMN_PAGE_URLS, DownloadUtils.joinPageUrls(imageUrls));
+                    updateValues.put(ApplicationContract.DownloadChapter.COLUMN_COMPLETED_PAGES, DownloadUtils.constructCompletedPages(imageUrls.size()));
+                    updateValues.put(ApplicationContract.DownloadChapter.COLUMN_TOTAL_PAGES, imageUrls.size());
 
-                    subscriber.onNext(amountUpdated);
+                    sqLiteDatabase.update(
+                            ApplicationContract.DownloadChapter.TABLE_NAME,
+                            updateValues,
+                            ApplicationContract.DownloadChapter.COLUMN_ID + " = ?",
+                            new String[] { String.valueOf(downloadChapter.getId()) }
+                    );
+
+                    subscriber.onNext(constructDownloadPages(downloadChapter, imageUrls, null));
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
@@ -776,103 +920,332 @@ public class QueryManager {
         });
     }
 
-    public static Observable<Integer> deleteDownloadPagesOfDownloadChapter(final RequestWrapper request) {
-        return Observable.create(new Observable.OnSubscribe<Integer>() {
-            @Override
-            public void call(Subscriber<? super Integer> subscriber) {
-                try {
-                    ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-                    SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
+    private static List<DownloadPage> constructDownloadPages(DownloadChapter downloadChapter, List<String> pageUrls, byte[] completedPages) {
+        List<DownloadPage> downloadPageList = new ArrayList<DownloadPage>(pageUrls.size());
+        for (int index = 0; index < pageUrls.size(); index++) {
+            DownloadPage downloadPage = DefaultFactory.DownloadPage.constructDefault();
+            downloadPage.setUrl(pageUrls.get(index));
+            downloadPage.setParentUrl(downloadChapter.getUrl());
+            downloadPage.setDirectory(downloadChapter.getDirectory());
+            downloadPage.setName(String.valueOf(index));
+            downloadPage.setFlag(DownloadUtils.isPageCompleted(completedPages, index) ? DownloadUtils.FLAG_COMPLETED : DownloadUtils.FLAG_PENDING);
 
-                    int amountDeleted = cupboard().withDatabase(sqLiteDatabase).delete(DownloadPage.class, ApplicationContract.DownloadPage.COLUMN_PARENT_URL + " = ?", request.getUrl());
+            downloadPageList.add(downloadPage);
+        }
 
-                    subscriber.onNext(amountDeleted);
-                    subscriber.onCompleted();
-                } catch (Throwable e) {
-                    subscriber.onError(e);
+        return downloadPageList;
+    }
+
+    public static void updateDownloadProgressInApplicationDatabase(Map<Long, List<Integer>> completedPageIndexes, Map<Long, Integer> currentPages) {
+        ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
+        SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
+
+        sqLiteDatabase.beginTransaction();
+        try {
+            SQLiteStatement manifestStatement = sqLiteDatabase.compileStatement(
+                    "UPDATE " + ApplicationContract.DownloadChapter.TABLE_NAME + " SET " +
+                            ApplicationContract.DownloadChapter.COLUMN_COMPLETED_PAGES + " = ? WHERE " +
+                            ApplicationContract.DownloadChapter.COLUMN_ID + " = ?"
+            );
+            SQLiteStatement chapterStatement = sqLiteDatabase.compileStatement(
+                    "UPDATE " + ApplicationContract.DownloadChapter.TABLE_NAME + " SET " +
+                            ApplicationContract.DownloadChapter.COLUMN_CURRENT_PAGE + " = ? WHERE " +
+                            ApplicationContract.DownloadChapter.COLUMN_ID + " = ?"
+            );
+
+            try {
+                for (Map.Entry<Long, List<Integer>> completedPages : completedPageIndexes.entrySet()) {
+                    byte[] manifestPages = queryCompletedPagesOfDownloadChapter(sqLiteDatabase, completedPages.getKey());
+                    if (manifestPages == null) {
+                        continue;
+                    }
+
+                    for (Integer pageIndex : completedPages.getValue()) {
+                        if (pageIndex / 8 < manifestPages.length) {
+                            DownloadUtils.setPageCompleted(manifestPages, pageIndex);
+                        }
+                    }
+
+                    manifestStatement.bindBlob(1, manifestPages);
+                    manifestStatement.bindLong(2, completedPages.getKey());
+                    manifestStatement.execute();
                 }
+
+                for (Map.Entry<Long, Integer> currentPage : currentPages.entrySet()) {
+                    chapterStatement.bindLong(1, currentPage.getValue());
+                    chapterStatement.bindLong(2, currentPage.getKey());
+                    chapterStatement.execute();
+                }
+            } finally {
+                manifestStatement.close();
+                chapterStatement.close();
             }
-        });
+
+            sqLiteDatabase.setTransactionSuccessful();
+        } finally {
+            sqLiteDatabase.endTransaction();
+        }
     }
 
-    public static Observable<Boolean> queryShouldDownloadServiceStop() {
-        return Observable.create(new Observable.OnSubscribe<Boolean>() {
-            @Override
-            public void call(Subscriber<? super Boolean> subscriber) {
-                try {
-                    boolean shouldStop = false;
+    private static byte[] queryCompletedPagesOfDownloadChapter(SQLiteDatabase sqLiteDatabase, Long downloadChapterId) {
+        Cursor manifestCursor = sqLiteDatabase.query(
+                ApplicationContract.DownloadChapter.TABLE_NAME,
+                new String[] { ApplicationContract.DownloadChapter.COLUMN_COMPLETED_PAGES },
+                ApplicationContract.DownloadChapter.COLUMN_ID + " = ?",
+                new String[] { String.valueOf(downloadChapterId) },
+                null, null, null
+        );
+
+        if (manifestCursor == null) {
+            return null;
+        }
+
+        try {
+            if (manifestCursor.moveToFirst() && !manifestCursor.isNull(0)) {
+                return manifestCursor.getBlob(0);
+            }
 
-                    ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-                    SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
-                    StringBuilder selection = new StringBuilder();
-                    List<String> selectionArgs = new ArrayList<String>();
+            return null;
+        } finally {
+            manifestCursor.close();
+        }
+    }
 
-                    selection.append(ApplicationContract.DownloadChapter.COLUMN_FLAG + " != ?");
-                    selectionArgs.add(String.valueOf(DownloadUtils.FLAG_COMPLETED));
-                    selection.append(" AND ").append(ApplicationContract.DownloadChapter.COLUMN_FLAG + " != ?");
-                    selectionArgs.add(String.valueOf(DownloadUtils.FLAG_CANCELED));
+    private static void appendGenreSelection(StringBuilder selection, List<String> selectionArgs, Map<String, Integer> genreBitMap, SearchCatalogueWrapper searchCatalogueWrapper) {
+        boolean isMatchAny = SearchUtils.GENRE_MATCH_ANY.equals(searchCatalogueWrapper.getGenreMatchArgs());
 
-                    Cursor notCompletedCursor = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
-                            .withSelection(selection.toString(), selectionArgs.toArray(new String[selectionArgs.size()]))
-                            .getCursor();
+        List<String> includedMatches = new ArrayList<String>();
+        List<String> includedMatchArgs = new ArrayList<String>();
+        long includedMask = 0;
 
-                    if (notCompletedCursor != null) {
-                        try {
-                            if (notCompletedCursor.getCount() == 0) {
-                                shouldStop = true;
-                            }
-                        } finally {
-                            notCompletedCursor.close();
-                            notCompletedCursor = null;
-                        }
-                    }
+        for (String currentGenre : searchCatalogueWrapper.getGenresArgs()) {
+            Integer genreBit = genreBitMap.get(currentGenre);
+            if (genreBit != null) {
+                includedMask |= 1L << genreBit;
+            } else {
+                includedMatches.add(SearchUtils.constructGenreTextMatch());
+                includedMatchArgs.add(SearchUtils.constructGenreTextPattern(currentGenre));
+            }
+        }
 
-                    subscriber.onNext(shouldStop);
-                    subscriber.onCompleted();
-                } catch (Throwable e) {
-                    subscriber.onError(e);
-                }
+        if (includedMask != 0) {
+            if (isMatchAny) {
+                includedMatches.add(0, "(" + LibraryContract.Manga.COLUMN_GENRE_MASK + " & " + includedMask + ") != 0");
+            } else {
+                includedMatches.add(0, "(" + LibraryContract.Manga.COLUMN_GENRE_MASK + " & " + includedMask + ") = " + includedMask);
             }
-        });
+        }
+
+        if (includedMatches.size() > 0) {
+            selection.append(" AND (").append(TextUtils.join(isMatchAny ? " OR " : " AND ", includedMatches)).append(")");
+            selectionArgs.addAll(includedMatchArgs);
+        }
+
+        long excludedMask = 0;
+
+        for (String currentGenre : searchCatalogueWrapper.getExcludedGenresArgs()) {
+            Integer genreBit = genreBitMap.get(currentGenre);
+            if (genreBit != null) {
+                excludedMask |= 1L << genreBit;
+            } else {
+                selection.append(" AND NOT (").append(SearchUtils.constructGenreTextMatch()).append(")");
+                selectionArgs.add(SearchUtils.constructGenreTextPattern(currentGenre));
+            }
+        }
+
+        if (excludedMask != 0) {
+            selection.append(" AND (").append(LibraryContract.Manga.COLUMN_GENRE_MASK + " & " + excludedMask + ") = 0");
+        }
     }
 
-    public static Observable<Boolean> queryAllowDownloadServiceToPublishDownloadChapter(final DownloadChapter downloadChapter) {
-        return Observable.create(new Observable.OnSubscribe<Boolean>() {
-            @Override
-            public void call(Subscriber<? super Boolean> subscriber) {
-                try {
-                    boolean allowPublishing = false;
+    private static Map<String, Integer> queryGenreBitsFromSource(SQLiteDatabase sqLiteDatabase, String sourceName) {
+        Map<String, Integer> genreBitMap = new HashMap<String, Integer>();
+
+        Cursor genreCursor = sqLiteDatabase.query(
+                LibraryContract.Genre.TABLE_NAME,
+                new String[] { LibraryContract.Genre.COLUMN_NAME, LibraryContract.Genre.COLUMN_BIT },
+                LibraryContract.Genre.COLUMN_SOURCE + " = ?",
+                new String[] { sourceName },
+                null, null, null
+        );
+
+        if (genreCursor != null) {
+            try {
+                while (genreCursor.moveToNext()) {
+                    if (!genreCursor.isNull(1)) {
+                        genreBitMap.put(genreCursor.getString(0), genreCursor.getInt(1));
+                    }
+                }
+            } finally {
+                genreCursor.close();
+            }
+        }
 
-                    if (downloadChapter != null) {
-                        ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-                        SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
+        return genreBitMap;
+    }
 
-                        DownloadChapter updatedDownloadChapter = cupboard().withDatabase(sqLiteDatabase).query(DownloadChapter.class)
-                                .withSelection(ApplicationContract.DownloadChapter.COLUMN_ID + " = ?", String.valueOf(downloadChapter.getId()))
-                                .limit(1)
-                                .get();
+    public static ChapterMergeWrapper mergeChaptersToApplicationDatabase(String source, String parentUrl, List<Chapter> chapterList) {
+        ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
+        SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
 
-                        if (updatedDownloadChapter  != null) {
-                            if (updatedDownloadChapter .getFlag() != DownloadUtils.FLAG_CANCELED) {
-                                allowPublishing = true;
-                            }
+        int newCount = 0;
+        int changedCount = 0;
+        int removedCount = 0;
+
+        sqLiteDatabase.beginTransaction();
+        try {
+            Map<String, Chapter> existingChapterMap = new HashMap<String, Chapter>();
+            List<Long> removedChapterIds = new ArrayList<Long>();
+
+            Cursor existingCursor = sqLiteDatabase.query(
+                    ApplicationContract.Chapter.TABLE_NAME,
+                    new String[] {
+                            ApplicationContract.Chapter.COLUMN_ID,
+                            ApplicationContract.Chapter.COLUMN_URL,
+                            ApplicationContract.Chapter.COLUMN_NAME,
+                            ApplicationContract.Chapter.COLUMN_NEW,
+                            ApplicationContract.Chapter.COLUMN_DATE,
+                            ApplicationContract.Chapter.COLUMN_NUMBER
+                    },
+                    ApplicationContract.Chapter.COLUMN_SOURCE + " = ? AND " + ApplicationContract.Chapter.COLUMN_PARENT_URL + " = ?",
+                    new String[] { source, parentUrl },
+                    null, null, null
+            );
+
+            if (existingCursor != null) {
+                try {
+                    while (existingCursor.moveToNext()) {
+                        Chapter existingChapter = new Chapter();
+                        existingChapter.setId(existingCursor.getLong(0));
+                        existingChapter.setUrl(existingCursor.getString(1));
+                        existingChapter.setName(existingCursor.getString(2));
+                        existingChapter.setNew(existingCursor.getInt(3) != 0);
+                        existingChapter.setDate(existingCursor.getLong(4));
+                        existingChapter.setNumber(existingCursor.getInt(5));
+
+                        if (existingChapterMap.containsKey(existingChapter.getUrl())) {
+                            removedChapterIds.add(existingChapter.getId());
+                        } else {
+                            existingChapterMap.put(existingChapter.getUrl(), existingChapter);
+                        }
+                    }
+                } finally {
+                    existingCursor.close();
+                }
+            }
+
+            SQLiteStatement insertStatement = sqLiteDatabase.compileStatement(
+                    "INSERT INTO " + ApplicationContract.Chapter.TABLE_NAME + " (" +
+                            ApplicationContract.Chapter.COLUMN_SOURCE + ", " +
+                            ApplicationContract.Chapter.COLUMN_URL + ", " +
+                            ApplicationContract.Chapter.COLUMN_PARENT_URL + ", " +
+                            ApplicationContract.Chapter.COLUMN_NAME + ", " +
+                            ApplicationContract.Chapter.COLUMN_NEW + ", " +
+                            ApplicationContract.Chapter.COLUMN_DATE + ", " +
+                            ApplicationContract.Chapter.COLUMN_NUMBER + ") VALUES (?, ?, ?, ?, ?, ?, ?)"
+            );
+            SQLiteStatement updateStatement = sqLiteDatabase.compileStatement(
+                    "UPDATE " + ApplicationContract.Chapter.TABLE_NAME + " SET " +
+                            ApplicationContract.Chapter.COLUMN_NAME + " = ?, " +
+                            ApplicationContract.Chapter.COLUMN_NEW + " = ?, " +
+                            ApplicationContract.Chapter.COLUMN_DATE + " = ?, " +
+                            ApplicationContract.Chapter.COLUMN_NUMBER + " = ? WHERE " +
+                            ApplicationContract.Chapter.COLUMN_ID + " = ?"
+            );
+            SQLiteStatement deleteStatement = sqLiteDatabase.compileStatement(
+                    "DELETE FROM " + ApplicationContract.Chapter.TABLE_NAME + " WHERE " +
+                            ApplicationContract.Chapter.COLUMN_ID + " = ?"
+            );
+
+            try {
+                for (Chapter currentChapter : chapterList) {
+                    Chapter existingChapter = existingChapterMap.remove(currentChapter.getUrl());
+
+                    if (existingChapter == null) {
+                        insertStatement.clearBindings();
+                        bindStringOrNull(insertStatement, 1, source);
+                        bindStringOrNull(insertStatement, 2, currentChapter.getUrl());
+                        bindStringOrNull(insertStatement, 3, parentUrl);
+                        bindStringOrNull(insertStatement, 4, currentChapter.getName());
+                        insertStatement.bindLong(5, currentChapter.isNew() ? 1 : 0);
+                        insertStatement.bindLong(6, currentChapter.getDate());
+                        insertStatement.bindLong(7, currentChapter.getNumber());
+
+                        currentChapter.setId(insertStatement.executeInsert());
+
+                        newCount++;
+                    } else {
+                        currentChapter.setId(existingChapter.getId());
+
+                        if (!isChapterUnchanged(existingChapter, currentChapter)) {
+                            updateStatement.clearBindings();
+                            bindStringOrNull(updateStatement, 1, currentChapter.getName());
+                            updateStatement.bindLong(2, currentChapter.isNew() ? 1 : 0);
+                            updateStatement.bindLong(3, currentChapter.getDate());
+                            updateStatement.bindLong(4, currentChapter.getNumber());
+                            updateStatement.bindLong(5, existingChapter.getId());
+                            updateStatement.execute();
+
+                            changedCount++;
                         }
                     }
+                }
 
-                    subscriber.onNext(allowPublishing);
-                    subscriber.onCompleted();
-                } catch (Throwable e) {
-                    subscriber.onError(e);
+                for (Chapter removedChapter : existingChapterMap.values()) {
+                    removedChapterIds.add(removedChapter.getId());
                 }
+
+                for (Long removedChapterId : removedChapterIds) {
+                    deleteStatement.clearBindings();
+                    deleteStatement.bindLong(1, removedChapterId);
+                    deleteStatement.execute();
+
+                    removedCount++;
+                }
+            } finally {
+                insertStatement.close();
+                updateStatement.close();
+                deleteStatement.close();
             }
-        });
+
+            sqLiteDatabase.setTransactionSuccessful();
+        } finally {
+            sqLiteDatabase.endTransaction();
+        }
+
+        return new ChapterMergeWrapper(newCount, changedCount, removedCount);
+    }
+
+    private static boolean isChapterUnchanged(Chapter existingChapter, Chapter currentChapter) {
+        return TextUtils.equals(existingChapter.getName(), currentChapter.getName()) &&
+                existingChapter.isNew() == currentChapter.isNew() &&
+                existingChapter.getDate() == currentChapter.getDate() &&
+                existingChapter.getNumber() == currentChapter.getNumber();
+    }
+
+    private static void bindStringOrNull(SQLiteStatement statement, int index, String value) {
+        if (value != null) {
+            statement.bindString(index, value);
+        } else {
+            statement.bindNull(index);
+        }
     }
 
     public static <T> T toObject(Cursor objectCursor, Class<T> classType) {
+        CursorMapper<T> cursorMapper = CursorMapper.forClass(classType);
+        if (cursorMapper != null) {
+            return cursorMapper.toObject(objectCursor);
+        }
+
         return cupboard().withCursor(objectCursor).get(classType);
     }
 
     public static <T> List<T> toList(Cursor listCursor, Class<T> classType) {
+        CursorMapper<T> cursorMapper = CursorMapper.forClass(classType);
+        if (cursorMapper != null) {
+            return cursorMapper.toList(listCursor);
+        }
+
         return cupboard().withCursor(listCursor).list(classType);
     }
 
@@ -1,25 +1,75 @@
 package com.aizoban.naitokenzai.controllers.caches;
 
+import android.util.Log;
+import android.util.LruCache;
+
 import com.jakewharton.disklrucache.DiskLruCache;
+import com.aizoban.naitokenzai.BuildConfig;
 import com.aizoban.naitokenzai.NaitoKenzaiApplication;
+import com.aizoban.naitokenzai.controllers.sources.English_MangaEden;
+import com.aizoban.naitokenzai.controllers.sources.English_MangaHere;
+import com.aizoban.naitokenzai.controllers.sources.English_MangaReader;
+import com.aizoban.naitokenzai.controllers.sources.Italian_MangaEden;
+import com.aizoban.naitokenzai.controllers.sources.Spanish_MangaHere;
 import com.aizoban.naitokenzai.utils.DiskUtils;
+import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
 
 public class CacheProvider {
+    public static final String TAG = CacheProvider.class.getSimpleName();
+
     private static final String PARAMETER_CACHE_DIRECTORY = "chapter_disk_cache";
-    private static final int PARAMETER_APP_VERSION = 1;
+    private static final int PARAMETER_APP_VERSION = 2;
     private static final int PARAMETER_VALUE_COUNT = 1;
     private static final long PARAMETER_CACHE_SIZE = 10 * 1024 * 1024;
 
+    private static final int MEMORY_CACHE_SEGMENTS = 4;
+    private static final int MEMORY_CACHE_ENTRIES_PER_SEGMENT = 16;
+
+    private static final long WRITE_BEHIND_DELAY = 2 * 1000;
+
+    private static final long DEFAULT_TIME_TO_LIVE = TimeUnit.DAYS.toMillis(1);
+    private static final Map<String, Long> SOURCE_TO_TIME_TO_LIVE_MAP = new HashMap<String, Long>();
+
+    static {
+        SOURCE_TO_TIME_TO_LIVE_MAP.put(English_MangaEden.NAME, TimeUnit.DAYS.toMillis(30));
+        SOURCE_TO_TIME_TO_LIVE_MAP.put(Italian_MangaEden.NAME, TimeUnit.DAYS.toMillis(30));
+        SOURCE_TO_TIME_TO_LIVE_MAP.put(English_MangaReader.NAME, TimeUnit.DAYS.toMillis(7));
+        SOURCE_TO_TIME_TO_LIVE_MAP.put(English_MangaHere.NAME, TimeUnit.DAYS.toMillis(1));
+        SOURCE_TO_TIME_TO_LIVE_MAP.put(Spanish_MangaHere.NAME, TimeUnit.DAYS.toMillis(1));
+    }
+
     private static CacheProvider sInstance;
 
     private DiskLruCache mDiskCache;
 
+    private final LruCache<String, ChapterManifest>[] mMemorySegments;
+
+    private final ConcurrentHashMap<String, ChapterManifest> mPendingWrites;
+    private final AtomicBoolean mIsWriteScheduled;
+    private final ScheduledExecutorService mWriteExecutor;
+
+    private final AtomicLong mMemoryHitCount;
+    private final AtomicLong mDiskHitCount;
+    private final AtomicLong mMissCount;
+    private final AtomicLong mLookupTime;
+
+    @SuppressWarnings("unchecked")
     private CacheProvider() {
         try {
             mDiskCache = DiskLruCache.open(
@@ -31,9 +81,23 @@ public class CacheProvider {
         } catch (IOException e) {
             // Do Nothing.
         }
+
+        mMemorySegments = new LruCache[MEMORY_CACHE_SEGMENTS];
+        for (int index = 0; index < MEMORY_CACHE_SEGMENTS; index++) {
+            mMemorySegments[index] = new LruCache<String, ChapterManifest>(MEMORY_CACHE_ENTRIES_PER_SEGMENT);
+        }
+
+        mPendingWrites = new ConcurrentHashMap<String, ChapterManifest>();
+        mIsWriteScheduled = new AtomicBoolean(false);
+        mWriteExecutor = Executors.newSingleThreadScheduledExecutor();
+
+        mMemoryHitCount = new AtomicLong();
+        mDiskHitCount = new AtomicLong();
+        mMissCount = new AtomicLong();
+        mLookupTime = new AtomicLong();
     }
 
-    public static CacheProvider getInstance() {
+    public static synchronized CacheProvider getInstance() {
         if (sInstance == null) {
             sInstance = new CacheProvider();
         }
@@ -41,16 +105,170 @@ public class CacheProvider {
         return sInstance;
     }
 
-    public synchronized String[] getImageUrlsFromDiskCache(String chapterUrl) throws IOException{
-        DiskLruCache.Snapshot snapshot = null;
+    public String[] getImageUrlsFromCache(RequestWrapper request) throws IOException {
+        ChapterManifest chapterManifest = getChapterManifest(request);
+        if (chapterManifest == null) {
+            throw new IOException("Chapter Manifest Not Cached: " + request.getUrl());
+        }
+
+        List<String> imageUrls = chapterManifest.getImageUrls();
+
+        return imageUrls.toArray(new String[imageUrls.size()]);
+    }
+
+    public void putImageUrlsToCache(RequestWrapper request, List<String> imageUrls) {
+        putChapterManifest(request, new ChapterManifest(imageUrls, System.currentTimeMillis()));
+    }
+
+    public ChapterManifest getChapterManifest(RequestWrapper request) {
+        long startTime = System.nanoTime();
+
+        try {
+            String chapterUrl = request.getUrl();
+            long currentTime = System.currentTimeMillis();
+            long timeToLive = getTimeToLiveForSource(request.getSource());
+
+            LruCache<String, ChapterManifest> memorySegment = getMemorySegment(chapterUrl);
+
+            ChapterManifest chapterManifest = memorySegment.get(chapterUrl);
+            if (chapterManifest == null) {
+                chapterManifest = mPendingWrites.get(chapterUrl);
+            }
+            if (chapterManifest != null) {
+                if (!chapterManifest.isExpired(currentTime, timeToLive)) {
+                    mMemoryHitCount.incrementAndGet();
+                    return chapterManifest;
+                }
+
+                memorySegment.remove(chapterUrl);
+                mPendingWrites.remove(chapterUrl);
+            }
+
+            chapterManifest = readManifestFromDisk(chapterUrl);
+            if (chapterManifest != null) {
+                if (!chapterManifest.isExpired(currentTime, timeToLive)) {
+                    memorySegment.put(chapterUrl, chapterManifest);
+
+                    mDiskHitCount.incrementAndGet();
+                    return chapterManifest;
+                }
+
+                removeManifestFromDisk(chapterUrl);
+            }
+
+            mMissCount.incrementAndGet();
+            return null;
+        } finally {
+            mLookupTime.addAndGet(System.nanoTime() - startTime);
+        }
+    }
+
+    public void putChapterManifest(RequestWrapper request, ChapterManifest chapterManifest) {
+        String chapterUrl = request.getUrl();
+
+        getMemorySegment(chapterUrl).put(chapterUrl, chapterManifest);
+
+        mPendingWrites.put(chapterUrl, chapterManifest);
+        scheduleWriteBehind();
+    }
+
+    public void evictAll() {
+        for (LruCache<String, ChapterManifest> memorySegment : mMemorySegments) {
+            memorySegment.evictAll();
+        }
+
+        mPendingWrites.clear();
+    }
 
+    public long getMemoryHitCount() {
+        return mMemoryHitCount.get();
+    }
+
+    public long getDiskHitCount() {
+        return mDiskHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    public float getHitRatio() {
+        long hitCount = mMemoryHitCount.get() + mDiskHitCount.get();
+        long lookupCount = hitCount + mMissCount.get();
+
+        return lookupCount > 0 ? (float) hitCount / lookupCount : 0;
+    }
+
+    public long getAverageLookupNanos() {
+        long lookupCount = mMemoryHitCount.get() + mDiskHitCount.get() + mMissCount.get();
+
+        return lookupCount > 0 ? mLookupTime.get() / lookupCount : 0;
+    }
+
+    public File getCacheDir() {
+        return mDiskCache.getDirectory();
+    }
+
+    private LruCache<String, ChapterManifest> getMemorySegment(String chapterUrl) {
+        return mMemorySegments[(chapterUrl.hashCode() & Integer.MAX_VALUE) % MEMORY_CACHE_SEGMENTS];
+    }
+
+    private static long getTimeToLiveForSource(String source) {
+        Long timeToLive = SOURCE_TO_TIME_TO_LIVE_MAP.get(source);
+        if (timeToLive != null) {
+            return timeToLive;
+        }
+
+        return DEFAULT_TIME_TO_LIVE;
+    }
+
+    private void scheduleWriteBehind() {
+        if (mIsWriteScheduled.compareAndSet(false, true)) {
+            mWriteExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    writePendingManifests();
+                }
+            }, WRITE_BEHIND_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writePendingManifests() {
+        mIsWriteScheduled.set(false);
+
+        int writtenCount = 0;
+        for (Map.Entry<String, ChapterManifest> pendingEntry : mPendingWrites.entrySet()) {
+            if (writeManifestToDisk(pendingEntry.getKey(), pendingEntry.getValue())) {
+                writtenCount++;
+            }
+
+            mPendingWrites.remove(pendingEntry.getKey(), pendingEntry.getValue());
+        }
+
+        if (BuildConfig.DEBUG) {
+            Log.d(TAG, "Wrote " + writtenCount + " Chapter Manifests, Hit Ratio " + getHitRatio() + ", Average Lookup " + getAverageLookupNanos() + " ns");
+        }
+    }
+
+    private ChapterManifest readManifestFromDisk(String chapterUrl) {
+        if (mDiskCache == null) {
+            return null;
+        }
+
+        DiskLruCache.Snapshot snapshot = null;
         try {
-            String key = DiskUtils.hashKeyForDisk(chapterUrl);
+            snapshot = mDiskCache.get(DiskUtils.hashKeyForDisk(chapterUrl));
+            if (snapshot == null) {
+                return null;
+            }
+
+            BufferedSource source = Okio.buffer(Okio.source(snapshot.getInputStream(0)));
 
-            snapshot = mDiskCache.get(key);
+            return ChapterManifest.readFrom(source, snapshot.getLength(0));
+        } catch (IOException e) {
+            removeManifestFromDisk(chapterUrl);
 
-            String joinedImageUrls = snapshot.getString(0);
-            return joinedImageUrls.split(",");
+            return null;
         } finally {
             if (snapshot != null) {
                 snapshot.close();
@@ -58,34 +276,27 @@ public class CacheProvider {
         }
     }
 
-    public synchronized void putImageUrlsToDiskCache(String chapterUrl, List<String> imageUrls) {
-        StringBuilder stringBuilder = new StringBuilder();
-        for (int index = 0; index < imageUrls.size(); index++) {
-            if (index == 0) {
-                stringBuilder.append(imageUrls.get(index));
-            } else {
-                stringBuilder.append(",");
-                stringBuilder.append(imageUrls.get(index));
-            }
+    private boolean writeManifestToDisk(String chapterUrl, ChapterManifest chapterManifest) {
+        if (mDiskCache == null) {
+            return false;
         }
-        String cachedValue = stringBuilder.toString();
 
         DiskLruCache.Editor editor = null;
-        OutputStream outputStream = null;
+        BufferedSink sink = null;
         try {
-            String key = DiskUtils.hashKeyForDisk(chapterUrl);
-            editor = mDiskCache.edit(key);
-
+            editor = mDiskCache.edit(DiskUtils.hashKeyForDisk(chapterUrl));
             if (editor == null) {
-                return;
+                return false;
             }
 
-            outputStream = new BufferedOutputStream(editor.newOutputStream(0));
-            outputStream.write(cachedValue.getBytes());
-            outputStream.flush();
+            sink = Okio.buffer(Okio.sink(editor.newOutputStream(0)));
+            chapterManifest.writeTo(sink);
+            sink.close();
+            sink = null;
 
-            mDiskCache.flush();
             editor.commit();
+
+            return true;
         } catch (IOException e) {
             if (editor != null) {
                 try {
@@ -94,10 +305,12 @@ public class CacheProvider {
                     // Do Nothing.
                 }
             }
+
+            return false;
         } finally {
-            if (outputStream != null) {
+            if (sink != null) {
                 try {
-                    outputStream.close();
+                    sink.close();
                 } catch (IOException ignore) {
                     // Do Nothing.
                 }
@@ -105,7 +318,11 @@ public class CacheProvider {
         }
     }
 
-    public synchronized File getCacheDir() {
-        return mDiskCache.getDirectory();
+    private void removeManifestFromDisk(String chapterUrl) {
+        try {
+            mDiskCache.remove(DiskUtils.hashKeyForDisk(chapterUrl));
+        } catch (IOException e) {
+            // Do Nothing.
+        }
     }
 }
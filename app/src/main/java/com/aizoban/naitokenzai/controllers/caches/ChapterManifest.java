@@ -0,0 +1,181 @@
+package com.aizoban.naitokenzai.controllers.caches;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+
+public class ChapterManifest {
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int FLAG_PAGE_SIZES = 1;
+    private static final int FLAG_PAGE_DIMENSIONS = 1 << 1;
+
+    private static final int HEADER_SIZE = 1 + 1 + 8 + 4;
+
+    private final List<String> mImageUrls;
+    private final long[] mPageSizes;
+    private final int[] mPageWidths;
+    private final int[] mPageHeights;
+    private final long mFetchedAt;
+
+    public ChapterManifest(List<String> imageUrls, long fetchedAt) {
+        this(imageUrls, null, null, null, fetchedAt);
+    }
+
+    public ChapterManifest(List<String> imageUrls, long[] pageSizes, int[] pageWidths, int[] pageHeights, long fetchedAt) {
+        if (pageSizes != null && pageSizes.length != imageUrls.size()) {
+            throw new IllegalArgumentException("Page Sizes Do Not Match Page Count: " + pageSizes.length);
+        }
+        if ((pageWidths == null) != (pageHeights == null)) {
+            throw new IllegalArgumentException("Page Widths and Heights Must Be Set Together");
+        }
+        if (pageWidths != null && (pageWidths.length != imageUrls.size() || pageHeights.length != imageUrls.size())) {
+            throw new IllegalArgumentException("Page Dimensions Do Not Match Page Count: " + pageWidths.length);
+        }
+
+        mImageUrls = Collections.unmodifiableList(new ArrayList<String>(imageUrls));
+        mPageSizes = pageSizes;
+        mPageWidths = pageWidths;
+        mPageHeights = pageHeights;
+        mFetchedAt = fetchedAt;
+    }
+
+    public List<String> getImageUrls() {
+        return mImageUrls;
+    }
+
+    public int getPageCount() {
+        return mImageUrls.size();
+    }
+
+    public boolean hasPageSizes() {
+        return mPageSizes != null;
+    }
+
+    public long getPageSize(int pageIndex) {
+        return mPageSizes != null ? mPageSizes[pageIndex] : -1;
+    }
+
+    public boolean hasPageDimensions() {
+        return mPageWidths != null;
+    }
+
+    public int getPageWidth(int pageIndex) {
+        return mPageWidths != null ? mPageWidths[pageIndex] : -1;
+    }
+
+    public int getPageHeight(int pageIndex) {
+        return mPageHeights != null ? mPageHeights[pageIndex] : -1;
+    }
+
+    public long getFetchedAt() {
+        return mFetchedAt;
+    }
+
+    public boolean isExpired(long currentTime, long timeToLive) {
+        return currentTime - mFetchedAt > timeToLive || currentTime < mFetchedAt;
+    }
+
+    public void writeTo(BufferedSink sink) throws IOException {
+        int flags = 0;
+        if (mPageSizes != null) {
+            flags |= FLAG_PAGE_SIZES;
+        }
+        if (mPageWidths != null) {
+            flags |= FLAG_PAGE_DIMENSIONS;
+        }
+
+        sink.writeByte(FORMAT_VERSION);
+        sink.writeByte(flags);
+        sink.writeLong(mFetchedAt);
+        sink.writeInt(mImageUrls.size());
+
+        for (String imageUrl : mImageUrls) {
+            ByteString encodedUrl = ByteString.encodeUtf8(imageUrl);
+
+            sink.writeInt(encodedUrl.size());
+            sink.write(encodedUrl);
+        }
+
+        if (mPageSizes != null) {
+            for (long pageSize : mPageSizes) {
+                sink.writeLong(pageSize);
+            }
+        }
+
+        if (mPageWidths != null) {
+            for (int index = 0; index < mPageWidths.length; index++) {
+                sink.writeInt(mPageWidths[index]);
+                sink.writeInt(mPageHeights[index]);
+            }
+        }
+    }
+
+    public static ChapterManifest readFrom(BufferedSource source, long byteCount) throws IOException {
+        if (byteCount < HEADER_SIZE) {
+            throw new IOException("Truncated Manifest: " + byteCount + " Bytes");
+        }
+
+        int formatVersion = source.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported Manifest Version: " + formatVersion);
+        }
+
+        int flags = source.readByte();
+        long fetchedAt = source.readLong();
+        int pageCount = source.readInt();
+
+        long minimumPageBytes = 4;
+        if ((flags & FLAG_PAGE_SIZES) != 0) {
+            minimumPageBytes += 8;
+        }
+        if ((flags & FLAG_PAGE_DIMENSIONS) != 0) {
+            minimumPageBytes += 8;
+        }
+
+        long remainingBytes = byteCount - HEADER_SIZE;
+        if (pageCount < 0 || pageCount > remainingBytes / minimumPageBytes) {
+            throw new IOException("Invalid Manifest Page Count: " + pageCount);
+        }
+
+        remainingBytes -= pageCount * minimumPageBytes;
+
+        List<String> imageUrls = new ArrayList<String>(pageCount);
+        for (int index = 0; index < pageCount; index++) {
+            int urlLength = source.readInt();
+            if (urlLength < 0 || urlLength > remainingBytes) {
+                throw new IOException("Invalid Manifest Url Length: " + urlLength);
+            }
+
+            remainingBytes -= urlLength;
+
+            imageUrls.add(source.readByteString(urlLength).utf8());
+        }
+
+        long[] pageSizes = null;
+        if ((flags & FLAG_PAGE_SIZES) != 0) {
+            pageSizes = new long[pageCount];
+            for (int index = 0; index < pageCount; index++) {
+                pageSizes[index] = source.readLong();
+            }
+        }
+
+        int[] pageWidths = null;
+        int[] pageHeights = null;
+        if ((flags & FLAG_PAGE_DIMENSIONS) != 0) {
+            pageWidths = new int[pageCount];
+            pageHeights = new int[pageCount];
+            for (int index = 0; index < pageCount; index++) {
+                pageWidths[index] = source.readInt();
+                pageHeights[index] = source.readInt();
+            }
+        }
+
+        return new ChapterManifest(imageUrls, pageSizes, pageWidths, pageHeights, fetchedAt);
+    }
+}
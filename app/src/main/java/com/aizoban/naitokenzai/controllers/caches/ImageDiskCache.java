@@ -0,0 +1,144 @@
+package com.aizoban.naitokenzai.controllers.caches;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.disklrucache.DiskLruCache;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.NaitoKenzaiApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class ImageDiskCache implements DiskCache {
+    public static final String TAG = ImageDiskCache.class.getSimpleName();
+
+    private static final int PARAMETER_APP_VERSION = 1;
+    private static final int PARAMETER_VALUE_COUNT = 1;
+
+    public static final long DEFAULT_CACHE_SIZE = 250 * 1024 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static ImageDiskCache sInstance;
+
+    private DiskLruCache mDiskCache;
+    private long mMaximumSize;
+
+    private ImageDiskCache() {
+        mMaximumSize = DEFAULT_CACHE_SIZE;
+    }
+
+    public static synchronized ImageDiskCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new ImageDiskCache();
+        }
+
+        return sInstance;
+    }
+
+    @Override
+    public File get(Key key) {
+        try {
+            DiskLruCache.Value value = getDiskCache().get(toSafeKey(key));
+            if (value != null) {
+                return value.getFile(0);
+            }
+        } catch (IOException e) {
+            if (BuildConfig.DEBUG) {
+                e.printStackTrace();
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void put(Key key, Writer writer) {
+        try {
+            DiskLruCache.Editor editor = getDiskCache().edit(toSafeKey(key));
+            if (editor == null) {
+                return;
+            }
+
+            try {
+                if (writer.write(editor.getFile(0))) {
+                    editor.commit();
+                }
+            } finally {
+                editor.abortUnlessCommitted();
+            }
+        } catch (IOException e) {
+            if (BuildConfig.DEBUG) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public void delete(Key key) {
+        try {
+            getDiskCache().remove(toSafeKey(key));
+        } catch (IOException e) {
+            if (BuildConfig.DEBUG) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public long getSize() {
+        try {
+            return getDiskCache().size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public long getMaximumSize() {
+        return mMaximumSize;
+    }
+
+    public synchronized void setMaximumSize(long maximumSize) throws IOException {
+        mMaximumSize = maximumSize;
+
+        DiskLruCache diskCache = getDiskCache();
+        diskCache.setMaxSize(maximumSize);
+        // Flush Evicts Least Recently Used Entries Through the Journal Before Returning.
+        diskCache.flush();
+    }
+
+    private synchronized DiskLruCache getDiskCache() throws IOException {
+        if (mDiskCache == null) {
+            mDiskCache = DiskLruCache.open(
+                    Glide.getPhotoCacheDir(NaitoKenzaiApplication.getInstance()),
+                    PARAMETER_APP_VERSION,
+                    PARAMETER_VALUE_COUNT,
+                    mMaximumSize
+            );
+        }
+
+        return mDiskCache;
+    }
+
+    private static String toSafeKey(Key key) throws IOException {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            key.updateDiskCacheKey(messageDigest);
+
+            byte[] digest = messageDigest.digest();
+
+            char[] hexChars = new char[digest.length * 2];
+            for (int index = 0; index < digest.length; index++) {
+                int value = digest[index] & 0xFF;
+                hexChars[index * 2] = HEX_DIGITS[value >>> 4];
+                hexChars[index * 2 + 1] = HEX_DIGITS[value & 0x0F];
+            }
+
+            return new String(hexChars);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.aizoban.naitokenzai.controllers.caches;
+
+import android.graphics.drawable.Drawable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.animation.GlideAnimation;
+import com.bumptech.glide.request.target.SimpleTarget;
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.NaitoKenzaiApplication;
+import com.aizoban.naitokenzai.controllers.networks.PrefetchUrl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PagePrefetcher {
+    public static final String TAG = PagePrefetcher.class.getSimpleName();
+
+    public static final int MAXIMUM_PARALLEL_PREFETCHES = 3;
+
+    public static final int PREFETCH_AHEAD_PAGES = 10;
+    public static final int PREFETCH_BEHIND_PAGES = 2;
+
+    private static final int BEHIND_DISTANCE_WEIGHT = 3;
+
+    private final List<String> mImageUrls;
+    private final int mCacheWidth;
+    private final int mCacheHeight;
+
+    private final boolean[] mIsFinished;
+    private final Map<Integer, PageTarget> mPageToTargetMap;
+
+    private int mPosition;
+    private boolean mIsCanceled;
+
+    public PagePrefetcher(List<String> imageUrls, int cacheWidth, int cacheHeight) {
+        mImageUrls = new ArrayList<String>(imageUrls);
+        mCacheWidth = cacheWidth;
+        mCacheHeight = cacheHeight;
+
+        mIsFinished = new boolean[mImageUrls.size()];
+        mPageToTargetMap = new HashMap<Integer, PageTarget>();
+    }
+
+    public void setPosition(int position) {
+        if (mIsCanceled) {
+            return;
+        }
+
+        mPosition = Math.max(0, Math.min(position, mImageUrls.size() - 1));
+
+        reprioritize();
+    }
+
+    public void cancel() {
+        mIsCanceled = true;
+
+        for (PageTarget pageTarget : new ArrayList<PageTarget>(mPageToTargetMap.values())) {
+            Glide.clear(pageTarget);
+        }
+        mPageToTargetMap.clear();
+    }
+
+    private void reprioritize() {
+        List<Integer> wantedPages = rankPendingPages();
+        if (wantedPages.size() > MAXIMUM_PARALLEL_PREFETCHES) {
+            wantedPages = wantedPages.subList(0, MAXIMUM_PARALLEL_PREFETCHES);
+        }
+
+        for (Integer inFlightPage : new ArrayList<Integer>(mPageToTargetMap.keySet())) {
+            if (!wantedPages.contains(inFlightPage)) {
+                Glide.clear(mPageToTargetMap.remove(inFlightPage));
+            }
+        }
+
+        for (Integer wantedPage : wantedPages) {
+            if (!mPageToTargetMap.containsKey(wantedPage)) {
+                PageTarget pageTarget = new PageTarget(wantedPage);
+                mPageToTargetMap.put(wantedPage, pageTarget);
+
+                Glide.with(NaitoKenzaiApplication.getInstance())
+                        .load(new PrefetchUrl(mImageUrls.get(wantedPage)))
+                        .downloadOnly(pageTarget);
+            }
+        }
+    }
+
+    private List<Integer> rankPendingPages() {
+        List<Integer> pendingPages = new ArrayList<Integer>();
+
+        int firstPage = Math.max(0, mPosition - PREFETCH_BEHIND_PAGES);
+        int lastPage = Math.min(mImageUrls.size() - 1, mPosition + PREFETCH_AHEAD_PAGES);
+        for (int page = firstPage; page <= lastPage; page++) {
+            if (!mIsFinished[page]) {
+                pendingPages.add(page);
+            }
+        }
+
+        Collections.sort(pendingPages, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                int lhsDistance = getWeightedDistance(lhs);
+                int rhsDistance = getWeightedDistance(rhs);
+
+                if (lhsDistance != rhsDistance) {
+                    return lhsDistance < rhsDistance ? -1 : 1;
+                }
+
+                return lhs < rhs ? 1 : (lhs.equals(rhs) ? 0 : -1);
+            }
+        });
+
+        return pendingPages;
+    }
+
+    private int getWeightedDistance(int page) {
+        if (page >= mPosition) {
+            return page - mPosition;
+        }
+
+        return (mPosition - page) * BEHIND_DISTANCE_WEIGHT;
+    }
+
+    private void onPageFinished(PageTarget pageTarget) {
+        if (mPageToTargetMap.get(pageTarget.mPage) != pageTarget) {
+            return;
+        }
+
+        mPageToTargetMap.remove(pageTarget.mPage);
+        mIsFinished[pageTarget.mPage] = true;
+
+        if (!mIsCanceled) {
+            reprioritize();
+        }
+    }
+
+    private class PageTarget extends SimpleTarget<File> {
+        private final int mPage;
+
+        private PageTarget(int page) {
+            super(mCacheWidth, mCacheHeight);
+
+            mPage = page;
+        }
+
+        @Override
+        public void onResourceReady(File resource, GlideAnimation<? super File> glideAnimation) {
+            onPageFinished(this);
+        }
+
+        @Override
+        public void onLoadFailed(Exception e, Drawable errorDrawable) {
+            if (BuildConfig.DEBUG && e != null) {
+                e.printStackTrace();
+            }
+
+            onPageFinished(this);
+        }
+    }
+}
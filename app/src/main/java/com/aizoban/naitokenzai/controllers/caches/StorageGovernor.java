@@ -0,0 +1,207 @@
+package com.aizoban.naitokenzai.controllers.caches;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Environment;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.NaitoKenzaiApplication;
+import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.events.DownloadChapterDeleteEvent;
+import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
+import com.aizoban.naitokenzai.utils.DiskUtils;
+import com.aizoban.naitokenzai.utils.PreferenceUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.greenrobot.event.EventBus;
+
+public class StorageGovernor {
+    public static final String TAG = StorageGovernor.class.getSimpleName();
+
+    private static final long TRIM_DELAY = 5 * 1000;
+    private static final long TRIM_STEP_DELAY = 500;
+
+    private static final long MINIMUM_TRANSIENT_BYTES = 16 * 1024 * 1024;
+    private static final int DOWNLOAD_EVICTION_BATCH_SIZE = 1;
+
+    private static StorageGovernor sInstance;
+
+    private final ScheduledExecutorService mTrimExecutor;
+    private final AtomicBoolean mIsTrimScheduled;
+
+    private final List<String> mOpenChapterUrls;
+
+    private volatile long mTransientBytes;
+    private volatile long mManifestBytes;
+    private volatile long mDownloadBytes;
+
+    private StorageGovernor() {
+        mTrimExecutor = Executors.newSingleThreadScheduledExecutor();
+        mIsTrimScheduled = new AtomicBoolean(false);
+
+        mOpenChapterUrls = new ArrayList<String>();
+    }
+
+    public static synchronized StorageGovernor getInstance() {
+        if (sInstance == null) {
+            sInstance = new StorageGovernor();
+        }
+
+        return sInstance;
+    }
+
+    public void requestTrim() {
+        if (mIsTrimScheduled.compareAndSet(false, true)) {
+            mTrimExecutor.schedule(new TrimPass(), TRIM_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void onChapterOpened(String chapterUrl) {
+        synchronized (mOpenChapterUrls) {
+            mOpenChapterUrls.add(chapterUrl);
+        }
+    }
+
+    public void onChapterClosed(String chapterUrl) {
+        synchronized (mOpenChapterUrls) {
+            mOpenChapterUrls.remove(chapterUrl);
+        }
+    }
+
+    private List<String> getOpenChapterUrls() {
+        synchronized (mOpenChapterUrls) {
+            return new ArrayList<String>(mOpenChapterUrls);
+        }
+    }
+
+    public long getTransientBytes() {
+        return mTransientBytes;
+    }
+
+    public long getManifestBytes() {
+        return mManifestBytes;
+    }
+
+    public long getDownloadBytes() {
+        return mDownloadBytes;
+    }
+
+    public long getTotalBytes() {
+        return mTransientBytes + mManifestBytes + mDownloadBytes;
+    }
+
+    private void measureUsage() {
+        Context context = NaitoKenzaiApplication.getInstance();
+
+        mTransientBytes = ImageDiskCache.getInstance().getSize();
+        mManifestBytes = DiskUtils.sizeOfFiles(CacheProvider.getInstance().getCacheDir());
+
+        long downloadBytes = DiskUtils.sizeOfFiles(new File(context.getFilesDir(), "downloads"));
+        if (Environment.MEDIA_MOUNTED.equals(Environment.getExternalStorageState())) {
+            downloadBytes += DiskUtils.sizeOfFiles(new File(Environment.getExternalStorageDirectory(), context.getPackageName()));
+        }
+        mDownloadBytes = downloadBytes;
+    }
+
+    private class TrimPass implements Runnable {
+        private long mBudget;
+        private boolean mIsStarted;
+        private boolean mIsDownloadsExhausted;
+
+        @Override
+        public void run() {
+            boolean isContinuing = false;
+
+            try {
+                if (!mIsStarted) {
+                    mIsStarted = true;
+
+                    mBudget = PreferenceUtils.getStorageBudget();
+                    if (mBudget <= 0) {
+                        ImageDiskCache.getInstance().setMaximumSize(ImageDiskCache.DEFAULT_CACHE_SIZE);
+                        return;
+                    }
+
+                    measureUsage();
+                }
+
+                trimTransientPages();
+
+                if (getTotalBytes() <= mBudget) {
+                    if (BuildConfig.DEBUG) {
+                        Log.d(TAG, "Trimmed to " + getTotalBytes() + " of " + mBudget + " Bytes");
+                    }
+                    return;
+                }
+
+                if (!mIsDownloadsExhausted) {
+                    evictReadDownloads();
+                } else {
+                    if (BuildConfig.DEBUG) {
+                        Log.d(TAG, "Nothing Left to Evict at " + getTotalBytes() + " of " + mBudget + " Bytes");
+                    }
+                    return;
+                }
+
+                mTrimExecutor.schedule(this, TRIM_STEP_DELAY, TimeUnit.MILLISECONDS);
+                isContinuing = true;
+            } catch (Throwable e) {
+                if (BuildConfig.DEBUG) {
+                    e.printStackTrace();
+                }
+            } finally {
+                if (!isContinuing) {
+                    mIsTrimScheduled.set(false);
+                }
+            }
+        }
+
+        private void trimTransientPages() throws IOException {
+            ImageDiskCache imageDiskCache = ImageDiskCache.getInstance();
+
+            long transientBudget = mBudget - mManifestBytes - mDownloadBytes;
+            transientBudget = Math.max(MINIMUM_TRANSIENT_BYTES, Math.min(transientBudget, ImageDiskCache.DEFAULT_CACHE_SIZE));
+
+            imageDiskCache.setMaximumSize(transientBudget);
+
+            mTransientBytes = imageDiskCache.getSize();
+        }
+
+        private void evictReadDownloads() {
+            Cursor evictableCursor = QueryManager.queryEvictableDownloadChapters(DOWNLOAD_EVICTION_BATCH_SIZE, getOpenChapterUrls())
+                    .toBlocking()
+                    .single();
+
+            ArrayList<DownloadChapter> downloadChaptersToDelete = new ArrayList<DownloadChapter>();
+            if (evictableCursor != null) {
+                downloadChaptersToDelete.addAll(QueryManager.toList(evictableCursor, DownloadChapter.class));
+            }
+
+            if (downloadChaptersToDelete.isEmpty()) {
+                mIsDownloadsExhausted = true;
+                return;
+            }
+
+            for (DownloadChapter downloadChapter : downloadChaptersToDelete) {
+                File chapterDirectory = new File(downloadChapter.getDirectory());
+
+                long chapterLength = DiskUtils.sizeOfFiles(chapterDirectory);
+                DiskUtils.deleteFiles(chapterDirectory);
+                QueryManager.deleteObjectToApplicationDatabase(downloadChapter);
+
+                mDownloadBytes = Math.max(0, mDownloadBytes - chapterLength);
+            }
+
+            EventBus.getDefault().post(new DownloadChapterDeleteEvent());
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.aizoban.naitokenzai.controllers.databases;
 
 public class ApplicationContract {
     public static final String DATABASE_NAME = "NaitoKenzaiApplication.db";
-    public static final int DATABASE_VERSION = 1;
+    public static final int DATABASE_VERSION = 4;
 
     public static final class Chapter {
         public static final String TABLE_NAME = "Chapter";
@@ -19,6 +19,8 @@ public class ApplicationContract {
 
         public static final String COLUMN_NUMBER = "Number";
 
+        public static final String INDEX_SOURCE_PARENT_URL_NUMBER = "Chapter_Source_ParentUrl_Number_Index";
+
         private Chapter() {}
     }
 
@@ -38,6 +40,12 @@ public class ApplicationContract {
         public static final String COLUMN_CURRENT_PAGE = "CurrentPage";
         public static final String COLUMN_TOTAL_PAGES = "TotalPages";
         public static final String COLUMN_FLAG = "Flag";
+        public static final String COLUMN_PRIORITY = "Priority";
+
+        public static final String COLUMN_PAGE_URLS = "PageUrls";
+        public static final String COLUMN_COMPLETED_PAGES = "CompletedPages";
+
+        public static final String INDEX_FLAG = "DownloadChapter_Flag_Index";
 
         private DownloadChapter() {}
     }
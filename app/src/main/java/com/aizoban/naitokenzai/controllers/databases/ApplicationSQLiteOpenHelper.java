@@ -1,6 +1,9 @@
 package com.aizoban.naitokenzai.controllers.databases;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
@@ -10,12 +13,63 @@ import com.aizoban.naitokenzai.models.databases.FavouriteManga;
 import com.aizoban.naitokenzai.models.databases.RecentChapter;
 import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
 import com.aizoban.naitokenzai.models.downloads.DownloadManga;
-import com.aizoban.naitokenzai.models.downloads.DownloadPage;
+import com.aizoban.naitokenzai.utils.DownloadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import nl.qbusict.cupboard.Cupboard;
 import nl.qbusict.cupboard.CupboardBuilder;
 
 public class ApplicationSQLiteOpenHelper extends SQLiteOpenHelper {
+    private static final DatabaseMigration[] MIGRATIONS = new DatabaseMigration[] {
+            new DatabaseMigration(2) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    db.execSQL(createIndexStatement(
+                            ApplicationContract.Chapter.INDEX_SOURCE_PARENT_URL_NUMBER,
+                            ApplicationContract.Chapter.TABLE_NAME,
+                            ApplicationContract.Chapter.COLUMN_SOURCE,
+                            ApplicationContract.Chapter.COLUMN_PARENT_URL,
+                            ApplicationContract.Chapter.COLUMN_NUMBER
+                    ));
+                    db.execSQL(createIndexStatement(
+                            ApplicationContract.DownloadChapter.INDEX_FLAG,
+                            ApplicationContract.DownloadChapter.TABLE_NAME,
+                            ApplicationContract.DownloadChapter.COLUMN_FLAG
+                    ));
+                }
+            },
+            new DatabaseMigration(3) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    if (!isTableExisting(db, ApplicationContract.DownloadPage.TABLE_NAME)) {
+                        return;
+                    }
+
+                    Cursor downloadChapterCursor = db.query(
+                            ApplicationContract.DownloadChapter.TABLE_NAME,
+                            new String[] { ApplicationContract.DownloadChapter.COLUMN_ID, ApplicationContract.DownloadChapter.COLUMN_URL },
+                            ApplicationContract.DownloadChapter.COLUMN_FLAG + " != ?",
+                            new String[] { String.valueOf(DownloadUtils.FLAG_COMPLETED) },
+                            null, null, null
+                    );
+
+                    if (downloadChapterCursor != null) {
+                        try {
+                            while (downloadChapterCursor.moveToNext()) {
+                                foldDownloadPagesIntoManifest(db, downloadChapterCursor.getLong(0), downloadChapterCursor.getString(1));
+                            }
+                        } finally {
+                            downloadChapterCursor.close();
+                        }
+                    }
+
+                    db.execSQL("DROP TABLE IF EXISTS " + ApplicationContract.DownloadPage.TABLE_NAME);
+                }
+            }
+    };
+
     private static ApplicationSQLiteOpenHelper sInstance;
 
     public ApplicationSQLiteOpenHelper(Context context) {
@@ -34,12 +88,66 @@ public class ApplicationSQLiteOpenHelper extends SQLiteOpenHelper {
     public void onCreate(SQLiteDatabase db) {
         Cupboard applicationCupboard = constructCustomCupboard();
         applicationCupboard.withDatabase(db).createTables();
+
+        DatabaseMigration.applyMigrations(db, MIGRATIONS, 1, ApplicationContract.DATABASE_VERSION);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Cupboard applicationCupboard = constructCustomCupboard();
         applicationCupboard.withDatabase(db).upgradeTables();
+
+        DatabaseMigration.applyMigrations(db, MIGRATIONS, oldVersion, newVersion);
+    }
+
+    private static boolean isTableExisting(SQLiteDatabase db, String tableName) {
+        return DatabaseUtils.queryNumEntries(db, "sqlite_master", "type = 'table' AND name = ?", new String[] { tableName }) > 0;
+    }
+
+    private static void foldDownloadPagesIntoManifest(SQLiteDatabase db, long downloadChapterId, String downloadChapterUrl) {
+        Cursor downloadPageCursor = db.query(
+                ApplicationContract.DownloadPage.TABLE_NAME,
+                new String[] { ApplicationContract.DownloadPage.COLUMN_URL, ApplicationContract.DownloadPage.COLUMN_FLAG },
+                ApplicationContract.DownloadPage.COLUMN_PARENT_URL + " = ?",
+                new String[] { downloadChapterUrl },
+                null, null,
+                "CAST(" + ApplicationContract.DownloadPage.COLUMN_NAME + " AS INTEGER) ASC"
+        );
+
+        if (downloadPageCursor == null) {
+            return;
+        }
+
+        try {
+            if (downloadPageCursor.getCount() == 0) {
+                return;
+            }
+
+            List<String> pageUrls = new ArrayList<String>(downloadPageCursor.getCount());
+            byte[] completedPages = DownloadUtils.constructCompletedPages(downloadPageCursor.getCount());
+
+            while (downloadPageCursor.moveToNext()) {
+                if (downloadPageCursor.getInt(1) == DownloadUtils.FLAG_COMPLETED) {
+                    DownloadUtils.setPageCompleted(completedPages, pageUrls.size());
+                }
+
+                pageUrls.add(downloadPageCursor.getString(0));
+            }
+
+            ContentValues updateValues = new ContentValues(3);
+            updateValues.put(ApplicationContract.DownloadChapter.COLUMN_PAGE_URLS, DownloadUtils.joinPageUrls(pageUrls));
+            updateValues.put(ApplicationContract.DownloadChapter.COLUMN_COMPLETED_PAGES, completedPages);
+            updateValues.put(ApplicationContract.DownloadChapter.COLUMN_TOTAL_PAGES, pageUrls.size());
+
+            db.update(
+                    ApplicationContract.DownloadChapter.TABLE_NAME,
+                    updateValues,
+                    ApplicationContract.DownloadChapter.COLUMN_ID + " = ?",
+                    new String[] { String.valueOf(downloadChapterId) }
+            );
+        } finally {
+            downloadPageCursor.close();
+        }
     }
 
     private Cupboard constructCustomCupboard() {
@@ -49,7 +157,6 @@ public class ApplicationSQLiteOpenHelper extends SQLiteOpenHelper {
         customCupboard.register(RecentChapter.class);
         customCupboard.register(DownloadManga.class);
         customCupboard.register(DownloadChapter.class);
-        customCupboard.register(DownloadPage.class);
 
         return customCupboard;
     }
@@ -0,0 +1,241 @@
+package com.aizoban.naitokenzai.controllers.databases;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.controllers.databases.mappers.MangaCursorMapper;
+import com.aizoban.naitokenzai.models.Manga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.schedulers.Schedulers;
+
+public class CataloguePager {
+    public static final String TAG = CataloguePager.class.getSimpleName();
+
+    public static final int PAGE_SIZE = 60;
+    public static final int MAXIMUM_PAGES = 5;
+    public static final int PREFETCH_DISTANCE = PAGE_SIZE / 2;
+
+    private final String mSelection;
+    private final String[] mSelectionArgs;
+    private final String mOrderColumn;
+
+    private int mCount;
+
+    private final LinkedHashMap<Integer, List<Manga>> mPages;
+    private final Map<Integer, String[]> mPageBoundaries;
+    private final Set<Integer> mLoadingPages;
+
+    private final MangaCursorMapper mMangaCursorMapper;
+
+    private OnPageLoadListener mOnPageLoadListener;
+
+    public CataloguePager(String selection, String[] selectionArgs, String orderColumn) {
+        mSelection = selection;
+        mSelectionArgs = selectionArgs;
+        mOrderColumn = orderColumn;
+
+        mCount = queryCount();
+
+        mPages = new LinkedHashMap<Integer, List<Manga>>(MAXIMUM_PAGES + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Manga>> eldest) {
+                return size() > MAXIMUM_PAGES;
+            }
+        };
+        mPageBoundaries = new ConcurrentHashMap<Integer, String[]>();
+        mLoadingPages = new HashSet<Integer>();
+
+        mMangaCursorMapper = new MangaCursorMapper();
+    }
+
+    public void setOnPageLoadListener(OnPageLoadListener onPageLoadListener) {
+        mOnPageLoadListener = onPageLoadListener;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public Manga getManga(int position) {
+        if (position < 0 || position >= mCount) {
+            return null;
+        }
+
+        int pageIndex = position / PAGE_SIZE;
+        int pageOffset = position % PAGE_SIZE;
+
+        List<Manga> page = mPages.get(pageIndex);
+        if (page == null) {
+            loadPage(pageIndex);
+
+            return null;
+        }
+
+        if (pageOffset >= PAGE_SIZE - PREFETCH_DISTANCE) {
+            loadPage(pageIndex + 1);
+        } else if (pageOffset < PREFETCH_DISTANCE) {
+            loadPage(pageIndex - 1);
+        }
+
+        return pageOffset < page.size() ? page.get(pageOffset) : null;
+    }
+
+    private void loadPage(final int pageIndex) {
+        if (pageIndex < 0 || pageIndex * PAGE_SIZE >= mCount) {
+            return;
+        }
+        if (mPages.containsKey(pageIndex) || !mLoadingPages.add(pageIndex)) {
+            return;
+        }
+
+        final int expectedCount = mCount;
+
+        Observable.create(new Observable.OnSubscribe<LoadedPage>() {
+            @Override
+            public void call(Subscriber<? super LoadedPage> subscriber) {
+                try {
+                    subscriber.onNext(new LoadedPage(queryPage(pageIndex), queryCount()));
+                    subscriber.onCompleted();
+                } catch (Throwable e) {
+                    subscriber.onError(e);
+                }
+            }
+        })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Subscriber<LoadedPage>() {
+                    @Override
+                    public void onCompleted() {
+                        // Do Nothing.
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        mLoadingPages.remove(pageIndex);
+
+                        if (BuildConfig.DEBUG) {
+                            e.printStackTrace();
+                        }
+                    }
+
+                    @Override
+                    public void onNext(LoadedPage loadedPage) {
+                        mLoadingPages.remove(pageIndex);
+
+                        if (mCount != expectedCount) {
+                            return;
+                        }
+
+                        if (loadedPage.mCount != expectedCount) {
+                            mCount = loadedPage.mCount;
+
+                            mPages.clear();
+                            mPageBoundaries.clear();
+                        } else {
+                            mPages.put(pageIndex, loadedPage.mPage);
+                        }
+
+                        if (mOnPageLoadListener != null) {
+                            mOnPageLoadListener.onPageLoad();
+                        }
+                    }
+                });
+    }
+
+    int queryCount() {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+
+        return (int) DatabaseUtils.queryNumEntries(sqLiteDatabase, LibraryContract.Manga.TABLE_NAME, mSelection, mSelectionArgs);
+    }
+
+    List<Manga> queryPage(int pageIndex) {
+        SQLiteDatabase sqLiteDatabase = LibrarySQLiteOpenHelper.getInstance().getWritableDatabase();
+        StringBuilder selection = new StringBuilder(mSelection);
+        List<String> selectionArgs = new ArrayList<String>(Arrays.asList(mSelectionArgs));
+        String limit = String.valueOf(PAGE_SIZE);
+
+        String[] previousBoundary = mPageBoundaries.get(pageIndex - 1);
+        if (previousBoundary != null) {
+            if (mOrderColumn != null) {
+                selection.append(" AND (").append(mOrderColumn + " > ?");
+                selectionArgs.add(previousBoundary[0]);
+                selection.append(" OR (").append(mOrderColumn + " = ?");
+                selectionArgs.add(previousBoundary[0]);
+                selection.append(" AND ").append(LibraryContract.Manga.COLUMN_ID + " > ?))");
+                selectionArgs.add(previousBoundary[1]);
+            } else {
+                selection.append(" AND ").append(LibraryContract.Manga.COLUMN_ID + " > ?");
+                selectionArgs.add(previousBoundary[1]);
+            }
+        } else if (pageIndex > 0) {
+            limit = (pageIndex * PAGE_SIZE) + ", " + PAGE_SIZE;
+        }
+
+        String orderBy = LibraryContract.Manga.COLUMN_ID + " ASC";
+        if (mOrderColumn != null) {
+            orderBy = mOrderColumn + " ASC, " + orderBy;
+        }
+
+        List<Manga> page = new ArrayList<Manga>(PAGE_SIZE);
+
+        Cursor pageCursor = sqLiteDatabase.query(
+                LibraryContract.Manga.TABLE_NAME,
+                null,
+                selection.toString(),
+                selectionArgs.toArray(new String[selectionArgs.size()]),
+                null,
+                null,
+                orderBy,
+                limit
+        );
+
+        if (pageCursor != null) {
+            try {
+                while (pageCursor.moveToNext()) {
+                    page.add(mMangaCursorMapper.mapRow(pageCursor, null));
+                }
+
+                if (pageCursor.moveToLast()) {
+                    String orderValue = mOrderColumn != null ? pageCursor.getString(pageCursor.getColumnIndex(mOrderColumn)) : null;
+                    String idValue = pageCursor.getString(pageCursor.getColumnIndex(LibraryContract.Manga.COLUMN_ID));
+
+                    if (mOrderColumn == null || orderValue != null) {
+                        mPageBoundaries.put(pageIndex, new String[] { orderValue, idValue });
+                    }
+                }
+            } finally {
+                pageCursor.close();
+            }
+        }
+
+        return page;
+    }
+
+    public interface OnPageLoadListener {
+        public void onPageLoad();
+    }
+
+    private static class LoadedPage {
+        private final List<Manga> mPage;
+        private final int mCount;
+
+        private LoadedPage(List<Manga> page, int count) {
+            mPage = page;
+            mCount = count;
+        }
+    }
+}
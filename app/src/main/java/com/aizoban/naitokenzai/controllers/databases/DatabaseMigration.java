@@ -0,0 +1,40 @@
+package com.aizoban.naitokenzai.controllers.databases;
+
+import android.database.sqlite.SQLiteDatabase;
+
+public abstract class DatabaseMigration {
+    private final int mVersion;
+
+    public DatabaseMigration(int version) {
+        mVersion = version;
+    }
+
+    public int getVersion() {
+        return mVersion;
+    }
+
+    public abstract void migrate(SQLiteDatabase db);
+
+    public static void applyMigrations(SQLiteDatabase db, DatabaseMigration[] migrations, int oldVersion, int newVersion) {
+        for (DatabaseMigration migration : migrations) {
+            if (migration.getVersion() > oldVersion && migration.getVersion() <= newVersion) {
+                migration.migrate(db);
+            }
+        }
+    }
+
+    public static String createIndexStatement(String indexName, String tableName, String... columnNames) {
+        StringBuilder createIndexStatement = new StringBuilder();
+        createIndexStatement.append("CREATE INDEX IF NOT EXISTS ").append(indexName);
+        createIndexStatement.append(" ON ").append(tableName).append(" (");
+        for (int index = 0; index < columnNames.length; index++) {
+            if (index > 0) {
+                createIndexStatement.append(", ");
+            }
+            createIndexStatement.append(columnNames[index]);
+        }
+        createIndexStatement.append(")");
+
+        return createIndexStatement.toString();
+    }
+}
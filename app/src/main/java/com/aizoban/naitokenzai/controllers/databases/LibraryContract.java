@@ -1,7 +1,7 @@
 package com.aizoban.naitokenzai.controllers.databases;
 
 public class LibraryContract {
-    public static final int DATABASE_VERSION = 1;
+    public static final int DATABASE_VERSION = 4;
     public static final String DATABASE_NAME = "AizobanLibrary.db";
 
     public static final class Manga {
@@ -26,6 +26,48 @@ public class LibraryContract {
 
         public static final String COLUMN_INITIALIZED = "Initialized";
 
+        public static final String COLUMN_GENRE_MASK = "GenreMask";
+
+        public static final String INDEX_SOURCE_URL = "Manga_Source_Url_Index";
+        public static final String INDEX_SOURCE_RANK = "Manga_Source_Rank_Index";
+
+        public static final String TRIGGER_GENRE_MASK_INSERT = "Manga_GenreMask_Insert_Trigger";
+        public static final String TRIGGER_GENRE_MASK_UPDATE = "Manga_GenreMask_Update_Trigger";
+
         private Manga() {}
     }
+
+    public static final class Genre {
+        public static final String TABLE_NAME = "Genre";
+
+        public static final String COLUMN_ID = "_id";
+
+        public static final String COLUMN_SOURCE = "Source";
+        public static final String COLUMN_NAME = "Name";
+
+        public static final String COLUMN_BIT = "Bit";
+
+        public static final String INDEX_SOURCE_NAME = "Genre_Source_Name_Index";
+
+        public static final int MAXIMUM_BITS = 63;
+
+        private Genre() {}
+    }
+
+    public static final class MangaSearch {
+        public static final String TABLE_NAME = "MangaSearch";
+
+        public static final String COLUMN_DOCID = "docid";
+
+        public static final String COLUMN_NAME = "Name";
+        public static final String COLUMN_AUTHOR = "Author";
+        public static final String COLUMN_ARTIST = "Artist";
+        public static final String COLUMN_GENRE = "Genre";
+
+        public static final String TRIGGER_INSERT = "MangaSearch_Insert_Trigger";
+        public static final String TRIGGER_UPDATE = "MangaSearch_Update_Trigger";
+        public static final String TRIGGER_DELETE = "MangaSearch_Delete_Trigger";
+
+        private MangaSearch() {}
+    }
 }
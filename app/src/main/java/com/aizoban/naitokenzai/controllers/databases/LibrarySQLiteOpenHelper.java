@@ -1,10 +1,14 @@
 package com.aizoban.naitokenzai.controllers.databases;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
 import com.aizoban.naitokenzai.NaitoKenzaiApplication;
+import com.aizoban.naitokenzai.controllers.factories.SourceFactory;
+import com.aizoban.naitokenzai.controllers.sources.Source;
 import com.aizoban.naitokenzai.models.Manga;
 
 import java.io.File;
@@ -12,11 +16,126 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import nl.qbusict.cupboard.Cupboard;
 import nl.qbusict.cupboard.CupboardBuilder;
 
 public class LibrarySQLiteOpenHelper extends SQLiteOpenHelper {
+    private static final int ASSET_DATABASE_VERSION = 1;
+
+    private static final DatabaseMigration[] MIGRATIONS = new DatabaseMigration[] {
+            new DatabaseMigration(2) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    db.execSQL(createIndexStatement(
+                            LibraryContract.Manga.INDEX_SOURCE_URL,
+                            LibraryContract.Manga.TABLE_NAME,
+                            LibraryContract.Manga.COLUMN_SOURCE,
+                            LibraryContract.Manga.COLUMN_URL
+                    ));
+                    db.execSQL(createIndexStatement(
+                            LibraryContract.Manga.INDEX_SOURCE_RANK,
+                            LibraryContract.Manga.TABLE_NAME,
+                            LibraryContract.Manga.COLUMN_SOURCE,
+                            LibraryContract.Manga.COLUMN_RANK
+                    ));
+                }
+            },
+            new DatabaseMigration(3) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    String searchColumns = LibraryContract.MangaSearch.COLUMN_NAME + ", " +
+                            LibraryContract.MangaSearch.COLUMN_AUTHOR + ", " +
+                            LibraryContract.MangaSearch.COLUMN_ARTIST + ", " +
+                            LibraryContract.MangaSearch.COLUMN_GENRE;
+                    String insertSearchRow = "INSERT INTO " + LibraryContract.MangaSearch.TABLE_NAME + " (" +
+                            LibraryContract.MangaSearch.COLUMN_DOCID + ", " + searchColumns + ") VALUES (" +
+                            "new." + LibraryContract.Manga.COLUMN_ID + ", " +
+                            "new." + LibraryContract.Manga.COLUMN_NAME + ", " +
+                            "new." + LibraryContract.Manga.COLUMN_AUTHOR + ", " +
+                            "new." + LibraryContract.Manga.COLUMN_ARTIST + ", " +
+                            "new." + LibraryContract.Manga.COLUMN_GENRE + ");";
+                    String deleteSearchRow = "DELETE FROM " + LibraryContract.MangaSearch.TABLE_NAME + " WHERE " +
+                            LibraryContract.MangaSearch.COLUMN_DOCID + " = old." + LibraryContract.Manga.COLUMN_ID + ";";
+                    String replaceSearchRow = "DELETE FROM " + LibraryContract.MangaSearch.TABLE_NAME + " WHERE " +
+                            LibraryContract.MangaSearch.COLUMN_DOCID + " = new." + LibraryContract.Manga.COLUMN_ID + "; " + insertSearchRow;
+
+                    db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + LibraryContract.MangaSearch.TABLE_NAME +
+                            " USING fts4(" + searchColumns + ")");
+
+                    db.execSQL("CREATE TRIGGER IF NOT EXISTS " + LibraryContract.MangaSearch.TRIGGER_INSERT +
+                            " AFTER INSERT ON " + LibraryContract.Manga.TABLE_NAME +
+                            " BEGIN " + replaceSearchRow + " END");
+                    db.execSQL("CREATE TRIGGER IF NOT EXISTS " + LibraryContract.MangaSearch.TRIGGER_UPDATE +
+                            " AFTER UPDATE OF " + LibraryContract.Manga.COLUMN_NAME + ", " +
+                            LibraryContract.Manga.COLUMN_AUTHOR + ", " +
+                            LibraryContract.Manga.COLUMN_ARTIST + ", " +
+                            LibraryContract.Manga.COLUMN_GENRE + " ON " + LibraryContract.Manga.TABLE_NAME +
+                            " BEGIN " + deleteSearchRow + " " + replaceSearchRow + " END");
+                    db.execSQL("CREATE TRIGGER IF NOT EXISTS " + LibraryContract.MangaSearch.TRIGGER_DELETE +
+                            " AFTER DELETE ON " + LibraryContract.Manga.TABLE_NAME +
+                            " BEGIN " + deleteSearchRow + " END");
+
+                    db.execSQL("DELETE FROM " + LibraryContract.MangaSearch.TABLE_NAME);
+                    db.execSQL("INSERT INTO " + LibraryContract.MangaSearch.TABLE_NAME + " (" +
+                            LibraryContract.MangaSearch.COLUMN_DOCID + ", " + searchColumns + ") SELECT " +
+                            LibraryContract.Manga.COLUMN_ID + ", " +
+                            LibraryContract.Manga.COLUMN_NAME + ", " +
+                            LibraryContract.Manga.COLUMN_AUTHOR + ", " +
+                            LibraryContract.Manga.COLUMN_ARTIST + ", " +
+                            LibraryContract.Manga.COLUMN_GENRE + " FROM " + LibraryContract.Manga.TABLE_NAME);
+                    db.execSQL("INSERT INTO " + LibraryContract.MangaSearch.TABLE_NAME + " (" +
+                            LibraryContract.MangaSearch.TABLE_NAME + ") VALUES ('optimize')");
+                }
+            },
+            new DatabaseMigration(4) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    db.execSQL("CREATE TABLE IF NOT EXISTS " + LibraryContract.Genre.TABLE_NAME + " (" +
+                            LibraryContract.Genre.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            LibraryContract.Genre.COLUMN_SOURCE + " TEXT, " +
+                            LibraryContract.Genre.COLUMN_NAME + " TEXT, " +
+                            LibraryContract.Genre.COLUMN_BIT + " INTEGER)");
+                    db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS " + LibraryContract.Genre.INDEX_SOURCE_NAME +
+                            " ON " + LibraryContract.Genre.TABLE_NAME + " (" +
+                            LibraryContract.Genre.COLUMN_SOURCE + ", " + LibraryContract.Genre.COLUMN_NAME + ")");
+
+                    Cursor genreMaskCursor = db.rawQuery("PRAGMA table_info(" + LibraryContract.Manga.TABLE_NAME + ")", null);
+                    boolean hasGenreMask = false;
+                    try {
+                        while (genreMaskCursor.moveToNext()) {
+                            if (LibraryContract.Manga.COLUMN_GENRE_MASK.equals(genreMaskCursor.getString(genreMaskCursor.getColumnIndex("name")))) {
+                                hasGenreMask = true;
+                            }
+                        }
+                    } finally {
+                        genreMaskCursor.close();
+                    }
+                    if (!hasGenreMask) {
+                        db.execSQL("ALTER TABLE " + LibraryContract.Manga.TABLE_NAME + " ADD COLUMN " +
+                                LibraryContract.Manga.COLUMN_GENRE_MASK + " INTEGER NOT NULL DEFAULT 0");
+                    }
+
+                    String updateGenreMask = "UPDATE " + LibraryContract.Manga.TABLE_NAME + " SET " +
+                            LibraryContract.Manga.COLUMN_GENRE_MASK + " = " + constructGenreMaskExpression("new") + " WHERE " +
+                            LibraryContract.Manga.COLUMN_ID + " = new." + LibraryContract.Manga.COLUMN_ID + ";";
+
+                    db.execSQL("CREATE TRIGGER IF NOT EXISTS " + LibraryContract.Manga.TRIGGER_GENRE_MASK_INSERT +
+                            " AFTER INSERT ON " + LibraryContract.Manga.TABLE_NAME +
+                            " BEGIN " + updateGenreMask + " END");
+                    db.execSQL("CREATE TRIGGER IF NOT EXISTS " + LibraryContract.Manga.TRIGGER_GENRE_MASK_UPDATE +
+                            " AFTER UPDATE OF " + LibraryContract.Manga.COLUMN_SOURCE + ", " +
+                            LibraryContract.Manga.COLUMN_GENRE + " ON " + LibraryContract.Manga.TABLE_NAME +
+                            " BEGIN " + updateGenreMask + " END");
+
+                    // The Dictionary Itself Is Filled and Backfilled by synchronizeGenres() on Open.
+                }
+            }
+    };
+
     private static LibrarySQLiteOpenHelper sInstance;
 
     public LibrarySQLiteOpenHelper(Context context) {
@@ -37,11 +156,94 @@ public class LibrarySQLiteOpenHelper extends SQLiteOpenHelper {
     public void onCreate(SQLiteDatabase db) {
         Cupboard libraryCupboard = constructCustomCupboard();
         libraryCupboard.withDatabase(db).createTables();
+
+        DatabaseMigration.applyMigrations(db, MIGRATIONS, ASSET_DATABASE_VERSION, LibraryContract.DATABASE_VERSION);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Do Nothing.
+        Cupboard libraryCupboard = constructCustomCupboard();
+        libraryCupboard.withDatabase(db).upgradeTables();
+
+        DatabaseMigration.applyMigrations(db, MIGRATIONS, oldVersion, newVersion);
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+
+        if (!db.isReadOnly()) {
+            synchronizeGenres(db);
+        }
+    }
+
+    // Bits Are Append Only: a Genre Keeps Its Bit for Good, so Masks Never Need Renumbering.
+    // Genres Past MAXIMUM_BITS Are Stored Without a Bit and Matched by Text in the Catalogue Query.
+    private static void synchronizeGenres(SQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            for (Source currentSource : SourceFactory.constructAllSources()) {
+                synchronizeGenres(db, currentSource.getName().toBlocking().single(), currentSource.getGenres().toBlocking().single());
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    static void synchronizeGenres(SQLiteDatabase db, String sourceName, List<String> sourceGenres) {
+        Set<String> knownGenres = new HashSet<String>();
+        int nextBit = 0;
+
+        Cursor genreCursor = db.query(
+                LibraryContract.Genre.TABLE_NAME,
+                new String[] { LibraryContract.Genre.COLUMN_NAME, LibraryContract.Genre.COLUMN_BIT },
+                LibraryContract.Genre.COLUMN_SOURCE + " = ?",
+                new String[] { sourceName },
+                null, null, null
+        );
+        try {
+            while (genreCursor.moveToNext()) {
+                knownGenres.add(genreCursor.getString(0));
+                if (!genreCursor.isNull(1)) {
+                    nextBit = Math.max(nextBit, genreCursor.getInt(1) + 1);
+                }
+            }
+        } finally {
+            genreCursor.close();
+        }
+
+        boolean isChanged = false;
+        for (String currentGenre : sourceGenres) {
+            if (knownGenres.add(currentGenre)) {
+                ContentValues genreValues = new ContentValues(3);
+                genreValues.put(LibraryContract.Genre.COLUMN_SOURCE, sourceName);
+                genreValues.put(LibraryContract.Genre.COLUMN_NAME, currentGenre);
+                if (nextBit < LibraryContract.Genre.MAXIMUM_BITS) {
+                    genreValues.put(LibraryContract.Genre.COLUMN_BIT, nextBit++);
+                } else {
+                    genreValues.putNull(LibraryContract.Genre.COLUMN_BIT);
+                }
+
+                db.insert(LibraryContract.Genre.TABLE_NAME, null, genreValues);
+
+                isChanged = true;
+            }
+        }
+
+        if (isChanged) {
+            db.execSQL("UPDATE " + LibraryContract.Manga.TABLE_NAME + " SET " +
+                    LibraryContract.Manga.COLUMN_GENRE_MASK + " = " + constructGenreMaskExpression(LibraryContract.Manga.TABLE_NAME) +
+                    " WHERE " + LibraryContract.Manga.COLUMN_SOURCE + " = ?", new Object[] { sourceName });
+        }
+    }
+
+    private static String constructGenreMaskExpression(String mangaAlias) {
+        return "(SELECT IFNULL(SUM(1 << " + LibraryContract.Genre.COLUMN_BIT + "), 0) FROM " + LibraryContract.Genre.TABLE_NAME +
+                " WHERE " + LibraryContract.Genre.TABLE_NAME + "." + LibraryContract.Genre.COLUMN_SOURCE + " = " + mangaAlias + "." + LibraryContract.Manga.COLUMN_SOURCE +
+                " AND (',' || REPLACE(" + mangaAlias + "." + LibraryContract.Manga.COLUMN_GENRE + ", ' ', '') || ',')" +
+                " LIKE ('%,' || REPLACE(" + LibraryContract.Genre.TABLE_NAME + "." + LibraryContract.Genre.COLUMN_NAME + ", ' ', '') || ',%'))";
     }
 
     private Cupboard constructCustomCupboard() {
@@ -61,7 +263,7 @@ public class LibrarySQLiteOpenHelper extends SQLiteOpenHelper {
             libraryDatabase.close();
             libraryDatabase = null;
 
-            if (currentVersion == LibraryContract.DATABASE_VERSION) {
+            if (currentVersion >= ASSET_DATABASE_VERSION && currentVersion <= LibraryContract.DATABASE_VERSION) {
                 return;
             }
         }
@@ -0,0 +1,46 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.models.Chapter;
+
+public class ChapterCursorMapper extends CursorMapper<Chapter> {
+    private int mIdIndex;
+    private int mSourceIndex;
+    private int mUrlIndex;
+    private int mParentUrlIndex;
+    private int mNameIndex;
+    private int mNewIndex;
+    private int mDateIndex;
+    private int mNumberIndex;
+
+    @Override
+    protected void cacheColumnIndexes(Cursor cursor) {
+        mIdIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_ID);
+        mSourceIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_SOURCE);
+        mUrlIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_URL);
+        mParentUrlIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_PARENT_URL);
+        mNameIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_NAME);
+        mNewIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_NEW);
+        mDateIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_DATE);
+        mNumberIndex = cursor.getColumnIndex(ApplicationContract.Chapter.COLUMN_NUMBER);
+    }
+
+    @Override
+    protected Chapter newObject() {
+        return new Chapter();
+    }
+
+    @Override
+    protected void bindRow(Cursor cursor, Chapter chapter) {
+        chapter.setId(getLongObject(cursor, mIdIndex));
+        chapter.setSource(getString(cursor, mSourceIndex));
+        chapter.setUrl(getString(cursor, mUrlIndex));
+        chapter.setParentUrl(getString(cursor, mParentUrlIndex));
+        chapter.setName(getString(cursor, mNameIndex));
+        chapter.setNew(getBoolean(cursor, mNewIndex));
+        chapter.setDate(getLong(cursor, mDateIndex));
+        chapter.setNumber(getInt(cursor, mNumberIndex));
+    }
+}
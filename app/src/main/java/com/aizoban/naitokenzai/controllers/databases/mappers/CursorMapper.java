@@ -0,0 +1,112 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.models.Chapter;
+import com.aizoban.naitokenzai.models.Manga;
+import com.aizoban.naitokenzai.models.databases.FavouriteManga;
+import com.aizoban.naitokenzai.models.databases.RecentChapter;
+import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
+import com.aizoban.naitokenzai.models.downloads.DownloadManga;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public abstract class CursorMapper<T> {
+    private Cursor mIndexedCursor;
+
+    @SuppressWarnings("unchecked")
+    public static <T> CursorMapper<T> forClass(Class<T> classType) {
+        if (classType == Manga.class) {
+            return (CursorMapper<T>) new MangaCursorMapper();
+        } else if (classType == Chapter.class) {
+            return (CursorMapper<T>) new ChapterCursorMapper();
+        } else if (classType == FavouriteManga.class) {
+            return (CursorMapper<T>) new FavouriteMangaCursorMapper();
+        } else if (classType == RecentChapter.class) {
+            return (CursorMapper<T>) new RecentChapterCursorMapper();
+        } else if (classType == DownloadManga.class) {
+            return (CursorMapper<T>) new DownloadMangaCursorMapper();
+        } else if (classType == DownloadChapter.class) {
+            return (CursorMapper<T>) new DownloadChapterCursorMapper();
+        }
+
+        return null;
+    }
+
+    public T toObject(Cursor cursor) {
+        if (cursor.getPosition() < 0 && !cursor.moveToFirst()) {
+            return null;
+        }
+        if (cursor.isAfterLast()) {
+            return null;
+        }
+
+        return mapRow(cursor, null);
+    }
+
+    public List<T> toList(Cursor cursor) {
+        List<T> objects = new ArrayList<T>(cursor.getCount());
+
+        try {
+            while (cursor.moveToNext()) {
+                objects.add(mapRow(cursor, null));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return objects;
+    }
+
+    public T mapRow(Cursor cursor, T reusableObject) {
+        if (cursor != mIndexedCursor) {
+            cacheColumnIndexes(cursor);
+
+            mIndexedCursor = cursor;
+        }
+
+        T object = reusableObject != null ? reusableObject : newObject();
+        bindRow(cursor, object);
+
+        return object;
+    }
+
+    protected abstract void cacheColumnIndexes(Cursor cursor);
+
+    protected abstract T newObject();
+
+    protected abstract void bindRow(Cursor cursor, T object);
+
+    protected static Long getLongObject(Cursor cursor, int columnIndex) {
+        if (columnIndex < 0 || cursor.isNull(columnIndex)) {
+            return null;
+        }
+
+        return cursor.getLong(columnIndex);
+    }
+
+    protected static String getString(Cursor cursor, int columnIndex) {
+        return columnIndex >= 0 ? cursor.getString(columnIndex) : null;
+    }
+
+    protected static byte[] getBlob(Cursor cursor, int columnIndex) {
+        if (columnIndex < 0 || cursor.isNull(columnIndex)) {
+            return null;
+        }
+
+        return cursor.getBlob(columnIndex);
+    }
+
+    protected static long getLong(Cursor cursor, int columnIndex) {
+        return columnIndex >= 0 ? cursor.getLong(columnIndex) : 0;
+    }
+
+    protected static int getInt(Cursor cursor, int columnIndex) {
+        return columnIndex >= 0 ? cursor.getInt(columnIndex) : 0;
+    }
+
+    protected static boolean getBoolean(Cursor cursor, int columnIndex) {
+        return columnIndex >= 0 && cursor.getInt(columnIndex) != 0;
+    }
+}
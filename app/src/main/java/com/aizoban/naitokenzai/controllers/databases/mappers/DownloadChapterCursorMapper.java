@@ -0,0 +1,58 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
+
+public class DownloadChapterCursorMapper extends CursorMapper<DownloadChapter> {
+    private int mIdIndex;
+    private int mSourceIndex;
+    private int mUrlIndex;
+    private int mParentUrlIndex;
+    private int mNameIndex;
+    private int mDirectoryIndex;
+    private int mCurrentPageIndex;
+    private int mTotalPagesIndex;
+    private int mFlagIndex;
+    private int mPriorityIndex;
+    private int mPageUrlsIndex;
+    private int mCompletedPagesIndex;
+
+    @Override
+    protected void cacheColumnIndexes(Cursor cursor) {
+        mIdIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_ID);
+        mSourceIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_SOURCE);
+        mUrlIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_URL);
+        mParentUrlIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_PARENT_URL);
+        mNameIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_NAME);
+        mDirectoryIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_DIRECTORY);
+        mCurrentPageIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_CURRENT_PAGE);
+        mTotalPagesIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_TOTAL_PAGES);
+        mFlagIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_FLAG);
+        mPriorityIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_PRIORITY);
+        mPageUrlsIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_PAGE_URLS);
+        mCompletedPagesIndex = cursor.getColumnIndex(ApplicationContract.DownloadChapter.COLUMN_COMPLETED_PAGES);
+    }
+
+    @Override
+    protected DownloadChapter newObject() {
+        return new DownloadChapter();
+    }
+
+    @Override
+    protected void bindRow(Cursor cursor, DownloadChapter downloadChapter) {
+        downloadChapter.setId(getLongObject(cursor, mIdIndex));
+        downloadChapter.setSource(getString(cursor, mSourceIndex));
+        downloadChapter.setUrl(getString(cursor, mUrlIndex));
+        downloadChapter.setParentUrl(getString(cursor, mParentUrlIndex));
+        downloadChapter.setName(getString(cursor, mNameIndex));
+        downloadChapter.setDirectory(getString(cursor, mDirectoryIndex));
+        downloadChapter.setCurrentPage(getInt(cursor, mCurrentPageIndex));
+        downloadChapter.setTotalPages(getInt(cursor, mTotalPagesIndex));
+        downloadChapter.setFlag(getInt(cursor, mFlagIndex));
+        downloadChapter.setPriority(getInt(cursor, mPriorityIndex));
+        downloadChapter.setPageUrls(getString(cursor, mPageUrlsIndex));
+        downloadChapter.setCompletedPages(getBlob(cursor, mCompletedPagesIndex));
+    }
+}
@@ -0,0 +1,52 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.models.downloads.DownloadManga;
+
+public class DownloadMangaCursorMapper extends CursorMapper<DownloadManga> {
+    private int mIdIndex;
+    private int mSourceIndex;
+    private int mUrlIndex;
+    private int mArtistIndex;
+    private int mAuthorIndex;
+    private int mDescriptionIndex;
+    private int mGenreIndex;
+    private int mNameIndex;
+    private int mCompletedIndex;
+    private int mThumbnailUrlIndex;
+
+    @Override
+    protected void cacheColumnIndexes(Cursor cursor) {
+        mIdIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_ID);
+        mSourceIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_SOURCE);
+        mUrlIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_URL);
+        mArtistIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_ARTIST);
+        mAuthorIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_AUTHOR);
+        mDescriptionIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_DESCRIPTION);
+        mGenreIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_GENRE);
+        mNameIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_NAME);
+        mCompletedIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_COMPLETED);
+        mThumbnailUrlIndex = cursor.getColumnIndex(ApplicationContract.DownloadManga.COLUMN_THUMBNAIL_URL);
+    }
+
+    @Override
+    protected DownloadManga newObject() {
+        return new DownloadManga();
+    }
+
+    @Override
+    protected void bindRow(Cursor cursor, DownloadManga downloadManga) {
+        downloadManga.setId(getLongObject(cursor, mIdIndex));
+        downloadManga.setSource(getString(cursor, mSourceIndex));
+        downloadManga.setUrl(getString(cursor, mUrlIndex));
+        downloadManga.setArtist(getString(cursor, mArtistIndex));
+        downloadManga.setAuthor(getString(cursor, mAuthorIndex));
+        downloadManga.setDescription(getString(cursor, mDescriptionIndex));
+        downloadManga.setGenre(getString(cursor, mGenreIndex));
+        downloadManga.setName(getString(cursor, mNameIndex));
+        downloadManga.setCompleted(getBoolean(cursor, mCompletedIndex));
+        downloadManga.setThumbnailUrl(getString(cursor, mThumbnailUrlIndex));
+    }
+}
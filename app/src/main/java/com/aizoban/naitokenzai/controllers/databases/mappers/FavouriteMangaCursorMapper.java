@@ -0,0 +1,37 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.models.databases.FavouriteManga;
+
+public class FavouriteMangaCursorMapper extends CursorMapper<FavouriteManga> {
+    private int mIdIndex;
+    private int mSourceIndex;
+    private int mUrlIndex;
+    private int mNameIndex;
+    private int mThumbnailUrlIndex;
+
+    @Override
+    protected void cacheColumnIndexes(Cursor cursor) {
+        mIdIndex = cursor.getColumnIndex(ApplicationContract.FavouriteManga.COLUMN_ID);
+        mSourceIndex = cursor.getColumnIndex(ApplicationContract.FavouriteManga.COLUMN_SOURCE);
+        mUrlIndex = cursor.getColumnIndex(ApplicationContract.FavouriteManga.COLUMN_URL);
+        mNameIndex = cursor.getColumnIndex(ApplicationContract.FavouriteManga.COLUMN_NAME);
+        mThumbnailUrlIndex = cursor.getColumnIndex(ApplicationContract.FavouriteManga.COLUMN_THUMBNAIL_URL);
+    }
+
+    @Override
+    protected FavouriteManga newObject() {
+        return new FavouriteManga();
+    }
+
+    @Override
+    protected void bindRow(Cursor cursor, FavouriteManga favouriteManga) {
+        favouriteManga.setId(getLongObject(cursor, mIdIndex));
+        favouriteManga.setSource(getString(cursor, mSourceIndex));
+        favouriteManga.setUrl(getString(cursor, mUrlIndex));
+        favouriteManga.setName(getString(cursor, mNameIndex));
+        favouriteManga.setThumbnailUrl(getString(cursor, mThumbnailUrlIndex));
+    }
+}
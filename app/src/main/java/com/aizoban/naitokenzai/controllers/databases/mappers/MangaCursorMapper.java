@@ -0,0 +1,64 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.controllers.databases.LibraryContract;
+import com.aizoban.naitokenzai.models.Manga;
+
+public class MangaCursorMapper extends CursorMapper<Manga> {
+    private int mIdIndex;
+    private int mSourceIndex;
+    private int mUrlIndex;
+    private int mArtistIndex;
+    private int mAuthorIndex;
+    private int mDescriptionIndex;
+    private int mGenreIndex;
+    private int mNameIndex;
+    private int mCompletedIndex;
+    private int mThumbnailUrlIndex;
+    private int mRankIndex;
+    private int mUpdatedIndex;
+    private int mUpdateCountIndex;
+    private int mInitializedIndex;
+
+    @Override
+    protected void cacheColumnIndexes(Cursor cursor) {
+        mIdIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_ID);
+        mSourceIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_SOURCE);
+        mUrlIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_URL);
+        mArtistIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_ARTIST);
+        mAuthorIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_AUTHOR);
+        mDescriptionIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_DESCRIPTION);
+        mGenreIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_GENRE);
+        mNameIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_NAME);
+        mCompletedIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_COMPLETED);
+        mThumbnailUrlIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_THUMBNAIL_URL);
+        mRankIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_RANK);
+        mUpdatedIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_UPDATED);
+        mUpdateCountIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_UPDATE_COUNT);
+        mInitializedIndex = cursor.getColumnIndex(LibraryContract.Manga.COLUMN_INITIALIZED);
+    }
+
+    @Override
+    protected Manga newObject() {
+        return new Manga();
+    }
+
+    @Override
+    protected void bindRow(Cursor cursor, Manga manga) {
+        manga.setId(getLongObject(cursor, mIdIndex));
+        manga.setSource(getString(cursor, mSourceIndex));
+        manga.setUrl(getString(cursor, mUrlIndex));
+        manga.setArtist(getString(cursor, mArtistIndex));
+        manga.setAuthor(getString(cursor, mAuthorIndex));
+        manga.setDescription(getString(cursor, mDescriptionIndex));
+        manga.setGenre(getString(cursor, mGenreIndex));
+        manga.setName(getString(cursor, mNameIndex));
+        manga.setCompleted(getBoolean(cursor, mCompletedIndex));
+        manga.setThumbnailUrl(getString(cursor, mThumbnailUrlIndex));
+        manga.setRank(getInt(cursor, mRankIndex));
+        manga.setUpdated(getLong(cursor, mUpdatedIndex));
+        manga.setUpdateCount(getInt(cursor, mUpdateCountIndex));
+        manga.setInitialized(getBoolean(cursor, mInitializedIndex));
+    }
+}
@@ -0,0 +1,49 @@
+package com.aizoban.naitokenzai.controllers.databases.mappers;
+
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.models.databases.RecentChapter;
+
+public class RecentChapterCursorMapper extends CursorMapper<RecentChapter> {
+    private int mIdIndex;
+    private int mSourceIndex;
+    private int mUrlIndex;
+    private int mParentUrlIndex;
+    private int mNameIndex;
+    private int mThumbnailUrlIndex;
+    private int mDateIndex;
+    private int mPageNumberIndex;
+    private int mOfflineIndex;
+
+    @Override
+    protected void cacheColumnIndexes(Cursor cursor) {
+        mIdIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_ID);
+        mSourceIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_SOURCE);
+        mUrlIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_URL);
+        mParentUrlIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_PARENT_URL);
+        mNameIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_NAME);
+        mThumbnailUrlIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_THUMBNAIL_URL);
+        mDateIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_DATE);
+        mPageNumberIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_PAGE);
+        mOfflineIndex = cursor.getColumnIndex(ApplicationContract.RecentChapter.COLUMN_OFFLINE);
+    }
+
+    @Override
+    protected RecentChapter newObject() {
+        return new RecentChapter();
+    }
+
+    @Override
+    protected void bindRow(Cursor cursor, RecentChapter recentChapter) {
+        recentChapter.setId(getLongObject(cursor, mIdIndex));
+        recentChapter.setSource(getString(cursor, mSourceIndex));
+        recentChapter.setUrl(getString(cursor, mUrlIndex));
+        recentChapter.setParentUrl(getString(cursor, mParentUrlIndex));
+        recentChapter.setName(getString(cursor, mNameIndex));
+        recentChapter.setThumbnailUrl(getString(cursor, mThumbnailUrlIndex));
+        recentChapter.setDate(getLong(cursor, mDateIndex));
+        recentChapter.setPageNumber(getInt(cursor, mPageNumberIndex));
+        recentChapter.setOffline(getBoolean(cursor, mOfflineIndex));
+    }
+}
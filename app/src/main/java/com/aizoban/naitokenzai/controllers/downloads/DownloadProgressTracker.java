@@ -0,0 +1,159 @@
+package com.aizoban.naitokenzai.controllers.downloads;
+
+import android.os.SystemClock;
+
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.events.DownloadChapterProgressEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import de.greenrobot.event.EventBus;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+public class DownloadProgressTracker {
+    public static final String TAG = DownloadProgressTracker.class.getSimpleName();
+
+    public static final long FLUSH_INTERVAL = 1000;
+
+    private static DownloadProgressTracker sInstance;
+
+    private final Object mPendingLock;
+    private final Object mFlushLock;
+
+    private final Scheduler.Worker mFlushWorker;
+    private boolean mIsFlushScheduled;
+
+    private Map<Long, Integer> mPendingCurrentPages;
+    private Map<Long, List<Integer>> mPendingCompletedPageIndexes;
+
+    private long mLastFlushTime;
+
+    private DownloadProgressTracker() {
+        mPendingLock = new Object();
+        mFlushLock = new Object();
+
+        mFlushWorker = Schedulers.io().createWorker();
+        mIsFlushScheduled = false;
+
+        mPendingCurrentPages = new HashMap<Long, Integer>();
+        mPendingCompletedPageIndexes = new HashMap<Long, List<Integer>>();
+
+        mLastFlushTime = SystemClock.elapsedRealtime();
+    }
+
+    public static synchronized DownloadProgressTracker getInstance() {
+        if (sInstance == null) {
+            sInstance = new DownloadProgressTracker();
+        }
+
+        return sInstance;
+    }
+
+    public void recordPageCompleted(Long downloadChapterId, int pageIndex, int currentPage) {
+        boolean isFlushDue;
+
+        synchronized (mPendingLock) {
+            List<Integer> pendingPageIndexes = mPendingCompletedPageIndexes.get(downloadChapterId);
+            if (pendingPageIndexes == null) {
+                pendingPageIndexes = new ArrayList<Integer>();
+                mPendingCompletedPageIndexes.put(downloadChapterId, pendingPageIndexes);
+            }
+            pendingPageIndexes.add(pageIndex);
+
+            Integer pendingCurrentPage = mPendingCurrentPages.get(downloadChapterId);
+            if (pendingCurrentPage == null || pendingCurrentPage < currentPage) {
+                mPendingCurrentPages.put(downloadChapterId, currentPage);
+            }
+
+            isFlushDue = SystemClock.elapsedRealtime() - mLastFlushTime >= FLUSH_INTERVAL;
+            if (!isFlushDue) {
+                scheduleFlushLocked();
+            }
+        }
+
+        if (isFlushDue) {
+            flush();
+        }
+    }
+
+    private void scheduleFlushLocked() {
+        if (mIsFlushScheduled) {
+            return;
+        }
+
+        mIsFlushScheduled = true;
+
+        mFlushWorker.schedule(new Action0() {
+            @Override
+            public void call() {
+                synchronized (mPendingLock) {
+                    mIsFlushScheduled = false;
+                }
+
+                flush();
+            }
+        }, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    private void requeueLocked(Map<Long, List<Integer>> completedPageIndexes, Map<Long, Integer> currentPages) {
+        for (Map.Entry<Long, List<Integer>> completedPages : completedPageIndexes.entrySet()) {
+            List<Integer> pendingPageIndexes = mPendingCompletedPageIndexes.get(completedPages.getKey());
+            if (pendingPageIndexes != null) {
+                completedPages.getValue().addAll(pendingPageIndexes);
+            }
+            mPendingCompletedPageIndexes.put(completedPages.getKey(), completedPages.getValue());
+        }
+
+        for (Map.Entry<Long, Integer> currentPage : currentPages.entrySet()) {
+            Integer pendingCurrentPage = mPendingCurrentPages.get(currentPage.getKey());
+            if (pendingCurrentPage == null || pendingCurrentPage < currentPage.getValue()) {
+                mPendingCurrentPages.put(currentPage.getKey(), currentPage.getValue());
+            }
+        }
+    }
+
+    public void flush() {
+        synchronized (mFlushLock) {
+            Map<Long, Integer> currentPages;
+            Map<Long, List<Integer>> completedPageIndexes;
+
+            synchronized (mPendingLock) {
+                currentPages = mPendingCurrentPages;
+                completedPageIndexes = mPendingCompletedPageIndexes;
+
+                mPendingCurrentPages = new HashMap<Long, Integer>();
+                mPendingCompletedPageIndexes = new HashMap<Long, List<Integer>>();
+
+                mLastFlushTime = SystemClock.elapsedRealtime();
+            }
+
+            if (currentPages.isEmpty() && completedPageIndexes.isEmpty()) {
+                return;
+            }
+
+            try {
+                QueryManager.updateDownloadProgressInApplicationDatabase(completedPageIndexes, currentPages);
+            } catch (Throwable e) {
+                if (BuildConfig.DEBUG) {
+                    e.printStackTrace();
+                }
+
+                synchronized (mPendingLock) {
+                    requeueLocked(completedPageIndexes, currentPages);
+                    scheduleFlushLocked();
+                }
+
+                return;
+            }
+
+            EventBus.getDefault().post(new DownloadChapterProgressEvent(currentPages));
+        }
+    }
+}
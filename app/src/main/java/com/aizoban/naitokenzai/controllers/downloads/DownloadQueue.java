@@ -0,0 +1,229 @@
+package com.aizoban.naitokenzai.controllers.downloads;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
+import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
+import com.aizoban.naitokenzai.utils.DownloadUtils;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class DownloadQueue {
+    public static final String TAG = DownloadQueue.class.getSimpleName();
+
+    private static final Comparator<QueueEntry> ENTRY_COMPARATOR = new Comparator<QueueEntry>() {
+        @Override
+        public int compare(QueueEntry leftEntry, QueueEntry rightEntry) {
+            if (leftEntry.mPriority != rightEntry.mPriority) {
+                return leftEntry.mPriority > rightEntry.mPriority ? -1 : 1;
+            }
+            if (leftEntry.mSequence != rightEntry.mSequence) {
+                return leftEntry.mSequence < rightEntry.mSequence ? -1 : 1;
+            }
+
+            return 0;
+        }
+    };
+
+    private static final Comparator<MangaLane> LANE_COMPARATOR = new Comparator<MangaLane>() {
+        @Override
+        public int compare(MangaLane leftLane, MangaLane rightLane) {
+            int leftPriority = leftLane.mEntries.first().mPriority;
+            int rightPriority = rightLane.mEntries.first().mPriority;
+
+            if (leftPriority != rightPriority) {
+                return leftPriority > rightPriority ? -1 : 1;
+            }
+            if (leftLane.mLastTurn != rightLane.mLastTurn) {
+                return leftLane.mLastTurn < rightLane.mLastTurn ? -1 : 1;
+            }
+            if (leftLane.mSequence != rightLane.mSequence) {
+                return leftLane.mSequence < rightLane.mSequence ? -1 : 1;
+            }
+
+            return 0;
+        }
+    };
+
+    private final TreeSet<MangaLane> mLanes;
+    private final Map<String, MangaLane> mParentUrlToLaneMap;
+    private final Map<Long, QueueEntry> mIdToEntryMap;
+    private final Set<Long> mRunningIds;
+
+    private long mSequence;
+    private long mTurn;
+
+    public DownloadQueue() {
+        mLanes = new TreeSet<MangaLane>(LANE_COMPARATOR);
+        mParentUrlToLaneMap = new HashMap<String, MangaLane>();
+        mIdToEntryMap = new HashMap<Long, QueueEntry>();
+        mRunningIds = new HashSet<Long>();
+    }
+
+    public synchronized void rebuild() {
+        clear();
+
+        Cursor nonCompletedCursor = QueryManager.queryNonCompletedDownloadChapters()
+                .toBlocking()
+                .single();
+
+        if (nonCompletedCursor != null) {
+            List<DownloadChapter> downloadChapters = QueryManager.toList(nonCompletedCursor, DownloadChapter.class);
+
+            for (DownloadChapter downloadChapter : downloadChapters) {
+                if (downloadChapter.getFlag() != DownloadUtils.FLAG_CANCELED) {
+                    offer(downloadChapter);
+                }
+            }
+        }
+    }
+
+    public synchronized void offer(DownloadChapter downloadChapter) {
+        if (downloadChapter == null || downloadChapter.getId() == null) {
+            return;
+        }
+        if (mIdToEntryMap.containsKey(downloadChapter.getId()) || mRunningIds.contains(downloadChapter.getId())) {
+            return;
+        }
+
+        QueueEntry newEntry = new QueueEntry(downloadChapter, downloadChapter.getPriority(), mSequence++);
+
+        MangaLane lane = mParentUrlToLaneMap.get(downloadChapter.getParentUrl());
+        if (lane == null) {
+            lane = new MangaLane(downloadChapter.getParentUrl(), mSequence++);
+            mParentUrlToLaneMap.put(lane.mParentUrl, lane);
+        } else {
+            mLanes.remove(lane);
+        }
+
+        lane.mEntries.add(newEntry);
+        mLanes.add(lane);
+
+        mIdToEntryMap.put(downloadChapter.getId(), newEntry);
+    }
+
+    public synchronized DownloadChapter poll() {
+        if (mLanes.isEmpty()) {
+            return null;
+        }
+
+        MangaLane lane = mLanes.pollFirst();
+        QueueEntry polledEntry = lane.mEntries.pollFirst();
+
+        lane.mLastTurn = ++mTurn;
+        if (lane.mEntries.isEmpty()) {
+            mParentUrlToLaneMap.remove(lane.mParentUrl);
+        } else {
+            mLanes.add(lane);
+        }
+
+        DownloadChapter downloadChapter = polledEntry.mDownloadChapter;
+        downloadChapter.setFlag(DownloadUtils.FLAG_RUNNING);
+
+        mIdToEntryMap.remove(downloadChapter.getId());
+        mRunningIds.add(downloadChapter.getId());
+
+        ContentValues updateValues = new ContentValues(1);
+        updateValues.put(ApplicationContract.DownloadChapter.COLUMN_FLAG, DownloadUtils.FLAG_RUNNING);
+
+        QueryManager.updateDownloadChapter(downloadChapter.getId(), updateValues)
+                .toBlocking()
+                .single();
+
+        return downloadChapter;
+    }
+
+    public synchronized boolean remove(Long downloadChapterId) {
+        mRunningIds.remove(downloadChapterId);
+
+        QueueEntry removedEntry = mIdToEntryMap.remove(downloadChapterId);
+        if (removedEntry == null) {
+            return false;
+        }
+
+        MangaLane lane = mParentUrlToLaneMap.get(removedEntry.mDownloadChapter.getParentUrl());
+        if (lane != null) {
+            mLanes.remove(lane);
+            lane.mEntries.remove(removedEntry);
+
+            if (lane.mEntries.isEmpty()) {
+                mParentUrlToLaneMap.remove(lane.mParentUrl);
+            } else {
+                mLanes.add(lane);
+            }
+        }
+
+        return true;
+    }
+
+    public synchronized boolean reprioritize(Long downloadChapterId, int priority) {
+        QueueEntry queuedEntry = mIdToEntryMap.get(downloadChapterId);
+        if (queuedEntry == null) {
+            return false;
+        }
+
+        remove(downloadChapterId);
+
+        queuedEntry.mDownloadChapter.setPriority(priority);
+        offer(queuedEntry.mDownloadChapter);
+
+        return true;
+    }
+
+    public synchronized boolean finish(Long downloadChapterId) {
+        return mRunningIds.remove(downloadChapterId);
+    }
+
+    public synchronized int getRunningCount() {
+        return mRunningIds.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return mIdToEntryMap.isEmpty();
+    }
+
+    public synchronized boolean isIdle() {
+        return mIdToEntryMap.isEmpty() && mRunningIds.isEmpty();
+    }
+
+    public synchronized void clear() {
+        mLanes.clear();
+        mParentUrlToLaneMap.clear();
+        mIdToEntryMap.clear();
+        mRunningIds.clear();
+    }
+
+    private static class QueueEntry {
+        private final DownloadChapter mDownloadChapter;
+        private final int mPriority;
+        private final long mSequence;
+
+        private QueueEntry(DownloadChapter downloadChapter, int priority, long sequence) {
+            mDownloadChapter = downloadChapter;
+            mPriority = priority;
+            mSequence = sequence;
+        }
+    }
+
+    private static class MangaLane {
+        private final String mParentUrl;
+        private final long mSequence;
+        private final TreeSet<QueueEntry> mEntries;
+
+        private long mLastTurn;
+
+        private MangaLane(String parentUrl, long sequence) {
+            mParentUrl = parentUrl;
+            mSequence = sequence;
+            mEntries = new TreeSet<QueueEntry>(ENTRY_COMPARATOR);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.aizoban.naitokenzai.controllers.downloads;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.controllers.networks.MangaService;
+import com.aizoban.naitokenzai.utils.DiskUtils;
+import com.aizoban.naitokenzai.utils.DownloadUtils;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.internal.http.HttpDate;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+public class DownloadScheduler {
+    public static final String TAG = DownloadScheduler.class.getSimpleName();
+
+    public static final int MAXIMUM_IN_FLIGHT_REQUESTS = 8;
+
+    public static final int MINIMUM_REQUESTS_PER_HOST = 1;
+    public static final int INITIAL_REQUESTS_PER_HOST = 2;
+    public static final int MAXIMUM_REQUESTS_PER_HOST = MangaService.MAXIMUM_REQUESTS_PER_HOST;
+
+    public static final long SLOW_REQUEST_THRESHOLD = 10 * 1000;
+
+    public static final int MAXIMUM_PAGE_ATTEMPTS = 5;
+    public static final long INITIAL_RETRY_DELAY = 1000;
+    public static final long MAXIMUM_RETRY_DELAY = 60 * 1000;
+
+    public static final int READER_BACKGROUND_REQUESTS = 1;
+    public static final long MAXIMUM_BACKGROUND_DEFERRAL = 15 * 1000;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    private static final int KEEP_ALIVE_TIME = 30;
+    private static final TimeUnit KEEP_ALIVE_TIME_UNIT = TimeUnit.SECONDS;
+
+    private static DownloadScheduler sInstance;
+
+    private Semaphore mInFlightPermits;
+    private Scheduler mPageScheduler;
+
+    private final Map<String, Integer> mHostToLimitMap;
+    private final Map<String, Integer> mHostToSuccessesMap;
+    private final Map<String, Integer> mHostToActiveMap;
+
+    private final Object mForegroundLock;
+    private int mForegroundRequests;
+    private int mActiveReaders;
+    private int mBackgroundRequests;
+
+    private DownloadScheduler() {
+        mInFlightPermits = new Semaphore(MAXIMUM_IN_FLIGHT_REQUESTS, true);
+
+        ThreadPoolExecutor pageThreadPoolExecutor = new ThreadPoolExecutor(
+                MAXIMUM_IN_FLIGHT_REQUESTS,
+                MAXIMUM_IN_FLIGHT_REQUESTS,
+                KEEP_ALIVE_TIME,
+                KEEP_ALIVE_TIME_UNIT,
+                new LinkedBlockingQueue<Runnable>()
+        );
+        pageThreadPoolExecutor.allowCoreThreadTimeOut(true);
+
+        mPageScheduler = Schedulers.from(pageThreadPoolExecutor);
+
+        mHostToLimitMap = new HashMap<String, Integer>();
+        mHostToSuccessesMap = new HashMap<String, Integer>();
+        mHostToActiveMap = new HashMap<String, Integer>();
+
+        mForegroundLock = new Object();
+    }
+
+    public static synchronized DownloadScheduler getInstance() {
+        if (sInstance == null) {
+            sInstance = new DownloadScheduler();
+        }
+
+        return sInstance;
+    }
+
+    public void onReaderResumed() {
+        synchronized (mForegroundLock) {
+            mActiveReaders++;
+        }
+    }
+
+    public void onReaderPaused() {
+        synchronized (mForegroundLock) {
+            mActiveReaders = Math.max(0, mActiveReaders - 1);
+            mForegroundLock.notifyAll();
+        }
+    }
+
+    public void beginForegroundRequest() {
+        synchronized (mForegroundLock) {
+            mForegroundRequests++;
+        }
+    }
+
+    public void endForegroundRequest() {
+        synchronized (mForegroundLock) {
+            mForegroundRequests = Math.max(0, mForegroundRequests - 1);
+            mForegroundLock.notifyAll();
+        }
+    }
+
+    public Observable<File> downloadPage(final String url, final String directory, final String name) {
+        final AtomicInteger attempts = new AtomicInteger(0);
+
+        return Observable.create(new Observable.OnSubscribe<File>() {
+            @Override
+            public void call(Subscriber<? super File> subscriber) {
+                String host = getHost(url);
+                boolean isHostTurnAcquired = false;
+                boolean isTurnAcquired = false;
+                boolean isPermitAcquired = false;
+
+                try {
+                    awaitHostTurn(host);
+                    isHostTurnAcquired = true;
+
+                    awaitBackgroundTurn();
+                    isTurnAcquired = true;
+
+                    mInFlightPermits.acquire();
+                    isPermitAcquired = true;
+
+                    File partialFile = new File(directory, name + DownloadUtils.PARTIAL_FILE_EXTENSION);
+                    File entityTagFile = new File(directory, name + DownloadUtils.PARTIAL_FILE_EXTENSION + DownloadUtils.ENTITY_TAG_FILE_EXTENSION);
+
+                    long partialLength = partialFile.exists() ? partialFile.length() : 0;
+                    String entityTag = partialLength > 0 ? DiskUtils.readStringFromFile(entityTagFile) : null;
+                    boolean isResumable = isStrongEntityTag(entityTag);
+
+                    long startTime = SystemClock.elapsedRealtime();
+
+                    Response response;
+                    try {
+                        response = MangaService.getInstance()
+                                .getRangeResponse(url, isResumable ? partialLength : 0, isResumable ? entityTag : null)
+                                .toBlocking()
+                                .single();
+                    } catch (Throwable e) {
+                        onRequestFailed(host);
+                        throw e;
+                    }
+
+                    if (!response.isSuccessful()) {
+                        MangaService.closeQuietly(response);
+
+                        if (response.code() == HTTP_TOO_MANY_REQUESTS || response.code() == HTTP_SERVICE_UNAVAILABLE) {
+                            onRequestFailed(host);
+
+                            throw new ThrottledException("Throttled with Code " + response.code() + " for " + url, getRetryDelay(response, attempts.get()));
+                        } else if (response.code() == HTTP_RANGE_NOT_SATISFIABLE) {
+                            DiskUtils.deleteFiles(partialFile);
+                            DiskUtils.deleteFiles(entityTagFile);
+                        }
+
+                        throw new IOException("Unexpected Code " + response.code() + " for " + url);
+                    }
+
+                    File pageFile;
+                    try {
+                        pageFile = savePartialResponse(response, partialFile, entityTagFile, partialLength, isResumable, name);
+                    } finally {
+                        MangaService.closeQuietly(response);
+                    }
+
+                    onRequestSucceeded(host, SystemClock.elapsedRealtime() - startTime);
+
+                    subscriber.onNext(pageFile);
+                    subscriber.onCompleted();
+                } catch (Throwable e) {
+                    subscriber.onError(e);
+                } finally {
+                    if (isPermitAcquired) {
+                        mInFlightPermits.release();
+                    }
+                    if (isTurnAcquired) {
+                        finishBackgroundTurn();
+                    }
+                    if (isHostTurnAcquired) {
+                        finishHostTurn(host);
+                    }
+                }
+            }
+        })
+                .subscribeOn(mPageScheduler)
+                .retryWhen(new Func1<Observable<? extends Throwable>, Observable<?>>() {
+                    @Override
+                    public Observable<?> call(Observable<? extends Throwable> errors) {
+                        return errors.flatMap(new Func1<Throwable, Observable<Long>>() {
+                            @Override
+                            public Observable<Long> call(Throwable throwable) {
+                                if (throwable instanceof ThrottledException && attempts.incrementAndGet() < MAXIMUM_PAGE_ATTEMPTS) {
+                                    return Observable.timer(((ThrottledException) throwable).getRetryDelay(), TimeUnit.MILLISECONDS);
+                                }
+
+                                return Observable.error(throwable);
+                            }
+                        });
+                    }
+                });
+    }
+
+    private synchronized void awaitHostTurn(String host) throws InterruptedException {
+        if (!mHostToLimitMap.containsKey(host)) {
+            setLimitForHost(host, INITIAL_REQUESTS_PER_HOST);
+        }
+
+        while (getActiveForHost(host) >= getLimitForHost(host)) {
+            wait();
+        }
+
+        mHostToActiveMap.put(host, getActiveForHost(host) + 1);
+    }
+
+    private synchronized void finishHostTurn(String host) {
+        mHostToActiveMap.put(host, Math.max(0, getActiveForHost(host) - 1));
+
+        notifyAll();
+    }
+
+    private void awaitBackgroundTurn() throws InterruptedException {
+        synchronized (mForegroundLock) {
+            long deferralDeadline = SystemClock.elapsedRealtime() + MAXIMUM_BACKGROUND_DEFERRAL;
+
+            while (isBackgroundDeferred()) {
+                long remainingDeferral = deferralDeadline - SystemClock.elapsedRealtime();
+                if (remainingDeferral <= 0) {
+                    break;
+                }
+
+                mForegroundLock.wait(remainingDeferral);
+            }
+
+            mBackgroundRequests++;
+        }
+    }
+
+    private void finishBackgroundTurn() {
+        synchronized (mForegroundLock) {
+            mBackgroundRequests--;
+            mForegroundLock.notifyAll();
+        }
+    }
+
+    private boolean isBackgroundDeferred() {
+        if (mForegroundRequests > 0) {
+            return true;
+        }
+
+        return mActiveReaders > 0 && mBackgroundRequests >= READER_BACKGROUND_REQUESTS;
+    }
+
+    private static File savePartialResponse(Response response, File partialFile, File entityTagFile, long partialLength, boolean isResumable, String name) throws IOException {
+        boolean isAppending = false;
+
+        if (response.code() == HTTP_PARTIAL_CONTENT) {
+            if (!isResumable || getContentRangeStart(response) != partialLength) {
+                DiskUtils.deleteFiles(partialFile);
+                DiskUtils.deleteFiles(entityTagFile);
+
+                throw new IOException("Unexpected Content-Range " + response.header("Content-Range") + " for " + partialFile.getName());
+            }
+
+            isAppending = true;
+        } else {
+            String entityTag = response.header("ETag");
+            if (isStrongEntityTag(entityTag)) {
+                DiskUtils.writeStringToFile(entityTag, entityTagFile);
+            } else {
+                DiskUtils.deleteFiles(entityTagFile);
+            }
+        }
+
+        MediaType contentType = response.body().contentType();
+        if (contentType == null) {
+            throw new IOException("Missing Content-Type for " + partialFile.getName());
+        }
+
+        DiskUtils.writeSourceToFile(response.body().source(), partialFile, isAppending);
+
+        File pageFile = DiskUtils.moveFile(partialFile, new File(partialFile.getParentFile(), name + "." + contentType.subtype()));
+
+        DiskUtils.deleteFiles(entityTagFile);
+
+        return pageFile;
+    }
+
+    private static long getContentRangeStart(Response response) {
+        String contentRange = response.header("Content-Range");
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return -1;
+        }
+
+        int rangeSeparator = contentRange.indexOf('-');
+        if (rangeSeparator < 0) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(contentRange.substring("bytes ".length(), rangeSeparator).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isStrongEntityTag(String entityTag) {
+        return entityTag != null && entityTag.startsWith("\"") && entityTag.length() > 2;
+    }
+
+    private synchronized void onRequestSucceeded(String host, long elapsedTime) {
+        if (elapsedTime >= SLOW_REQUEST_THRESHOLD) {
+            mHostToSuccessesMap.put(host, 0);
+            return;
+        }
+
+        int currentLimit = getLimitForHost(host);
+        int successes = getSuccessesForHost(host) + 1;
+
+        if (successes >= currentLimit && currentLimit < MAXIMUM_REQUESTS_PER_HOST) {
+            setLimitForHost(host, currentLimit + 1);
+            successes = 0;
+        }
+
+        mHostToSuccessesMap.put(host, successes);
+    }
+
+    private synchronized void onRequestFailed(String host) {
+        int currentLimit = getLimitForHost(host);
+
+        setLimitForHost(host, Math.max(MINIMUM_REQUESTS_PER_HOST, currentLimit / 2));
+        mHostToSuccessesMap.put(host, 0);
+    }
+
+    private int getLimitForHost(String host) {
+        Integer limit = mHostToLimitMap.get(host);
+        if (limit != null) {
+            return limit;
+        }
+
+        return INITIAL_REQUESTS_PER_HOST;
+    }
+
+    private int getActiveForHost(String host) {
+        Integer active = mHostToActiveMap.get(host);
+        if (active != null) {
+            return active;
+        }
+
+        return 0;
+    }
+
+    private int getSuccessesForHost(String host) {
+        Integer successes = mHostToSuccessesMap.get(host);
+        if (successes != null) {
+            return successes;
+        }
+
+        return 0;
+    }
+
+    private void setLimitForHost(String host, int limit) {
+        if (limit == getLimitForHost(host) && mHostToLimitMap.containsKey(host)) {
+            return;
+        }
+
+        mHostToLimitMap.put(host, limit);
+
+        notifyAll();
+
+        if (BuildConfig.DEBUG) {
+            Log.d(TAG, "Requests for " + host + " Limited to " + limit);
+        }
+    }
+
+    private static long getRetryDelay(Response response, int attempt) {
+        long retryDelay = INITIAL_RETRY_DELAY << Math.min(attempt, 16);
+
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                retryDelay = Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException e) {
+                Date retryDate = HttpDate.parse(retryAfter.trim());
+                if (retryDate != null) {
+                    retryDelay = retryDate.getTime() - System.currentTimeMillis();
+                }
+            }
+        }
+
+        return Math.max(0, Math.min(retryDelay, MAXIMUM_RETRY_DELAY));
+    }
+
+    private static String getHost(String url) {
+        String host = Uri.parse(url).getHost();
+
+        return host != null ? host : url;
+    }
+
+    private static class ThrottledException extends IOException {
+        private final long mRetryDelay;
+
+        private ThrottledException(String message, long retryDelay) {
+            super(message);
+
+            mRetryDelay = retryDelay;
+        }
+
+        public long getRetryDelay() {
+            return mRetryDelay;
+        }
+    }
+}
@@ -2,38 +2,38 @@ package com.aizoban.naitokenzai.controllers.downloads;
 
 import android.app.PendingIntent;
 import android.app.Service;
-import android.content.Context;
+import android.content.ContentValues;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.net.ConnectivityManager;
-import android.net.NetworkInfo;
 import android.os.Environment;
 import android.os.IBinder;
 import android.os.PowerManager;
 import android.support.v4.app.NotificationCompat;
 import android.support.v4.app.TaskStackBuilder;
+import android.util.Log;
 
 import com.aizoban.naitokenzai.BuildConfig;
 import com.aizoban.naitokenzai.R;
 import com.aizoban.naitokenzai.controllers.NaitoKenzaiManager;
 import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.caches.StorageGovernor;
+import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
 import com.aizoban.naitokenzai.controllers.databases.ApplicationSQLiteOpenHelper;
 import com.aizoban.naitokenzai.controllers.events.DownloadChapterUpdateEvent;
-import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
-import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
 import com.aizoban.naitokenzai.utils.DiskUtils;
 import com.aizoban.naitokenzai.utils.DownloadUtils;
 import com.aizoban.naitokenzai.utils.NavigationUtils;
+import com.aizoban.naitokenzai.utils.NetworkUtils;
 import com.aizoban.naitokenzai.utils.PreferenceUtils;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.aizoban.naitokenzai.views.activities.MainActivity;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -45,9 +45,7 @@ import rx.Subscription;
 import rx.android.observables.AndroidObservable;
 import rx.functions.Action0;
 import rx.functions.Action1;
-import rx.functions.Func1;
 import rx.schedulers.Schedulers;
-import rx.subjects.PublishSubject;
 
 public class DownloadService extends Service implements Observer<File> {
     public static final String TAG = DownloadService.class.getSimpleName();
@@ -57,6 +55,7 @@ public class DownloadService extends Service implements Observer<File> {
     public static final String INTENT_START_DOWNLOAD = TAG + ":" + "StartDownloadIntent";
     public static final String INTENT_STOP_DOWNLOAD = TAG + ":" + "StopDownloadIntent";
     public static final String INTENT_RESTART_DOWNLOAD = TAG + ":" + "RestartDownloadIntent";
+    public static final String INTENT_PRIORITIZE_DOWNLOAD = TAG + ":" + "PrioritizeDownloadIntent";
 
     private final static int DOWNLOAD_NOTIFICATION_ID = 1337;
 
@@ -71,10 +70,9 @@ public class DownloadService extends Service implements Observer<File> {
 
     private ThreadPoolExecutor mDownloadThreadPoolExecutor;
 
-    private PublishSubject<DownloadChapter> mDownloadChapterPublishSubject;
+    private DownloadQueue mDownloadQueue;
 
     private ConcurrentHashMap<String, Subscription> mDownloadUrlToSubscriptionMap;
-    private Subscription mDownloadChapterPublishSubjectSubscription;
     private Subscription mNetworkChangeBroadcastSubscription;
 
     private boolean mIsInitialized;
@@ -87,6 +85,7 @@ public class DownloadService extends Service implements Observer<File> {
         handleStartDownloadIntent(intent);
         handleStopDownloadIntent(intent);
         handleRestartDownloadIntent(intent);
+        handlePrioritizeDownloadIntent(intent);
 
         return START_STICKY;
     }
@@ -114,10 +113,7 @@ public class DownloadService extends Service implements Observer<File> {
 
     @Override
     public void onCompleted() {
-        if (QueryManager.queryShouldDownloadServiceStop().toBlocking().single()) {
-            stopForeground(false);
-            stopSelf();
-        }
+        // Do Nothing.
     }
 
     @Override
@@ -139,7 +135,7 @@ public class DownloadService extends Service implements Observer<File> {
 
         initializeWakeLock();
         initializeThreadPoolExecutor();
-        initializeDownloadChapterPublishSubject();
+        initializeDownloadQueue();
         initializeNetworkChangeBroadcastObservable();
         initializeNotification();
 
@@ -167,24 +163,11 @@ public class DownloadService extends Service implements Observer<File> {
         );
     }
 
-    private void initializeDownloadChapterPublishSubject() {
+    private void initializeDownloadQueue() {
         mDownloadUrlToSubscriptionMap = new ConcurrentHashMap<String, Subscription>();
 
-        mDownloadChapterPublishSubject = PublishSubject.create();
-        mDownloadChapterPublishSubjectSubscription = mDownloadChapterPublishSubject
-                .filter(new Func1<DownloadChapter, Boolean>() {
-                    @Override
-                    public Boolean call(DownloadChapter downloadChapter) {
-                        return QueryManager.queryAllowDownloadServiceToPublishDownloadChapter(downloadChapter).toBlocking().single();
-                    }
-                })
-                .subscribeOn(Schedulers.io())
-                .subscribe(new Action1<DownloadChapter>() {
-                    @Override
-                    public void call(DownloadChapter allowedChapter) {
-                        startDownloadToSubscriptionMap(allowedChapter);
-                    }
-                });
+        mDownloadQueue = new DownloadQueue();
+        mDownloadQueue.rebuild();
     }
 
     private void initializeNetworkChangeBroadcastObservable() {
@@ -227,9 +210,7 @@ public class DownloadService extends Service implements Observer<File> {
                             finalSubscription = null;
                         }
 
-                        if (isNetworkAvailableForDownloads()) {
-                            queueDownloadChapters();
-                        }
+                        onDownloadChapterFinished(downloadChapter);
                     }
                 })
                 .subscribeOn(Schedulers.from(mDownloadThreadPoolExecutor))
@@ -238,6 +219,40 @@ public class DownloadService extends Service implements Observer<File> {
         mDownloadUrlToSubscriptionMap.put(hashKey, newSubscription);
     }
 
+    private synchronized void onDownloadChapterFinished(DownloadChapter downloadChapter) {
+        if (mIsStopping || !mDownloadQueue.finish(downloadChapter.getId())) {
+            return;
+        }
+
+        DownloadChapter finishedDownloadChapter = null;
+
+        Cursor downloadChapterCursor = QueryManager.queryDownloadChapterFromRequest(new RequestWrapper(downloadChapter.getSource(), downloadChapter.getUrl()))
+                .toBlocking()
+                .single();
+        if (downloadChapterCursor != null) {
+            try {
+                finishedDownloadChapter = QueryManager.toObject(downloadChapterCursor, DownloadChapter.class);
+            } finally {
+                downloadChapterCursor.close();
+            }
+        }
+
+        if (finishedDownloadChapter != null && finishedDownloadChapter.getFlag() != DownloadUtils.FLAG_COMPLETED) {
+            mDownloadQueue.offer(finishedDownloadChapter);
+        }
+
+        if (isNetworkAvailableForDownloads()) {
+            queueDownloadChapters();
+        }
+
+        if (mDownloadQueue.isIdle()) {
+            StorageGovernor.getInstance().requestTrim();
+
+            stopForeground(false);
+            stopSelf();
+        }
+    }
+
     private void destoryAllSubscriptions() {
         if (mDownloadUrlToSubscriptionMap != null) {
             for (Subscription downloadSubscription : mDownloadUrlToSubscriptionMap.values()) {
@@ -247,10 +262,6 @@ public class DownloadService extends Service implements Observer<File> {
                 }
             }
         }
-        if (mDownloadChapterPublishSubjectSubscription != null) {
-            mDownloadChapterPublishSubjectSubscription.unsubscribe();
-            mDownloadChapterPublishSubjectSubscription = null;
-        }
         if (mNetworkChangeBroadcastSubscription != null) {
             mNetworkChangeBroadcastSubscription.unsubscribe();
             mNetworkChangeBroadcastSubscription = null;
@@ -260,56 +271,79 @@ public class DownloadService extends Service implements Observer<File> {
     private synchronized void handleQueueDownloadIntent(Intent queueDownloadIntent) {
         if (queueDownloadIntent != null) {
             if (queueDownloadIntent.hasExtra(INTENT_QUEUE_DOWNLOAD)) {
-                ArrayList<Chapter> chaptersToDownload = queueDownloadIntent.getParcelableArrayListExtra(INTENT_QUEUE_DOWNLOAD);
-                if (chaptersToDownload != null) {
-                    ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-                    SQLiteDatabase applicationDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
+                long[] chapterIdsToDownload = queueDownloadIntent.getLongArrayExtra(INTENT_QUEUE_DOWNLOAD);
 
-                    applicationDatabase.beginTransaction();
-                    try {
-                        for (Chapter chapterToDownload : chaptersToDownload) {
-                            if (chapterToDownload != null) {
-                                DownloadChapter downloadChapter = DefaultFactory.DownloadChapter.constructDefault();
-                                downloadChapter.setSource(chapterToDownload.getSource());
-                                downloadChapter.setUrl(chapterToDownload.getUrl());
-                                downloadChapter.setParentUrl(chapterToDownload.getParentUrl());
-                                downloadChapter.setName(chapterToDownload.getName());
-
-                                boolean isExternalStorage = PreferenceUtils.isExternalStorage();
-                                if (isExternalStorage) {
-                                    File externalDirectory = Environment.getExternalStorageDirectory();
-                                    File generalDirectory = new File(externalDirectory, getPackageName());
-                                    File sourceDirectory = new File(generalDirectory, downloadChapter.getSource());
-                                    File chapterDirectory = new File(sourceDirectory, downloadChapter.getName());
-
-                                    downloadChapter.setDirectory(chapterDirectory.getAbsolutePath());
-                                } else {
-                                    File internalDirectory = getApplicationContext().getFilesDir();
-                                    File generalDirectory = new File(internalDirectory, "downloads");
-                                    File sourceDirectory = new File(generalDirectory, downloadChapter.getSource());
-                                    File chapterDirectory = new File(sourceDirectory, downloadChapter.getName());
-
-                                    downloadChapter.setDirectory(chapterDirectory.getAbsolutePath());
+                queueDownloadIntent.removeExtra(INTENT_QUEUE_DOWNLOAD);
+
+                if (chapterIdsToDownload == null || chapterIdsToDownload.length == 0) {
+                    if (!mIsInitialized) {
+                        stopSelf();
+                    }
+                    return;
+                }
+
+                QueryManager.addDownloadChaptersFromChapterIds(chapterIdsToDownload, resolveDownloadDirectory())
+                        .subscribeOn(Schedulers.io())
+                        .subscribe(new Observer<Integer>() {
+                            @Override
+                            public void onCompleted() {
+                                EventBus.getDefault().post(new DownloadChapterUpdateEvent());
+
+                                onDownloadChaptersQueued();
+                            }
+
+                            @Override
+                            public void onError(Throwable e) {
+                                if (BuildConfig.DEBUG) {
+                                    e.printStackTrace();
                                 }
 
-                                downloadChapter.setFlag(DownloadUtils.FLAG_PENDING);
+                                onDownloadChaptersQueued();
+                            }
 
-                                QueryManager.putObjectToApplicationDatabase(downloadChapter);
+                            @Override
+                            public void onNext(Integer amountQueued) {
+                                if (BuildConfig.DEBUG) {
+                                    Log.d(TAG, "Queued " + amountQueued + " Download Chapters");
+                                }
                             }
-                        }
-                        applicationDatabase.setTransactionSuccessful();
-                    } finally {
-                        applicationDatabase.endTransaction();
+                        });
+            }
+        }
+    }
+
+    private synchronized void onDownloadChaptersQueued() {
+        if (mIsInitialized && !mIsStopping) {
+            Cursor nonCompletedCursor = QueryManager.queryNonCompletedDownloadChapters()
+                    .toBlocking()
+                    .single();
+
+            if (nonCompletedCursor != null) {
+                for (DownloadChapter downloadChapter : QueryManager.toList(nonCompletedCursor, DownloadChapter.class)) {
+                    if (downloadChapter.getFlag() == DownloadUtils.FLAG_PENDING) {
+                        mDownloadQueue.offer(downloadChapter);
                     }
                 }
+            }
 
-                EventBus.getDefault().post(new DownloadChapterUpdateEvent());
+            if (isNetworkAvailableForDownloads()) {
+                queueDownloadChapters();
+            }
+        } else {
+            stopForeground(false);
+            stopSelf();
+        }
+    }
 
-                queueDownloadIntent.removeExtra(INTENT_QUEUE_DOWNLOAD);
+    private File resolveDownloadDirectory() {
+        if (PreferenceUtils.isExternalStorage()) {
+            File externalDirectory = Environment.getExternalStorageDirectory();
 
-                stopForeground(false);
-                stopSelf();
-            }
+            return new File(externalDirectory, getPackageName());
+        } else {
+            File internalDirectory = getApplicationContext().getFilesDir();
+
+            return new File(internalDirectory, "downloads");
         }
     }
 
@@ -326,6 +360,8 @@ public class DownloadService extends Service implements Observer<File> {
                         for (DownloadChapter downloadChapter : downloadChaptersToCancel) {
                             if (downloadChapter != null) {
                                 if (mIsInitialized) {
+                                    mDownloadQueue.remove(downloadChapter.getId());
+
                                     String hashKey = DiskUtils.hashKeyForDisk(downloadChapter.getUrl());
                                     if (mDownloadUrlToSubscriptionMap.containsKey(hashKey)) {
                                         Subscription currentSubscription = mDownloadUrlToSubscriptionMap.remove(hashKey);
@@ -337,9 +373,6 @@ public class DownloadService extends Service implements Observer<File> {
                                 DiskUtils.deleteFiles(new File(downloadChapter.getDirectory()));
 
                                 QueryManager.deleteObjectToApplicationDatabase(downloadChapter);
-                                QueryManager.deleteDownloadPagesOfDownloadChapter(new RequestWrapper(downloadChapter.getSource(), downloadChapter.getUrl()))
-                                        .toBlocking()
-                                        .single();
                             }
                         }
                         sqLiteDatabase.setTransactionSuccessful();
@@ -357,7 +390,7 @@ public class DownloadService extends Service implements Observer<File> {
                         queueDownloadChapters();
                     }
 
-                    if (QueryManager.queryShouldDownloadServiceStop().toBlocking().single()) {
+                    if (mDownloadQueue.isIdle()) {
                         stopForeground(false);
                         stopSelf();
                     }
@@ -369,6 +402,52 @@ public class DownloadService extends Service implements Observer<File> {
         }
     }
 
+    private synchronized void handlePrioritizeDownloadIntent(Intent prioritizeDownloadIntent) {
+        if (prioritizeDownloadIntent != null) {
+            if (prioritizeDownloadIntent.hasExtra(INTENT_PRIORITIZE_DOWNLOAD)) {
+                ArrayList<DownloadChapter> downloadChaptersToPrioritize = prioritizeDownloadIntent.getParcelableArrayListExtra(INTENT_PRIORITIZE_DOWNLOAD);
+                if (downloadChaptersToPrioritize != null) {
+                    ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
+                    SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
+
+                    sqLiteDatabase.beginTransaction();
+                    try {
+                        for (DownloadChapter downloadChapter : downloadChaptersToPrioritize) {
+                            if (downloadChapter != null) {
+                                ContentValues updateValues = new ContentValues(1);
+                                updateValues.put(ApplicationContract.DownloadChapter.COLUMN_PRIORITY, downloadChapter.getPriority());
+
+                                QueryManager.updateDownloadChapter(downloadChapter.getId(), updateValues)
+                                        .toBlocking()
+                                        .single();
+
+                                if (mIsInitialized) {
+                                    mDownloadQueue.reprioritize(downloadChapter.getId(), downloadChapter.getPriority());
+                                }
+                            }
+                        }
+                        sqLiteDatabase.setTransactionSuccessful();
+                    } finally {
+                        sqLiteDatabase.endTransaction();
+                    }
+                }
+
+                EventBus.getDefault().post(new DownloadChapterUpdateEvent());
+
+                prioritizeDownloadIntent.removeExtra(INTENT_PRIORITIZE_DOWNLOAD);
+
+                if (mIsInitialized) {
+                    if (isNetworkAvailableForDownloads()) {
+                        queueDownloadChapters();
+                    }
+                } else {
+                    stopForeground(false);
+                    stopSelf();
+                }
+            }
+        }
+    }
+
     private synchronized void handleStartDownloadIntent(Intent startDownloadIntent) {
         if (startDownloadIntent != null) {
             if (startDownloadIntent.hasExtra(INTENT_START_DOWNLOAD)) {
@@ -382,7 +461,7 @@ public class DownloadService extends Service implements Observer<File> {
                     queueDownloadChapters();
                 }
 
-                if (QueryManager.queryShouldDownloadServiceStop().toBlocking().single()) {
+                if (mDownloadQueue.isIdle()) {
                     stopForeground(false);
                     stopSelf();
                 }
@@ -397,6 +476,10 @@ public class DownloadService extends Service implements Observer<File> {
 
                 destoryAllSubscriptions();
 
+                if (mDownloadQueue != null) {
+                    mDownloadQueue.clear();
+                }
+
                 pauseDownloadChapters();
 
                 EventBus.getDefault().post(new DownloadChapterUpdateEvent());
@@ -427,92 +510,29 @@ public class DownloadService extends Service implements Observer<File> {
             return;
         }
 
-        if (mDownloadChapterPublishSubject != null) {
-            ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-            SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
-
-            int dequeueLimit = DOWNLOAD_MAXIMUM_POOL_SIZE;
-
-            Cursor runningCursor = QueryManager.queryRunningDownloadChapters()
-                    .toBlocking()
-                    .single();
+        if (mDownloadQueue != null) {
+            boolean isDequeued = false;
 
-            if (runningCursor != null) {
-                dequeueLimit -= runningCursor.getCount();
+            while (mDownloadQueue.getRunningCount() < DOWNLOAD_MAXIMUM_POOL_SIZE && !mDownloadQueue.isEmpty()) {
+                startDownloadToSubscriptionMap(mDownloadQueue.poll());
 
-                runningCursor.close();
-                runningCursor = null;
+                isDequeued = true;
             }
 
-            if (dequeueLimit > 0) {
-                Cursor availableDownloadChapterCursor = QueryManager.queryAvailableDownloadChapters(dequeueLimit)
-                        .toBlocking()
-                        .single();
-
-                if (availableDownloadChapterCursor != null && availableDownloadChapterCursor.getCount() != 0) {
-                    List<DownloadChapter> downloadChapters = QueryManager.toList(availableDownloadChapterCursor, DownloadChapter.class);
-
-                    if (downloadChapters != null) {
-                        for (DownloadChapter currentDownloadChapter : downloadChapters) {
-                            currentDownloadChapter.setFlag(DownloadUtils.FLAG_RUNNING);
-
-                            QueryManager.putObjectToApplicationDatabase(currentDownloadChapter);
-                        }
-
-                        for (DownloadChapter streamDownloadChapter : downloadChapters) {
-                            mDownloadChapterPublishSubject.onNext(streamDownloadChapter);
-                        }
-
-                        EventBus.getDefault().post(new DownloadChapterUpdateEvent());
-                    }
-                }
+            if (isDequeued) {
+                EventBus.getDefault().post(new DownloadChapterUpdateEvent());
             }
         }
     }
 
     private synchronized void pauseDownloadChapters() {
-        Cursor nonCompletedCursor = QueryManager.queryNonCompletedDownloadChapters()
+        QueryManager.pauseNonCompletedDownloadChapters()
                 .toBlocking()
                 .single();
-
-        if (nonCompletedCursor != null) {
-            List<DownloadChapter> downloadChapters = QueryManager.toList(nonCompletedCursor, DownloadChapter.class);
-
-            ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-            SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
-            sqLiteDatabase.beginTransaction();
-            try {
-                for (DownloadChapter downloadChapter : downloadChapters) {
-                    downloadChapter.setFlag(DownloadUtils.FLAG_PAUSED);
-
-                    QueryManager.putObjectToApplicationDatabase(downloadChapter);
-                }
-                sqLiteDatabase.setTransactionSuccessful();
-            } finally {
-                sqLiteDatabase.endTransaction();
-            }
-        }
     }
 
     private boolean isNetworkAvailableForDownloads() {
-        boolean isWiFiOnly = PreferenceUtils.isWiFiOnly();
-
-        ConnectivityManager connectivityManager = (ConnectivityManager)getSystemService(Context.CONNECTIVITY_SERVICE);
-
-        NetworkInfo activeNetwork = connectivityManager.getActiveNetworkInfo();
-        boolean isConnected = activeNetwork != null && activeNetwork.isConnectedOrConnecting();
-
-        if (isConnected) {
-            if (isWiFiOnly) {
-                if (activeNetwork.getType() == ConnectivityManager.TYPE_WIFI) {
-                    return true;
-                }
-            } else {
-                return true;
-            }
-        }
-
-        return false;
+        return NetworkUtils.isNetworkAvailableForDownloads(this);
     }
 
     private void initializeNotification() {
@@ -0,0 +1,15 @@
+package com.aizoban.naitokenzai.controllers.events;
+
+import java.util.Map;
+
+public class DownloadChapterProgressEvent {
+    private Map<Long, Integer> mCurrentPages;
+
+    public DownloadChapterProgressEvent(Map<Long, Integer> currentPages) {
+        mCurrentPages = currentPages;
+    }
+
+    public Map<Long, Integer> getCurrentPages() {
+        return mCurrentPages;
+    }
+}
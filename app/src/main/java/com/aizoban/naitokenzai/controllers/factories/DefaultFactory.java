@@ -49,6 +49,7 @@ public class DefaultFactory {
         public static final int DEFAULT_CURRENT_PAGE = 0;
         public static final int DEFAULT_TOTAL_PAGES = 0;
         public static final int DEFAULT_FLAG = DownloadUtils.FLAG_FAILED;
+        public static final int DEFAULT_PRIORITY = 0;
 
         private DownloadChapter() {}
 
@@ -66,6 +67,7 @@ public class DefaultFactory {
             newInstance.setCurrentPage(DEFAULT_CURRENT_PAGE);
             newInstance.setTotalPages(DEFAULT_TOTAL_PAGES);
             newInstance.setFlag(DEFAULT_FLAG);
+            newInstance.setPriority(DEFAULT_PRIORITY);
 
             return newInstance;
         }
@@ -235,6 +237,7 @@ public class DefaultFactory {
         public static final String DEFAULT_NAME = null;
         public static final String DEFAULT_STATUS = SearchUtils.STATUS_ALL;
         public static final String DEFAULT_ORDER_BY = SearchUtils.ORDER_BY_RANK;
+        public static final String DEFAULT_GENRE_MATCH = SearchUtils.GENRE_MATCH_ALL;
 
         private SearchCatalogueWrapper() {}
 
@@ -245,6 +248,8 @@ public class DefaultFactory {
             newInstance.setStatusArgs(DEFAULT_STATUS);
             newInstance.setOrderByArgs(DEFAULT_ORDER_BY);
             newInstance.setGenresArgs(new ArrayList<String>());
+            newInstance.setExcludedGenresArgs(new ArrayList<String>());
+            newInstance.setGenreMatchArgs(DEFAULT_GENRE_MATCH);
 
             return newInstance;
         }
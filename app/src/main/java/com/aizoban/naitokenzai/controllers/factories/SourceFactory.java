@@ -8,6 +8,9 @@ import com.aizoban.naitokenzai.controllers.sources.Source;
 import com.aizoban.naitokenzai.controllers.sources.Spanish_MangaHere;
 import com.aizoban.naitokenzai.utils.PreferenceUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class SourceFactory {
     public static Source constructSourceFromPreferences() {
         String sourceName = PreferenceUtils.getSource();
@@ -51,6 +54,17 @@ public class SourceFactory {
         return currentSource;
     }
 
+    public static List<Source> constructAllSources() {
+        List<Source> allSources = new ArrayList<Source>();
+        allSources.add(new English_MangaEden());
+        allSources.add(new English_MangaHere());
+        allSources.add(new English_MangaReader());
+        allSources.add(new Italian_MangaEden());
+        allSources.add(new Spanish_MangaHere());
+
+        return allSources;
+    }
+
     public static Source constructSourceFromUrl(String url) {
         Source currentSource = null;
 
@@ -0,0 +1,168 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Response;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+import okio.Buffer;
+import okio.BufferedSource;
+
+public class HtmlStreamExtractor {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int MAXIMUM_TAG_LENGTH = 4096;
+    private static final long READ_SIZE = 8192;
+
+    public static String extractImageUrl(Response response, String imageId) throws IOException {
+        BufferedSource source = response.body().source();
+        Buffer consumedBuffer = new Buffer();
+
+        try {
+            String imageUrl = extractAttributeFromElement(source, "img", imageId, "src", consumedBuffer);
+            if (imageUrl != null) {
+                return imageUrl;
+            }
+
+            consumedBuffer.writeAll(source);
+        } finally {
+            source.close();
+        }
+
+        MediaType contentType = response.body().contentType();
+        Charset charset = contentType != null ? contentType.charset(UTF_8) : UTF_8;
+
+        Element imageElement = Jsoup.parse(consumedBuffer.readString(charset), response.request().urlString()).getElementById(imageId);
+        if (imageElement == null) {
+            throw new IOException("Image Element Not Found: " + imageId);
+        }
+
+        return imageElement.attr("src");
+    }
+
+    public static String extractAttributeFromElement(BufferedSource source, String tagName, String id, String attribute) throws IOException {
+        return extractAttributeFromElement(source, tagName, id, attribute, null);
+    }
+
+    private static String extractAttributeFromElement(BufferedSource source, String tagName, String id, String attribute, Buffer consumedBuffer) throws IOException {
+        byte[] tagBuffer = new byte[MAXIMUM_TAG_LENGTH];
+        int tagLength = -1;
+
+        // Bytes Are Scanned in Place; a Consumed Buffer Takes Whole Segments, Never Copies.
+        Buffer readBuffer = new Buffer();
+        while (source.read(readBuffer, READ_SIZE) != -1) {
+            long readSize = readBuffer.size();
+            String value = null;
+            boolean isFound = false;
+
+            for (long readIndex = 0; readIndex < readSize && !isFound; readIndex++) {
+                byte currentByte = readBuffer.getByte(readIndex);
+
+                if (currentByte == '<') {
+                    tagLength = 0;
+                } else if (tagLength >= 0) {
+                    if (currentByte == '>') {
+                        if (isTagName(tagBuffer, tagLength, tagName)) {
+                            String tag = new String(tagBuffer, 0, tagLength, UTF_8);
+
+                            if (id.equals(findAttributeValue(tag, "id"))) {
+                                value = findAttributeValue(tag, attribute);
+                                isFound = true;
+                            }
+                        }
+
+                        tagLength = -1;
+                    } else if (tagLength < MAXIMUM_TAG_LENGTH) {
+                        tagBuffer[tagLength++] = currentByte;
+                    } else {
+                        tagLength = -1;
+                    }
+                }
+            }
+
+            if (isFound) {
+                return value != null ? Parser.unescapeEntities(value, true) : null;
+            }
+
+            if (consumedBuffer != null) {
+                consumedBuffer.write(readBuffer, readSize);
+            } else {
+                readBuffer.clear();
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isTagName(byte[] tagBuffer, int tagLength, String tagName) {
+        if (tagLength <= tagName.length()) {
+            return false;
+        }
+
+        for (int index = 0; index < tagName.length(); index++) {
+            if (Character.toLowerCase((char) tagBuffer[index]) != tagName.charAt(index)) {
+                return false;
+            }
+        }
+
+        return Character.isWhitespace((char) tagBuffer[tagName.length()]);
+    }
+
+    private static String findAttributeValue(String tag, String attribute) {
+        String lowerCaseTag = tag.toLowerCase(Locale.ENGLISH);
+
+        int searchIndex = 0;
+        while (searchIndex < lowerCaseTag.length()) {
+            int attributeIndex = lowerCaseTag.indexOf(attribute, searchIndex);
+            if (attributeIndex < 0) {
+                return null;
+            }
+
+            searchIndex = attributeIndex + attribute.length();
+
+            if (attributeIndex == 0 || !Character.isWhitespace(lowerCaseTag.charAt(attributeIndex - 1))) {
+                continue;
+            }
+
+            int valueIndex = skipWhitespace(lowerCaseTag, searchIndex);
+            if (valueIndex >= lowerCaseTag.length() || lowerCaseTag.charAt(valueIndex) != '=') {
+                continue;
+            }
+
+            valueIndex = skipWhitespace(lowerCaseTag, valueIndex + 1);
+            if (valueIndex >= lowerCaseTag.length()) {
+                return null;
+            }
+
+            char quote = tag.charAt(valueIndex);
+            if (quote == '"' || quote == '\'') {
+                int endIndex = tag.indexOf(quote, valueIndex + 1);
+
+                return endIndex >= 0 ? tag.substring(valueIndex + 1, endIndex) : null;
+            } else {
+                int endIndex = valueIndex;
+                while (endIndex < tag.length() && !Character.isWhitespace(tag.charAt(endIndex))) {
+                    endIndex++;
+                }
+
+                return tag.substring(valueIndex, endIndex);
+            }
+        }
+
+        return null;
+    }
+
+    private static int skipWhitespace(String string, int index) {
+        while (index < string.length() && Character.isWhitespace(string.charAt(index))) {
+            index++;
+        }
+
+        return index;
+    }
+}
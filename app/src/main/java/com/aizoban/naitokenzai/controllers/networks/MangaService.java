@@ -1,33 +1,75 @@
 package com.aizoban.naitokenzai.controllers.networks;
 
-import android.util.Log;
-
+import com.aizoban.naitokenzai.NaitoKenzaiApplication;
+import com.aizoban.naitokenzai.utils.wrappers.MangaUpdateWrapper;
+import com.squareup.okhttp.Cache;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.MediaType;
 import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.Request;
 import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
 import rx.Observable;
 import rx.Subscriber;
+import rx.functions.Func1;
 
 public class MangaService {
     public static final int CONNECT_TIMEOUT = 10;
     public static final int WRITE_TIMEOUT = 10;
     public static final int READ_TIMEOUT = 30;
 
+    public static final int MAXIMUM_IDLE_CONNECTIONS = 8;
+    public static final long KEEP_ALIVE_DURATION = 5 * 60 * 1000;
+
+    public static final int MAXIMUM_REQUESTS = 16;
+    public static final int MAXIMUM_REQUESTS_PER_HOST = 4;
+
+    private static final String HTTP_CACHE_DIRECTORY = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 10 * 1024 * 1024;
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 6.3; WOW64)";
+
     private static MangaService sInstance;
 
     private OkHttpClient mClient;
 
+    private ConcurrentHashMap<String, HostPermits> mHostToPermitsMap;
+    private ConcurrentHashMap<String, Integer> mHostToMaximumRequestsMap;
+
     private MangaService() {
         mClient = new OkHttpClient();
         mClient.setConnectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS);
         mClient.setWriteTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS);
         mClient.setReadTimeout(READ_TIMEOUT, TimeUnit.SECONDS);
+        mClient.setConnectionPool(new ConnectionPool(MAXIMUM_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION));
+        mClient.getDispatcher().setMaxRequests(MAXIMUM_REQUESTS);
+        mClient.getDispatcher().setMaxRequestsPerHost(MAXIMUM_REQUESTS_PER_HOST);
+
+        try {
+            File httpCacheDirectory = new File(NaitoKenzaiApplication.getInstance().getCacheDir(), HTTP_CACHE_DIRECTORY);
+            mClient.setCache(new Cache(httpCacheDirectory, HTTP_CACHE_SIZE));
+        } catch (IOException e) {
+            // Do Nothing.
+        }
+
+        mHostToPermitsMap = new ConcurrentHashMap<String, HostPermits>();
+        mHostToMaximumRequestsMap = new ConcurrentHashMap<String, Integer>();
     }
 
-    public static MangaService getInstance() {
+    public static synchronized MangaService getInstance() {
         if (sInstance == null) {
             sInstance = new MangaService();
         }
@@ -35,20 +77,164 @@ public class MangaService {
         return sInstance;
     }
 
+    public OkHttpClient getClient() {
+        return mClient;
+    }
+
+    public synchronized void setMaxRequestsPerHost(String host, int maximumRequests) {
+        if (maximumRequests < 1) {
+            throw new IllegalArgumentException("Maximum Requests Must Be Positive: " + maximumRequests);
+        }
+
+        HostPermits hostPermits = getPermitsForHost(host);
+
+        int deltaRequests = maximumRequests - getMaxRequestsPerHost(host);
+        if (deltaRequests > 0) {
+            hostPermits.release(deltaRequests);
+        } else if (deltaRequests < 0) {
+            hostPermits.reducePermits(-deltaRequests);
+        }
+
+        mHostToMaximumRequestsMap.put(host, maximumRequests);
+    }
+
+    public int getMaxRequestsPerHost(String host) {
+        Integer maximumRequests = mHostToMaximumRequestsMap.get(host);
+        if (maximumRequests != null) {
+            return maximumRequests;
+        }
+
+        return MAXIMUM_REQUESTS_PER_HOST;
+    }
+
     public Observable<Response> getResponse(final String url) {
+        return getResponse(new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .build());
+    }
+
+    public Observable<Response> getResponse(final String url, final boolean isForeground) {
+        if (isForeground) {
+            return getForegroundResponse(url);
+        }
+
+        return getResponse(url);
+    }
+
+    public Observable<Response> getForegroundResponse(final String url) {
+        return getResponse(new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .build(), false);
+    }
+
+    public Observable<Response> getRevalidatedResponse(final String url) {
+        return getResponse(new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .header("Cache-Control", "max-age=0")
+                .build());
+    }
+
+    public Observable<MangaUpdateWrapper> getMangaUpdate(final String url, final boolean isRevalidation, final Func1<Response, Observable<MangaUpdateWrapper>> updateParser) {
+        Observable<Response> responseObservable;
+        if (isRevalidation) {
+            responseObservable = getRevalidatedResponse(url);
+        } else {
+            responseObservable = getResponse(url);
+        }
+
+        return responseObservable
+                .flatMap(new Func1<Response, Observable<MangaUpdateWrapper>>() {
+                    @Override
+                    public Observable<MangaUpdateWrapper> call(Response response) {
+                        if (isRevalidation && isNotModified(response)) {
+                            closeQuietly(response);
+
+                            return Observable.just(MangaUpdateWrapper.constructNotModified());
+                        }
+
+                        return updateParser.call(response);
+                    }
+                });
+    }
+
+    public Observable<MangaUpdateWrapper> getMangaUpdateFromHtml(final String url, final boolean isRevalidation, final Func1<String, MangaUpdateWrapper> htmlParser) {
+        return getMangaUpdate(url, isRevalidation, new Func1<Response, Observable<MangaUpdateWrapper>>() {
+            @Override
+            public Observable<MangaUpdateWrapper> call(Response response) {
+                return mapResponseToString(response).map(htmlParser);
+            }
+        });
+    }
+
+    public Observable<Response> getUncachedResponse(final String url) {
+        return getResponse(new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .header("Cache-Control", "no-store")
+                .build());
+    }
+
+    public Call newForegroundCall(final String url) {
+        return mClient.newCall(new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .header("Cache-Control", "no-store")
+                .build());
+    }
+
+    public Observable<Response> getRangeResponse(final String url, final long offset, final String entityTag) {
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .header("Cache-Control", "no-store")
+                .header("Accept-Encoding", "identity");
+
+        if (offset > 0 && entityTag != null) {
+            requestBuilder
+                    .header("Range", "bytes=" + offset + "-")
+                    .header("If-Range", entityTag);
+        }
+
+        return getResponse(requestBuilder.build());
+    }
+
+    public Observable<Response> getResponse(final Request request) {
+        return getResponse(request, true);
+    }
+
+    private Observable<Response> getResponse(final Request request, final boolean isHostLimited) {
         return Observable.create(new Observable.OnSubscribe<Response>() {
             @Override
             public void call(Subscriber<? super Response> subscriber) {
+                HostPermits hostPermits = getPermitsForHost(request.url().getHost());
+                boolean isPermitAcquired = false;
+
                 try {
-                    Request request = new Request.Builder()
-                            .url(url)
-                            .header("User-Agent", "Mozilla/5.0 (Windows NT 6.3; WOW64)")
-                            .build();
+                    if (isHostLimited) {
+                        isPermitAcquired = hostPermits.tryAcquire(READ_TIMEOUT, TimeUnit.SECONDS);
+                        if (!isPermitAcquired) {
+                            throw new IOException("Timed Out Waiting for a Request Permit: " + request.url().getHost());
+                        }
+                    }
 
-                    subscriber.onNext(mClient.newCall(request).execute());
+                    Response response = mClient.newCall(request).execute();
+
+                    if (isPermitAcquired) {
+                        response = releasePermitOnClose(response, hostPermits);
+                        isPermitAcquired = false;
+                    }
+
+                    subscriber.onNext(response);
                     subscriber.onCompleted();
                 } catch (Throwable e) {
                     subscriber.onError(e);
+                } finally {
+                    if (isPermitAcquired) {
+                        hostPermits.release();
+                    }
                 }
             }
         });
@@ -67,4 +253,87 @@ public class MangaService {
             }
         });
     }
+
+    public static boolean isNotModified(Response response) {
+        Response networkResponse = response.networkResponse();
+
+        return networkResponse != null && networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+
+    public static void closeQuietly(Response response) {
+        if (response != null && response.body() != null) {
+            try {
+                response.body().close();
+            } catch (IOException e) {
+                // Do Nothing.
+            }
+        }
+    }
+
+    private HostPermits getPermitsForHost(String host) {
+        HostPermits hostPermits = mHostToPermitsMap.get(host);
+        if (hostPermits == null) {
+            synchronized (this) {
+                hostPermits = mHostToPermitsMap.get(host);
+                if (hostPermits == null) {
+                    hostPermits = new HostPermits(getMaxRequestsPerHost(host));
+                    mHostToPermitsMap.put(host, hostPermits);
+                }
+            }
+        }
+
+        return hostPermits;
+    }
+
+    private static Response releasePermitOnClose(Response response, final HostPermits hostPermits) {
+        final ResponseBody responseBody = response.body();
+        if (responseBody == null) {
+            hostPermits.release();
+            return response;
+        }
+
+        final AtomicBoolean isReleased = new AtomicBoolean(false);
+        final BufferedSource releasingSource = Okio.buffer(new ForwardingSource(responseBody.source()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (isReleased.compareAndSet(false, true)) {
+                        hostPermits.release();
+                    }
+                }
+            }
+        });
+
+        return response.newBuilder()
+                .body(new ResponseBody() {
+                    @Override
+                    public MediaType contentType() {
+                        return responseBody.contentType();
+                    }
+
+                    @Override
+                    public long contentLength() {
+                        return responseBody.contentLength();
+                    }
+
+                    @Override
+                    public BufferedSource source() {
+                        return releasingSource;
+                    }
+                })
+                .build();
+    }
+
+    private static class HostPermits extends Semaphore {
+        private HostPermits(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
 }
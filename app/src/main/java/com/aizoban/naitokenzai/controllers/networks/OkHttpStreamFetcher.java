@@ -0,0 +1,95 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import com.aizoban.naitokenzai.controllers.downloads.DownloadScheduler;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public class OkHttpStreamFetcher implements DataFetcher<InputStream> {
+    private final GlideUrl mUrl;
+    private final boolean mIsForeground;
+
+    private volatile Call mCall;
+    private volatile boolean mIsCanceled;
+
+    private InputStream mInputStream;
+
+    private boolean mIsForegroundRequest;
+
+    public OkHttpStreamFetcher(GlideUrl url) {
+        this(url, true);
+    }
+
+    public OkHttpStreamFetcher(GlideUrl url, boolean isForeground) {
+        mUrl = url;
+        mIsForeground = isForeground;
+    }
+
+    @Override
+    public InputStream loadData(Priority priority) throws Exception {
+        if (mIsForeground) {
+            DownloadScheduler.getInstance().beginForegroundRequest();
+            mIsForegroundRequest = true;
+        }
+
+        Response response;
+        try {
+            mCall = MangaService.getInstance().newForegroundCall(mUrl.toString());
+            if (mIsCanceled) {
+                throw new IOException("Canceled");
+            }
+
+            response = mCall.execute();
+        } catch (Throwable e) {
+            cleanup();
+
+            throw e;
+        }
+
+        mInputStream = response.body().byteStream();
+
+        if (!response.isSuccessful()) {
+            cleanup();
+
+            throw new IOException("Request Failed With Code: " + response.code());
+        }
+
+        return mInputStream;
+    }
+
+    @Override
+    public void cleanup() {
+        if (mInputStream != null) {
+            try {
+                mInputStream.close();
+            } catch (IOException e) {
+                // Do Nothing.
+            }
+        }
+
+        if (mIsForegroundRequest) {
+            DownloadScheduler.getInstance().endForegroundRequest();
+            mIsForegroundRequest = false;
+        }
+    }
+
+    @Override
+    public String getId() {
+        return mUrl.toString();
+    }
+
+    @Override
+    public void cancel() {
+        mIsCanceled = true;
+
+        Call call = mCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+}
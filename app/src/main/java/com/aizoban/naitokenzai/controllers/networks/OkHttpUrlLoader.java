@@ -0,0 +1,53 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import android.content.Context;
+
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GenericLoaderFactory;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+
+import java.io.InputStream;
+
+public class OkHttpUrlLoader implements ModelLoader<GlideUrl, InputStream> {
+    public static class Factory implements ModelLoaderFactory<GlideUrl, InputStream> {
+        @Override
+        public ModelLoader<GlideUrl, InputStream> build(Context context, GenericLoaderFactory factories) {
+            return new OkHttpUrlLoader(true);
+        }
+
+        @Override
+        public void teardown() {
+            // Do Nothing.
+        }
+    }
+
+    public static class PrefetchFactory implements ModelLoaderFactory<PrefetchUrl, InputStream> {
+        @Override
+        public ModelLoader<PrefetchUrl, InputStream> build(Context context, GenericLoaderFactory factories) {
+            return new ModelLoader<PrefetchUrl, InputStream>() {
+                @Override
+                public DataFetcher<InputStream> getResourceFetcher(PrefetchUrl model, int width, int height) {
+                    return new OkHttpStreamFetcher(model, false);
+                }
+            };
+        }
+
+        @Override
+        public void teardown() {
+            // Do Nothing.
+        }
+    }
+
+    private final boolean mIsForeground;
+
+    public OkHttpUrlLoader(boolean isForeground) {
+        mIsForeground = isForeground;
+    }
+
+    @Override
+    public DataFetcher<InputStream> getResourceFetcher(GlideUrl model, int width, int height) {
+        return new OkHttpStreamFetcher(model, mIsForeground);
+    }
+}
@@ -0,0 +1,131 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.aizoban.naitokenzai.BuildConfig;
+import com.squareup.okhttp.Response;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Subscriber;
+
+public class PageUrlResolver {
+    public static final String TAG = PageUrlResolver.class.getSimpleName();
+
+    private static final int RESOLVER_MAXIMUM_POOL_SIZE = 16;
+    private static final int KEEP_ALIVE_TIME = 30;
+    private static final TimeUnit KEEP_ALIVE_TIME_UNIT = TimeUnit.SECONDS;
+
+    private static PageUrlResolver sInstance;
+
+    private ThreadPoolExecutor mResolverThreadPoolExecutor;
+
+    private PageUrlResolver() {
+        mResolverThreadPoolExecutor = new ThreadPoolExecutor(
+                RESOLVER_MAXIMUM_POOL_SIZE,
+                RESOLVER_MAXIMUM_POOL_SIZE,
+                KEEP_ALIVE_TIME,
+                KEEP_ALIVE_TIME_UNIT,
+                new LinkedBlockingQueue<Runnable>()
+        );
+        mResolverThreadPoolExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized PageUrlResolver getInstance() {
+        if (sInstance == null) {
+            sInstance = new PageUrlResolver();
+        }
+
+        return sInstance;
+    }
+
+    public Observable<String> resolveImageUrls(final List<String> pageUrls, final String imageId) {
+        return resolveImageUrls(pageUrls, imageId, false);
+    }
+
+    public Observable<String> resolveImageUrls(final List<String> pageUrls, final String imageId, final boolean isForeground) {
+        return Observable.create(new Observable.OnSubscribe<String>() {
+            @Override
+            public void call(Subscriber<? super String> subscriber) {
+                Deque<Future<String>> pendingFutures = new ArrayDeque<Future<String>>();
+
+                try {
+                    long startTime = SystemClock.elapsedRealtime();
+
+                    int submitIndex = 0;
+                    for (int emitIndex = 0; emitIndex < pageUrls.size(); emitIndex++) {
+                        while (submitIndex < pageUrls.size() && submitIndex < emitIndex + getConcurrencyForUrl(pageUrls.get(emitIndex))) {
+                            pendingFutures.addLast(submitPageUrl(pageUrls.get(submitIndex), imageId, isForeground));
+                            submitIndex++;
+                        }
+
+                        if (subscriber.isUnsubscribed()) {
+                            return;
+                        }
+
+                        String imageUrl = awaitFuture(pendingFutures.removeFirst());
+
+                        if (emitIndex == 0 && BuildConfig.DEBUG) {
+                            Log.d(TAG, "First Image Url Resolved in " + (SystemClock.elapsedRealtime() - startTime) + " ms");
+                        }
+
+                        if (!subscriber.isUnsubscribed()) {
+                            subscriber.onNext(imageUrl);
+                        }
+                    }
+
+                    if (BuildConfig.DEBUG) {
+                        Log.d(TAG, pageUrls.size() + " Image Urls Resolved in " + (SystemClock.elapsedRealtime() - startTime) + " ms");
+                    }
+
+                    subscriber.onCompleted();
+                } catch (Throwable e) {
+                    subscriber.onError(e);
+                } finally {
+                    for (Future<String> pendingFuture : pendingFutures) {
+                        pendingFuture.cancel(true);
+                    }
+                }
+            }
+        });
+    }
+
+    private Future<String> submitPageUrl(final String pageUrl, final String imageId, final boolean isForeground) {
+        return mResolverThreadPoolExecutor.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                Response response = MangaService.getInstance()
+                        .getResponse(pageUrl, isForeground)
+                        .toBlocking()
+                        .single();
+
+                return HtmlStreamExtractor.extractImageUrl(response, imageId);
+            }
+        });
+    }
+
+    private String awaitFuture(Future<String> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private int getConcurrencyForUrl(String url) {
+        String host = Uri.parse(url).getHost();
+
+        return MangaService.getInstance().getMaxRequestsPerHost(host != null ? host : url);
+    }
+}
@@ -0,0 +1,9 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import com.bumptech.glide.load.model.GlideUrl;
+
+public class PrefetchUrl extends GlideUrl {
+    public PrefetchUrl(String url) {
+        super(url);
+    }
+}
@@ -0,0 +1,58 @@
+package com.aizoban.naitokenzai.controllers.networks;
+
+import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+
+public class RequestCoalescer<T> {
+    public static final String TAG = RequestCoalescer.class.getSimpleName();
+
+    private final Map<String, Observable<T>> mKeyToInFlightMap;
+
+    public RequestCoalescer() {
+        mKeyToInFlightMap = new HashMap<String, Observable<T>>();
+    }
+
+    public Observable<T> coalesce(final RequestWrapper request, final Func0<Observable<T>> observableFactory) {
+        return Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                return getOrCreateInFlight(request.getSource() + ":" + request.getUrl(), observableFactory);
+            }
+        });
+    }
+
+    private synchronized Observable<T> getOrCreateInFlight(final String key, Func0<Observable<T>> observableFactory) {
+        Observable<T> inFlightObservable = mKeyToInFlightMap.get(key);
+        if (inFlightObservable != null) {
+            return inFlightObservable;
+        }
+
+        final Object[] sharedObservableHolder = new Object[1];
+
+        Observable<T> sharedObservable = Observable.defer(observableFactory)
+                .finallyDo(new Action0() {
+                    @Override
+                    public void call() {
+                        removeInFlight(key, sharedObservableHolder[0]);
+                    }
+                })
+                .cache();
+
+        sharedObservableHolder[0] = sharedObservable;
+        mKeyToInFlightMap.put(key, sharedObservable);
+
+        return sharedObservable;
+    }
+
+    private synchronized void removeInFlight(String key, Object sharedObservable) {
+        if (mKeyToInFlightMap.get(key) == sharedObservable) {
+            mKeyToInFlightMap.remove(key);
+        }
+    }
+}
@@ -1,30 +1,35 @@
 package com.aizoban.naitokenzai.controllers.sources;
 
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
 
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.controllers.QueryManager;
 import com.aizoban.naitokenzai.controllers.caches.CacheProvider;
-import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
-import com.aizoban.naitokenzai.controllers.databases.ApplicationSQLiteOpenHelper;
 import com.aizoban.naitokenzai.controllers.databases.LibraryContract;
 import com.aizoban.naitokenzai.controllers.databases.LibrarySQLiteOpenHelper;
 import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
 import com.aizoban.naitokenzai.controllers.networks.MangaService;
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.Manga;
+import com.aizoban.naitokenzai.utils.wrappers.ChapterMergeWrapper;
+import com.aizoban.naitokenzai.utils.wrappers.MangaUpdateWrapper;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.squareup.okhttp.Response;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
@@ -233,20 +238,16 @@ public class English_MangaEden implements Source {
     public Observable<Manga> pullMangaFromNetwork(final RequestWrapper request) {
         return MangaService.getInstance()
                 .getResponse(request.getUrl())
-                .flatMap(new Func1<Response, Observable<String>>() {
+                .flatMap(new Func1<Response, Observable<Manga>>() {
                     @Override
-                    public Observable<String> call(Response response) {
-                        return MangaService.mapResponseToString(response);
-                    }
-                })
-                .flatMap(new Func1<String, Observable<Manga>>() {
-                    @Override
-                    public Observable<Manga> call(final String unparsedJson) {
+                    public Observable<Manga> call(final Response response) {
                         return Observable.create(new Observable.OnSubscribe<Manga>() {
                             @Override
                             public void call(Subscriber<? super Manga> subscriber) {
                                 try {
-                                    subscriber.onNext(parseJsonToManga(request, unparsedJson));
+                                    MangaNode mangaNode = readMangaNodeFromResponse(response);
+
+                                    subscriber.onNext(saveMangaNodeToDatabase(request, mangaNode));
                                     subscriber.onCompleted();
                                 } catch (Throwable e) {
                                     subscriber.onError(e);
@@ -257,19 +258,106 @@ public class English_MangaEden implements Source {
                 });
     }
 
-    private Manga parseJsonToManga(RequestWrapper request, String unparsedJson) throws JSONException {
-        JSONObject parsedJsonObject = new JSONObject(unparsedJson);
+    private MangaNode readMangaNodeFromResponse(Response response) throws IOException {
+        JsonReader jsonReader = new JsonReader(response.body().charStream());
+        try {
+            MangaNode mangaNode = new MangaNode();
+
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String fieldName = jsonReader.nextName();
+
+                if (fieldName.equals("title")) {
+                    mangaNode.mTitle = nextStringOrNull(jsonReader);
+                } else if (fieldName.equals("artist")) {
+                    mangaNode.mArtist = nextStringOrNull(jsonReader);
+                } else if (fieldName.equals("author")) {
+                    mangaNode.mAuthor = nextStringOrNull(jsonReader);
+                } else if (fieldName.equals("description")) {
+                    mangaNode.mDescription = nextStringOrNull(jsonReader);
+                } else if (fieldName.equals("image")) {
+                    mangaNode.mImage = nextStringOrNull(jsonReader);
+                } else if (fieldName.equals("status") && jsonReader.peek() == JsonToken.NUMBER) {
+                    mangaNode.mStatus = jsonReader.nextInt();
+                } else if (fieldName.equals("categories") && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                    mangaNode.mGenre = readGenreFromJson(jsonReader);
+                } else if (fieldName.equals("chapters") && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                    mangaNode.mChapterList = readChaptersFromJson(jsonReader);
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
 
-        String fieldGenre = "";
-        JSONArray genreArrayNodes = parsedJsonObject.getJSONArray("categories");
-        for (int index = 0; index < genreArrayNodes.length(); index++) {
-            if (index != genreArrayNodes.length() - 1) {
-                fieldGenre += genreArrayNodes.getString(index) + ", ";
-            } else {
-                fieldGenre += genreArrayNodes.getString(index);
+            return mangaNode;
+        } finally {
+            jsonReader.close();
+        }
+    }
+
+    private String readGenreFromJson(JsonReader jsonReader) throws IOException {
+        StringBuilder fieldGenre = new StringBuilder();
+
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            String currentGenre = nextStringOrNull(jsonReader);
+            if (currentGenre == null) {
+                continue;
             }
+
+            if (fieldGenre.length() > 0) {
+                fieldGenre.append(", ");
+            }
+            fieldGenre.append(currentGenre);
         }
+        jsonReader.endArray();
 
+        return fieldGenre.toString();
+    }
+
+    private List<Chapter> readChaptersFromJson(JsonReader jsonReader) throws IOException {
+        List<Chapter> chapterList = new ArrayList<Chapter>();
+
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            jsonReader.beginArray();
+
+            Chapter newChapter = DefaultFactory.Chapter.constructDefault();
+            int chapterNumber = (int) jsonReader.nextDouble();
+            long chapterDate = (long) jsonReader.nextDouble();
+            jsonReader.skipValue();
+            String chapterId = jsonReader.nextString();
+
+            while (jsonReader.hasNext()) {
+                jsonReader.skipValue();
+            }
+            jsonReader.endArray();
+
+            newChapter.setUrl("https://www.mangaeden.com/api/chapter/" + chapterId + "/");
+            newChapter.setName(String.valueOf(chapterNumber));
+            newChapter.setDate(chapterDate * 1000);
+
+            chapterList.add(newChapter);
+        }
+        jsonReader.endArray();
+
+        return chapterList;
+    }
+
+    private static String nextStringOrNull(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        if (jsonReader.peek() == JsonToken.BEGIN_ARRAY || jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+            jsonReader.skipValue();
+            return null;
+        }
+
+        return jsonReader.nextString();
+    }
+
+    private Manga saveMangaNodeToDatabase(RequestWrapper request, MangaNode mangaNode) {
         LibrarySQLiteOpenHelper librarySQLiteOpenHelper = LibrarySQLiteOpenHelper.getInstance();
         SQLiteDatabase sqLiteDatabase = librarySQLiteOpenHelper.getWritableDatabase();
         StringBuilder selection = new StringBuilder();
@@ -285,12 +373,14 @@ public class English_MangaEden implements Source {
                 .limit(1)
                 .get();
 
-        newManga.setArtist(parsedJsonObject.getString("artist"));
-        newManga.setAuthor(parsedJsonObject.getString("author"));
-        newManga.setDescription(parsedJsonObject.getString("description").trim());
-        newManga.setGenre(fieldGenre);
-        newManga.setCompleted(parsedJsonObject.getInt("status") == 2);
-        newManga.setThumbnailUrl("https://cdn.mangaeden.com/mangasimg/" + parsedJsonObject.getString("image"));
+        newManga.setArtist(mangaNode.mArtist);
+        newManga.setAuthor(mangaNode.mAuthor);
+        newManga.setDescription(mangaNode.mDescription != null ? mangaNode.mDescription.trim() : "");
+        newManga.setGenre(mangaNode.mGenre);
+        newManga.setCompleted(mangaNode.mStatus == 2);
+        if (mangaNode.mImage != null) {
+            newManga.setThumbnailUrl("https://cdn.mangaeden.com/mangasimg/" + mangaNode.mImage);
+        }
 
         newManga.setInitialized(true);
 
@@ -303,20 +393,16 @@ public class English_MangaEden implements Source {
     public Observable<List<Chapter>> pullChaptersFromNetwork(final RequestWrapper request) {
         return MangaService.getInstance()
                 .getResponse(request.getUrl())
-                .flatMap(new Func1<Response, Observable<String>>() {
+                .flatMap(new Func1<Response, Observable<List<Chapter>>>() {
                     @Override
-                    public Observable<String> call(Response response) {
-                        return MangaService.mapResponseToString(response);
-                    }
-                })
-                .flatMap(new Func1<String, Observable<List<Chapter>>>() {
-                    @Override
-                    public Observable<List<Chapter>> call(final String unparsedJson) {
+                    public Observable<List<Chapter>> call(final Response response) {
                         return Observable.create(new Observable.OnSubscribe<List<Chapter>>() {
                             @Override
                             public void call(Subscriber<? super List<Chapter>> subscriber) {
                                 try {
-                                    subscriber.onNext(parseJsonToChapters(request, unparsedJson));
+                                    MangaNode mangaNode = readMangaNodeFromResponse(response);
+
+                                    subscriber.onNext(saveChapterNodesToDatabase(request, mangaNode));
                                     subscriber.onCompleted();
                                 } catch (Throwable e) {
                                     subscriber.onError(e);
@@ -327,10 +413,12 @@ public class English_MangaEden implements Source {
                 });
     }
 
-    private List<Chapter> parseJsonToChapters(RequestWrapper request, String unparsedJson) throws JSONException{
-        JSONObject parsedJsonObject = new JSONObject(unparsedJson);
+    private List<Chapter> saveChapterNodesToDatabase(RequestWrapper request, MangaNode mangaNode) throws IOException {
+        if (mangaNode.mChapterList == null) {
+            throw new IOException("Missing Chapters for " + request.getUrl());
+        }
 
-        List<Chapter> chapterList = scrapeChaptersFromParsedJson(parsedJsonObject);
+        List<Chapter> chapterList = setNameForChapterList(mangaNode.mChapterList, mangaNode.mTitle);
         chapterList = setSourceForChapterList(chapterList);
         chapterList = setParentUrlForChapterList(chapterList, request.getUrl());
         chapterList = setNumberForChapterList(chapterList);
@@ -340,32 +428,14 @@ public class English_MangaEden implements Source {
         return chapterList;
     }
 
-    private List<Chapter> scrapeChaptersFromParsedJson(JSONObject parsedJsonObject) throws JSONException {
-        List<Chapter> chapterList = new ArrayList<Chapter>();
-
-        String mangaName = parsedJsonObject.getString("title");
-        JSONArray chapterArrayNodes = parsedJsonObject.getJSONArray("chapters");
-        for (int index = 0; index < chapterArrayNodes.length(); index++) {
-            JSONArray currentChapterArray = chapterArrayNodes.getJSONArray(index);
-
-            Chapter currentChapter = constructChapterFromJSONArray(currentChapterArray, mangaName);
-
-            chapterList.add(currentChapter);
+    private List<Chapter> setNameForChapterList(List<Chapter> chapterList, String mangaName) {
+        for (Chapter currentChapter : chapterList) {
+            currentChapter.setName(mangaName + " " + currentChapter.getName());
         }
 
         return chapterList;
     }
 
-    private Chapter constructChapterFromJSONArray(JSONArray chapterNode, String mangaName) throws JSONException {
-        Chapter newChapter = DefaultFactory.Chapter.constructDefault();
-
-        newChapter.setUrl("https://www.mangaeden.com/api/chapter/" + chapterNode.getString(3) + "/");
-        newChapter.setName(mangaName + " " + chapterNode.getInt(0));
-        newChapter.setDate(chapterNode.getLong(1) * 1000);
-
-        return newChapter;
-    }
-
     private List<Chapter> setSourceForChapterList(List<Chapter> chapterList) {
         for (Chapter currentChapter : chapterList) {
             currentChapter.setSource(NAME);
@@ -392,48 +462,57 @@ public class English_MangaEden implements Source {
     }
 
     private void saveChaptersToDatabase(List<Chapter> chapterList, String parentUrl) {
-        ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-        SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
-        StringBuilder selection = new StringBuilder();
-        List<String> selectionArgs = new ArrayList<String>();
-
-        selection.append(ApplicationContract.Chapter.COLUMN_SOURCE + " = ?");
-        selectionArgs.add(NAME);
-        selection.append(" AND ").append(ApplicationContract.Chapter.COLUMN_PARENT_URL + " = ?");
-        selectionArgs.add(parentUrl);
-
-        sqLiteDatabase.beginTransaction();
-        try {
-            cupboard().withDatabase(sqLiteDatabase).delete(Chapter.class, selection.toString(), selectionArgs.toArray(new String[selectionArgs.size()]));
+        ChapterMergeWrapper chapterMerge = QueryManager.mergeChaptersToApplicationDatabase(NAME, parentUrl, chapterList);
 
-            for (Chapter currentChapter : chapterList) {
-                cupboard().withDatabase(sqLiteDatabase).put(currentChapter);
-            }
-
-            sqLiteDatabase.setTransactionSuccessful();
-        } finally {
-            sqLiteDatabase.endTransaction();
+        if (BuildConfig.DEBUG) {
+            Log.d(NAME, "Chapters Merged: " + chapterMerge.getNewCount() + " New, " + chapterMerge.getChangedCount() + " Changed, " + chapterMerge.getRemovedCount() + " Removed");
         }
     }
 
     @Override
-    public Observable<String> pullImageUrlsFromNetwork(final RequestWrapper request) {
+    public Observable<MangaUpdateWrapper> pullMangaAndChaptersFromNetwork(final RequestWrapper request, final boolean isRevalidation) {
         return MangaService.getInstance()
-                .getResponse(request.getUrl())
-                .flatMap(new Func1<Response, Observable<String>>() {
+                .getMangaUpdate(request.getUrl(), isRevalidation, new Func1<Response, Observable<MangaUpdateWrapper>>() {
                     @Override
-                    public Observable<String> call(Response response) {
-                        return MangaService.mapResponseToString(response);
+                    public Observable<MangaUpdateWrapper> call(final Response response) {
+                        return Observable.create(new Observable.OnSubscribe<MangaUpdateWrapper>() {
+                            @Override
+                            public void call(Subscriber<? super MangaUpdateWrapper> subscriber) {
+                                try {
+                                    MangaNode mangaNode = readMangaNodeFromResponse(response);
+
+                                    Manga manga = saveMangaNodeToDatabase(request, mangaNode);
+
+                                    List<Chapter> chapterList = null;
+                                    try {
+                                        chapterList = saveChapterNodesToDatabase(request, mangaNode);
+                                    } catch (Throwable e) {
+                                        // Swallow Error with Empty Chapter List.
+                                    }
+
+                                    subscriber.onNext(new MangaUpdateWrapper(manga, chapterList));
+                                    subscriber.onCompleted();
+                                } catch (Throwable e) {
+                                    subscriber.onError(e);
+                                }
+                            }
+                        });
                     }
-                })
-                .flatMap(new Func1<String, Observable<List<String>>>() {
+                });
+    }
+
+    @Override
+    public Observable<String> pullImageUrlsFromNetwork(final RequestWrapper request, final boolean isForeground) {
+        return MangaService.getInstance()
+                .getResponse(request.getUrl(), isForeground)
+                .flatMap(new Func1<Response, Observable<List<String>>>() {
                     @Override
-                    public Observable<List<String>> call(final String unparsedJson) {
+                    public Observable<List<String>> call(final Response response) {
                         return Observable.create(new Observable.OnSubscribe<List<String>>() {
                             @Override
                             public void call(Subscriber<? super List<String>> subscriber) {
                                 try {
-                                    subscriber.onNext(parseJsonToImageUrls(unparsedJson));
+                                    subscriber.onNext(readImageUrlsFromResponse(response));
                                     subscriber.onCompleted();
                                 } catch (Throwable e) {
                                     subscriber.onError(e);
@@ -445,7 +524,7 @@ public class English_MangaEden implements Source {
                 .doOnNext(new Action1<List<String>>() {
                     @Override
                     public void call(List<String> imageUrls) {
-                        CacheProvider.getInstance().putImageUrlsToDiskCache(request.getUrl(), imageUrls);
+                        CacheProvider.getInstance().putImageUrlsToCache(request, imageUrls);
                     }
                 })
                 .flatMap(new Func1<List<String>, Observable<String>>() {
@@ -456,16 +535,40 @@ public class English_MangaEden implements Source {
                 });
     }
 
-    private List<String> parseJsonToImageUrls(String unparsedJson) throws JSONException{
-        JSONObject parsedJson = new JSONObject(unparsedJson);
+    private List<String> readImageUrlsFromResponse(Response response) throws IOException {
+        List<String> imageUrlList = null;
 
-        List<String> imageUrlList = new ArrayList<String>();
-
-        JSONArray imageArrayNodes = parsedJson.getJSONArray("images");
-        for (int index = 0; index < imageArrayNodes.length(); index++) {
-            JSONArray currentImageNode = imageArrayNodes.getJSONArray(index);
+        JsonReader jsonReader = new JsonReader(response.body().charStream());
+        try {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                if (jsonReader.nextName().equals("images") && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                    imageUrlList = new ArrayList<String>();
+
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        jsonReader.beginArray();
+
+                        jsonReader.skipValue();
+                        imageUrlList.add("https://cdn.mangaeden.com/mangasimg/" + jsonReader.nextString());
+
+                        while (jsonReader.hasNext()) {
+                            jsonReader.skipValue();
+                        }
+                        jsonReader.endArray();
+                    }
+                    jsonReader.endArray();
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+        } finally {
+            jsonReader.close();
+        }
 
-            imageUrlList.add("https://cdn.mangaeden.com/mangasimg/" + currentImageNode.getString(1));
+        if (imageUrlList == null) {
+            throw new IOException("Missing Images for " + response.request().urlString());
         }
         Collections.reverse(imageUrlList);
 
@@ -478,18 +581,12 @@ public class English_MangaEden implements Source {
                 .getResponse(url)
                 .flatMap(new Func1<Response, Observable<String>>() {
                     @Override
-                    public Observable<String> call(Response response) {
-                        return MangaService.mapResponseToString(response);
-                    }
-                })
-                .flatMap(new Func1<String, Observable<String>>() {
-                    @Override
-                    public Observable<String> call(final String unparsedJson) {
+                    public Observable<String> call(final Response response) {
                         return Observable.create(new Observable.OnSubscribe<String>() {
                             @Override
                             public void call(Subscriber<? super String> subscriber) {
                                 try {
-                                    subscriber.onNext(parseEnglish_MangaHere(unparsedJson));
+                                    subscriber.onNext(parseEnglish_MangaHere(response));
                                     subscriber.onCompleted();
                                 } catch (Throwable e) {
                                     subscriber.onError(e);
@@ -502,56 +599,133 @@ public class English_MangaEden implements Source {
 
     private static String INITIAL_DATABASE_URL = "https://www.mangaeden.com/api/list/0/";
 
-    private String parseEnglish_MangaHere(String unparsedJson) throws JSONException {
-        JSONObject parsedJson = new JSONObject(unparsedJson);
+    private static final int LIBRARY_BATCH_SIZE = 500;
 
-        List<Manga> mangaList = new ArrayList<Manga>();
-        JSONArray mangaArrayNodes = parsedJson.getJSONArray("manga");
-        for (int index = 0; index < mangaArrayNodes.length(); index++) {
-            JSONObject currentMangaNode = mangaArrayNodes.getJSONObject(index);
+    private String parseEnglish_MangaHere(Response response) throws IOException {
+        final List<Long> mangaIds = new ArrayList<Long>();
+        final List<Integer> mangaHits = new ArrayList<Integer>();
 
-            Manga newManga = new Manga();
-            newManga.setSource(NAME);
-            newManga.setUrl("https://www.mangaeden.com/api/manga/" + currentMangaNode.getString("i") + "/");
-            newManga.setName(currentMangaNode.getString("t"));
-            newManga.setThumbnailUrl("https://cdn.mangaeden.com/mangasimg/" + currentMangaNode.getString("im"));
-            newManga.setCompleted(currentMangaNode.getInt("s") == 2);
-            newManga.setRank(currentMangaNode.getInt("h")); // Hits.
+        LibrarySQLiteOpenHelper librarySQLiteOpenHelper = LibrarySQLiteOpenHelper.getInstance();
 
-            mangaList.add(newManga);
-        }
+        SQLiteDatabase sqLiteDatabase = librarySQLiteOpenHelper.getWritableDatabase();
+        sqLiteDatabase.beginTransaction();
 
-        Collections.sort(mangaList, new Comparator<Manga>() {
-            @Override
-            public int compare(Manga lhs, Manga rhs) {
-                if (lhs.getRank() < rhs.getRank()) {
-                    return 1;
-                } else if (lhs.getRank() == rhs.getRank()) {
-                    return 0;
+        JsonReader jsonReader = new JsonReader(response.body().charStream());
+        try {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                if (jsonReader.nextName().equals("manga") && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        Manga newManga = readLibraryMangaFromJson(jsonReader);
+
+                        mangaHits.add(newManga.getRank());
+                        mangaIds.add(cupboard().withDatabase(sqLiteDatabase).put(newManga));
+
+                        // Commit Between Batches so the Network Stream Never Holds the Database Lock for the Whole List.
+                        if (mangaIds.size() % LIBRARY_BATCH_SIZE == 0) {
+                            sqLiteDatabase.setTransactionSuccessful();
+                            sqLiteDatabase.endTransaction();
+                            sqLiteDatabase.beginTransaction();
+                        }
+                    }
+                    jsonReader.endArray();
                 } else {
-                    return -1;
+                    jsonReader.skipValue();
                 }
             }
-        });
+            jsonReader.endObject();
 
-        for (int index = 0; index < mangaList.size(); index++) {
-            mangaList.get(index).setRank(index + 1);
-        }
+            Integer[] rankOrder = new Integer[mangaIds.size()];
+            for (int index = 0; index < rankOrder.length; index++) {
+                rankOrder[index] = index;
+            }
 
-        LibrarySQLiteOpenHelper librarySQLiteOpenHelper = LibrarySQLiteOpenHelper.getInstance();
+            Arrays.sort(rankOrder, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer lhs, Integer rhs) {
+                    int lhsHits = mangaHits.get(lhs);
+                    int rhsHits = mangaHits.get(rhs);
+
+                    if (lhsHits < rhsHits) {
+                        return 1;
+                    } else if (lhsHits == rhsHits) {
+                        return 0;
+                    } else {
+                        return -1;
+                    }
+                }
+            });
 
-        SQLiteDatabase sqLiteDatabase = librarySQLiteOpenHelper.getWritableDatabase();
-        sqLiteDatabase.beginTransaction();
-        try {
-            for (Manga currentManga : mangaList) {
-                cupboard().withDatabase(sqLiteDatabase).put(currentManga);
+            SQLiteStatement rankStatement = sqLiteDatabase.compileStatement(
+                    "UPDATE " + LibraryContract.Manga.TABLE_NAME + " SET " +
+                            LibraryContract.Manga.COLUMN_RANK + " = ? WHERE " +
+                            LibraryContract.Manga.COLUMN_ID + " = ?"
+            );
+
+            try {
+                for (int index = 0; index < rankOrder.length; index++) {
+                    rankStatement.clearBindings();
+                    rankStatement.bindLong(1, index + 1);
+                    rankStatement.bindLong(2, mangaIds.get(rankOrder[index]));
+                    rankStatement.execute();
+                }
+            } finally {
+                rankStatement.close();
             }
 
             sqLiteDatabase.setTransactionSuccessful();
         } finally {
             sqLiteDatabase.endTransaction();
+
+            jsonReader.close();
+        }
+
+        if (BuildConfig.DEBUG) {
+            Log.d(NAME, "Library Constructed: " + mangaIds.size() + " Manga");
         }
 
         return null;
     }
+
+    private Manga readLibraryMangaFromJson(JsonReader jsonReader) throws IOException {
+        Manga newManga = new Manga();
+        newManga.setSource(NAME);
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String fieldName = jsonReader.nextName();
+
+            if (fieldName.equals("i")) {
+                newManga.setUrl("https://www.mangaeden.com/api/manga/" + nextStringOrNull(jsonReader) + "/");
+            } else if (fieldName.equals("t")) {
+                newManga.setName(nextStringOrNull(jsonReader));
+            } else if (fieldName.equals("im")) {
+                String image = nextStringOrNull(jsonReader);
+                if (image != null) {
+                    newManga.setThumbnailUrl("https://cdn.mangaeden.com/mangasimg/" + image);
+                }
+            } else if (fieldName.equals("s") && jsonReader.peek() == JsonToken.NUMBER) {
+                newManga.setCompleted(jsonReader.nextInt() == 2);
+            } else if (fieldName.equals("h") && jsonReader.peek() == JsonToken.NUMBER) {
+                newManga.setRank(jsonReader.nextInt()); // Hits.
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return newManga;
+    }
+
+    private static class MangaNode {
+        private String mTitle;
+        private String mArtist;
+        private String mAuthor;
+        private String mDescription;
+        private String mGenre;
+        private String mImage;
+        private int mStatus;
+        private List<Chapter> mChapterList;
+    }
 }
@@ -2,6 +2,7 @@ package com.aizoban.naitokenzai.controllers.sources;
 
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.Manga;
+import com.aizoban.naitokenzai.utils.wrappers.MangaUpdateWrapper;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 
 import java.util.List;
@@ -23,7 +24,9 @@ public interface Source {
 
     public Observable<List<Chapter>> pullChaptersFromNetwork(RequestWrapper request);
 
-    public Observable<String> pullImageUrlsFromNetwork(RequestWrapper request);
+    public Observable<MangaUpdateWrapper> pullMangaAndChaptersFromNetwork(RequestWrapper request, boolean isRevalidation);
+
+    public Observable<String> pullImageUrlsFromNetwork(RequestWrapper request, boolean isForeground);
 
     public Observable<String> recursivelyConstructDatabase(String url);
 }
@@ -1,16 +1,20 @@
 package com.aizoban.naitokenzai.controllers.sources;
 
 import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
 
+import com.aizoban.naitokenzai.BuildConfig;
+import com.aizoban.naitokenzai.controllers.QueryManager;
 import com.aizoban.naitokenzai.controllers.caches.CacheProvider;
-import com.aizoban.naitokenzai.controllers.databases.ApplicationContract;
-import com.aizoban.naitokenzai.controllers.databases.ApplicationSQLiteOpenHelper;
 import com.aizoban.naitokenzai.controllers.databases.LibraryContract;
 import com.aizoban.naitokenzai.controllers.databases.LibrarySQLiteOpenHelper;
 import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
 import com.aizoban.naitokenzai.controllers.networks.MangaService;
+import com.aizoban.naitokenzai.controllers.networks.PageUrlResolver;
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.Manga;
+import com.aizoban.naitokenzai.utils.wrappers.ChapterMergeWrapper;
+import com.aizoban.naitokenzai.utils.wrappers.MangaUpdateWrapper;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.squareup.okhttp.Response;
 
@@ -470,36 +474,39 @@ public class Spanish_MangaHere implements Source {
     }
 
     private void saveChaptersToDatabase(List<Chapter> chapterList, String parentUrl) {
-        ApplicationSQLiteOpenHelper applicationSQLiteOpenHelper = ApplicationSQLiteOpenHelper.getInstance();
-        SQLiteDatabase sqLiteDatabase = applicationSQLiteOpenHelper.getWritableDatabase();
-        StringBuilder selection = new StringBuilder();
-        List<String> selectionArgs = new ArrayList<String>();
+        ChapterMergeWrapper chapterMerge = QueryManager.mergeChaptersToApplicationDatabase(NAME, parentUrl, chapterList);
 
-        selection.append(ApplicationContract.Chapter.COLUMN_SOURCE + " = ?");
-        selectionArgs.add(NAME);
-        selection.append(" AND ").append(ApplicationContract.Chapter.COLUMN_PARENT_URL + " = ?");
-        selectionArgs.add(parentUrl);
+        if (BuildConfig.DEBUG) {
+            Log.d(NAME, "Chapters Merged: " + chapterMerge.getNewCount() + " New, " + chapterMerge.getChangedCount() + " Changed, " + chapterMerge.getRemovedCount() + " Removed");
+        }
+    }
 
-        sqLiteDatabase.beginTransaction();
-        try {
-            cupboard().withDatabase(sqLiteDatabase).delete(Chapter.class, selection.toString(), selectionArgs.toArray(new String[selectionArgs.size()]));
+    @Override
+    public Observable<MangaUpdateWrapper> pullMangaAndChaptersFromNetwork(final RequestWrapper request, final boolean isRevalidation) {
+        return MangaService.getInstance()
+                .getMangaUpdateFromHtml(request.getUrl(), isRevalidation, new Func1<String, MangaUpdateWrapper>() {
+                    @Override
+                    public MangaUpdateWrapper call(String unparsedHtml) {
+                        Manga manga = parseHtmlToManga(request, unparsedHtml);
 
-            for (Chapter currentChapter : chapterList) {
-                cupboard().withDatabase(sqLiteDatabase).put(currentChapter);
-            }
+                        List<Chapter> chapterList = null;
+                        try {
+                            chapterList = parseHtmlToChapters(request, unparsedHtml);
+                        } catch (Throwable e) {
+                            // Swallow Error with Empty Chapter List.
+                        }
 
-            sqLiteDatabase.setTransactionSuccessful();
-        } finally {
-            sqLiteDatabase.endTransaction();
-        }
+                        return new MangaUpdateWrapper(manga, chapterList);
+                    }
+                });
     }
 
     @Override
-    public Observable<String> pullImageUrlsFromNetwork(final RequestWrapper request) {
+    public Observable<String> pullImageUrlsFromNetwork(final RequestWrapper request, final boolean isForeground) {
         final List<String> temporaryCachedImageUrls = new ArrayList<String>();
 
         return MangaService.getInstance()
-                .getResponse(request.getUrl())
+                .getResponse(request.getUrl(), isForeground)
                 .flatMap(new Func1<Response, Observable<String>>() {
                     @Override
                     public Observable<String> call(Response response) {
@@ -515,25 +522,7 @@ public class Spanish_MangaHere implements Source {
                 .flatMap(new Func1<List<String>, Observable<String>>() {
                     @Override
                     public Observable<String> call(List<String> pageUrls) {
-                        return Observable.from(pageUrls.toArray(new String[pageUrls.size()]));
-                    }
-                })
-                .flatMap(new Func1<String, Observable<Response>>() {
-                    @Override
-                    public Observable<Response> call(String pageUrl) {
-                        return MangaService.getInstance().getResponse(pageUrl);
-                    }
-                })
-                .flatMap(new Func1<Response, Observable<String>>() {
-                    @Override
-                    public Observable<String> call(Response response) {
-                        return MangaService.mapResponseToString(response);
-                    }
-                })
-                .flatMap(new Func1<String, Observable<String>>() {
-                    @Override
-                    public Observable<String> call(String unparsedHtml) {
-                        return Observable.just(parseHtmlToImageUrl(unparsedHtml));
+                        return PageUrlResolver.getInstance().resolveImageUrls(pageUrls, "image", isForeground);
                     }
                 })
                 .doOnNext(new Action1<String>() {
@@ -545,7 +534,7 @@ public class Spanish_MangaHere implements Source {
                 .doOnCompleted(new Action0() {
                     @Override
                     public void call() {
-                        CacheProvider.getInstance().putImageUrlsToDiskCache(request.getUrl(), temporaryCachedImageUrls);
+                        CacheProvider.getInstance().putImageUrlsToCache(request, temporaryCachedImageUrls);
                     }
                 });
     }
@@ -563,14 +552,6 @@ public class Spanish_MangaHere implements Source {
         return pageUrlList;
     }
 
-    private String parseHtmlToImageUrl(String unparsedHtml) {
-        Document parsedDocument = Jsoup.parse(unparsedHtml);
-
-        Element imageElement = parsedDocument.getElementById("image");
-
-        return imageElement.attr("src");
-    }
-
     private static String INITIAL_DATABASE_URL = "http://es.mangahere.co/directory/?views.za";
 
     @Override
@@ -52,6 +52,10 @@ public class Chapter implements Parcelable {
         return _id;
     }
 
+    public void setId(Long id) {
+        _id = id;
+    }
+
     public String getSource() {
         return Source;
     }
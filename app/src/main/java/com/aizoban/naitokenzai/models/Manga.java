@@ -66,6 +66,10 @@ public class Manga implements Parcelable {
         return _id;
     }
 
+    public void setId(Long id) {
+        _id = id;
+    }
+
     public String getSource() {
         return Source;
     }
@@ -44,6 +44,10 @@ public class FavouriteManga implements Parcelable {
         return _id;
     }
 
+    public void setId(Long id) {
+        _id = id;
+    }
+
     public String getSource() {
         return Source;
     }
@@ -56,6 +56,10 @@ public class RecentChapter implements Parcelable {
         return _id;
     }
 
+    public void setId(Long id) {
+        _id = id;
+    }
+
     public String getSource() {
         return Source;
     }
@@ -32,6 +32,10 @@ public class DownloadChapter implements Parcelable {
     private int CurrentPage;
     private int TotalPages;
     private int Flag;
+    private int Priority;
+
+    private String PageUrls;
+    private byte[] CompletedPages;
 
     public DownloadChapter() {}
 
@@ -49,12 +53,17 @@ public class DownloadChapter implements Parcelable {
         CurrentPage = inputParcel.readInt();
         TotalPages = inputParcel.readInt();
         Flag = inputParcel.readInt();
+        Priority = inputParcel.readInt();
     }
 
     public Long getId() {
         return _id;
     }
 
+    public void setId(Long id) {
+        _id = id;
+    }
+
     public String getSource() {
         return Source;
     }
@@ -119,6 +128,30 @@ public class DownloadChapter implements Parcelable {
         Flag = flag;
     }
 
+    public int getPriority() {
+        return Priority;
+    }
+
+    public void setPriority(int priority) {
+        Priority = priority;
+    }
+
+    public String getPageUrls() {
+        return PageUrls;
+    }
+
+    public void setPageUrls(String pageUrls) {
+        PageUrls = pageUrls;
+    }
+
+    public byte[] getCompletedPages() {
+        return CompletedPages;
+    }
+
+    public void setCompletedPages(byte[] completedPages) {
+        CompletedPages = completedPages;
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -139,5 +172,6 @@ public class DownloadChapter implements Parcelable {
         outputParcel.writeInt(CurrentPage);
         outputParcel.writeInt(TotalPages);
         outputParcel.writeInt(Flag);
+        outputParcel.writeInt(Priority);
     }
 }
@@ -53,6 +53,10 @@ public class DownloadManga implements Parcelable {
         return _id;
     }
 
+    public void setId(Long id) {
+        _id = id;
+    }
+
     public String getSource() {
         return Source;
     }
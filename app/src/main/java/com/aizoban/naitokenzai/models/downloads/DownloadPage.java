@@ -49,6 +49,10 @@ public class DownloadPage implements Parcelable {
         return _id;
     }
 
+    public void setId(Long id) {
+        _id = id;
+    }
+
     public String getUrl() {
         return Url;
     }
@@ -18,7 +18,7 @@ import com.aizoban.naitokenzai.views.AddToQueueView;
 import com.aizoban.naitokenzai.views.adapters.AddToQueueAdapter;
 import com.aizoban.naitokenzai.views.fragments.AddToQueueFragment;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import rx.Observable;
@@ -124,21 +124,26 @@ public class AddToQueuePresenterImpl implements AddToQueuePresenter {
     @Override
     public void onQueueButtonClick() {
         if (mAddToQueueAdapter != null) {
-            ArrayList<Chapter> chaptersToDownload = new ArrayList<Chapter>();
+            long[] chapterIdsToDownload = new long[mAddToQueueMapper.getCheckedItemCount()];
+            int chapterIdCount = 0;
 
             SparseBooleanArray checkedItems = mAddToQueueMapper.getCheckedItemPositions();
-            for (int index = 0; index < mAddToQueueAdapter.getCount(); index++) {
+            for (int index = 0; index < mAddToQueueAdapter.getCount() && chapterIdCount < chapterIdsToDownload.length; index++) {
                 if (checkedItems.get(index)) {
                     Chapter chapter = (Chapter)mAddToQueueAdapter.getItem(index);
-                    if (chapter != null) {
-                        chaptersToDownload.add(chapter);
+                    if (chapter != null && chapter.getId() != null) {
+                        chapterIdsToDownload[chapterIdCount++] = chapter.getId();
                     }
                 }
             }
 
-            if (chaptersToDownload.size() != 0) {
+            if (chapterIdCount != 0) {
+                if (chapterIdCount < chapterIdsToDownload.length) {
+                    chapterIdsToDownload = Arrays.copyOf(chapterIdsToDownload, chapterIdCount);
+                }
+
                 Intent startService = new Intent(mAddToQueueView.getContext(), DownloadService.class);
-                startService.putExtra(DownloadService.INTENT_QUEUE_DOWNLOAD, chaptersToDownload);
+                startService.putExtra(DownloadService.INTENT_QUEUE_DOWNLOAD, chapterIdsToDownload);
                 mAddToQueueView.getContext().startService(startService);
             }
         }
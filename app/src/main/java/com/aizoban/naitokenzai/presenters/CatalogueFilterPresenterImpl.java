@@ -51,7 +51,8 @@ public class CatalogueFilterPresenterImpl implements CatalogueFilterPresenter {
                     .toBlocking()
                     .single();
 
-            mCatalogueFilterMapper.registerAdapter(new CatalogueFilterAdapter(mCatalogueFilterView.getContext(), availableGenres, mSearchCatalogueWrapper.getGenresArgs()));
+            mCatalogueFilterMapper.registerAdapter(new CatalogueFilterAdapter(mCatalogueFilterView.getContext(), availableGenres, mSearchCatalogueWrapper.getGenresArgs(), mSearchCatalogueWrapper.getExcludedGenresArgs()));
+            mCatalogueFilterMapper.setSelectedGenreMatch(mSearchCatalogueWrapper.getGenreMatchArgs());
             mCatalogueFilterMapper.setSelectedStatus(mSearchCatalogueWrapper.getStatusArgs());
             mCatalogueFilterMapper.setSelectedOrderBy(mSearchCatalogueWrapper.getOrderByArgs());
 
@@ -72,6 +73,8 @@ public class CatalogueFilterPresenterImpl implements CatalogueFilterPresenter {
     public void saveState(Bundle outState) {
         if (mSearchCatalogueWrapper != null) {
             mSearchCatalogueWrapper.setGenresArgs(mCatalogueFilterMapper.getSelectedGenres());
+            mSearchCatalogueWrapper.setExcludedGenresArgs(mCatalogueFilterMapper.getExcludedGenres());
+            mSearchCatalogueWrapper.setGenreMatchArgs(mCatalogueFilterMapper.getSelectedGenreMatch());
             mSearchCatalogueWrapper.setStatusArgs(mCatalogueFilterMapper.getSelectedStatus());
             mSearchCatalogueWrapper.setOrderByArgs(mCatalogueFilterMapper.getSelectedOrderBy());
 
@@ -99,6 +102,8 @@ public class CatalogueFilterPresenterImpl implements CatalogueFilterPresenter {
     @Override
     public void onFilterButtonClick() {
         mSearchCatalogueWrapper.setGenresArgs(mCatalogueFilterMapper.getSelectedGenres());
+        mSearchCatalogueWrapper.setExcludedGenresArgs(mCatalogueFilterMapper.getExcludedGenres());
+        mSearchCatalogueWrapper.setGenreMatchArgs(mCatalogueFilterMapper.getSelectedGenreMatch());
         mSearchCatalogueWrapper.setStatusArgs(mCatalogueFilterMapper.getSelectedStatus());
         mSearchCatalogueWrapper.setOrderByArgs(mCatalogueFilterMapper.getSelectedOrderBy());
 
@@ -108,6 +113,8 @@ public class CatalogueFilterPresenterImpl implements CatalogueFilterPresenter {
     @Override
     public void onClearButtonClick() {
         mCatalogueFilterMapper.setSelectedGenres(new ArrayList<String>());
+        mCatalogueFilterMapper.setExcludedGenres(new ArrayList<String>());
+        mCatalogueFilterMapper.setSelectedGenreMatch(DefaultFactory.SearchCatalogueWrapper.DEFAULT_GENRE_MATCH);
         mCatalogueFilterMapper.setSelectedStatus(DefaultFactory.SearchCatalogueWrapper.DEFAULT_STATUS);
         mCatalogueFilterMapper.setSelectedOrderBy(DefaultFactory.SearchCatalogueWrapper.DEFAULT_ORDER_BY);
     }
@@ -1,13 +1,13 @@
 package com.aizoban.naitokenzai.presenters;
 
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.os.Parcelable;
 import android.support.v4.app.FragmentActivity;
 
 import com.aizoban.naitokenzai.BuildConfig;
 import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.databases.CataloguePager;
 import com.aizoban.naitokenzai.controllers.events.SearchCatalogueWrapperSubmitEvent;
 import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
 import com.aizoban.naitokenzai.models.Manga;
@@ -158,7 +158,7 @@ public class CataloguePresenterImpl implements CataloguePresenter {
     @Override
     public void releaseAllResources() {
         if (mCatalogueAdapter != null) {
-            mCatalogueAdapter.setCursor(null);
+            mCatalogueAdapter.setPager(null);
             mCatalogueAdapter = null;
         }
     }
@@ -209,7 +209,7 @@ public class CataloguePresenterImpl implements CataloguePresenter {
                     .queryCatalogueMangasFromPreferenceSource(mSearchCatalogueWrapper)
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(new Observer<Cursor>() {
+                    .subscribe(new Observer<CataloguePager>() {
                         @Override
                         public void onCompleted() {
                             restorePosition();
@@ -223,12 +223,12 @@ public class CataloguePresenterImpl implements CataloguePresenter {
                         }
 
                         @Override
-                        public void onNext(Cursor cursor) {
+                        public void onNext(CataloguePager cataloguePager) {
                             if (mCatalogueAdapter != null) {
-                                mCatalogueAdapter.setCursor(cursor);
+                                mCatalogueAdapter.setPager(cataloguePager);
                             }
 
-                            if (cursor != null && cursor.getCount() != 0) {
+                            if (cataloguePager != null && cataloguePager.getCount() != 0) {
                                 mCatalogueView.hideEmptyRelativeLayout();
                             } else {
                                 mCatalogueView.showEmptyRelativeLayout();
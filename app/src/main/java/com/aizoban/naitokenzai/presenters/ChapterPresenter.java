@@ -21,6 +21,10 @@ public interface ChapterPresenter {
 
     public void saveChapterToRecentChapters();
 
+    public void onResume();
+
+    public void onPause();
+
     public void destroyAllSubscriptions();
 
     public void onTrimMemory(int level);
@@ -29,6 +33,8 @@ public interface ChapterPresenter {
 
     public void onPageSelected(int position);
 
+    public void onPageLoaded(int position);
+
     public void onFirstPageOut();
 
     public void onLastPageOut();
@@ -9,11 +9,13 @@ import android.support.v4.app.FragmentManager;
 import com.bumptech.glide.Glide;
 import com.aizoban.naitokenzai.BuildConfig;
 import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.caches.StorageGovernor;
 import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.databases.RecentChapter;
 import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
 import com.aizoban.naitokenzai.presenters.mapper.ChapterMapper;
+import com.aizoban.naitokenzai.utils.DownloadUtils;
 import com.aizoban.naitokenzai.utils.PreferenceUtils;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.aizoban.naitokenzai.views.ChapterView;
@@ -27,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 
 import rx.Observable;
 import rx.Observer;
@@ -206,6 +209,20 @@ public class ChapterPresenterOfflineImpl implements ChapterPresenter {
         }
     }
 
+    @Override
+    public void onResume() {
+        if (mRequest != null) {
+            StorageGovernor.getInstance().onChapterOpened(mRequest.getUrl());
+        }
+    }
+
+    @Override
+    public void onPause() {
+        if (mRequest != null) {
+            StorageGovernor.getInstance().onChapterClosed(mRequest.getUrl());
+        }
+    }
+
     @Override
     public void destroyAllSubscriptions() {
         if (mQueryDownloadChapterSubscription != null) {
@@ -235,6 +252,11 @@ public class ChapterPresenterOfflineImpl implements ChapterPresenter {
         mChapterMapper.applyViewSettings();
     }
 
+    @Override
+    public void onPageLoaded(int position) {
+        // Do Nothing.
+    }
+
     @Override
     public void onFirstPageOut() {
         if (mDownloadChapter != null) {
@@ -430,7 +452,14 @@ public class ChapterPresenterOfflineImpl implements ChapterPresenter {
     private void initializeImageUrls(File[] files) {
         mImageUrls = new ArrayList<String>();
 
-        File[] imageFiles = files;
+        List<File> completedFiles = new ArrayList<File>(files.length);
+        for (File file : files) {
+            if (!DownloadUtils.isPartialFile(file)) {
+                completedFiles.add(file);
+            }
+        }
+
+        File[] imageFiles = completedFiles.toArray(new File[completedFiles.size()]);
         Arrays.sort(imageFiles, new Comparator<File>() {
             @Override
             public int compare(File leftFile, File rightFile) {
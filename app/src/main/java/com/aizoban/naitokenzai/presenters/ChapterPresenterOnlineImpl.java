@@ -3,17 +3,23 @@ package com.aizoban.naitokenzai.presenters;
 import android.content.Intent;
 import android.database.Cursor;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.support.v4.app.FragmentActivity;
 import android.support.v4.app.FragmentManager;
+import android.util.Log;
 
 import com.bumptech.glide.Glide;
 import com.aizoban.naitokenzai.BuildConfig;
 import com.aizoban.naitokenzai.controllers.NaitoKenzaiManager;
 import com.aizoban.naitokenzai.controllers.QueryManager;
+import com.aizoban.naitokenzai.controllers.caches.PagePrefetcher;
+import com.aizoban.naitokenzai.controllers.caches.StorageGovernor;
+import com.aizoban.naitokenzai.controllers.downloads.DownloadScheduler;
 import com.aizoban.naitokenzai.controllers.factories.DefaultFactory;
 import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.databases.RecentChapter;
 import com.aizoban.naitokenzai.presenters.mapper.ChapterMapper;
+import com.aizoban.naitokenzai.utils.NetworkUtils;
 import com.aizoban.naitokenzai.utils.PreferenceUtils;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.aizoban.naitokenzai.views.ChapterView;
@@ -22,10 +28,11 @@ import com.aizoban.naitokenzai.views.activities.MangaActivity;
 import com.aizoban.naitokenzai.views.adapters.PagesAdapter;
 import com.aizoban.naitokenzai.views.fragments.ChapterHelpFragment;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
+import rx.Observable;
 import rx.Observer;
 import rx.Subscription;
 import rx.android.schedulers.AndroidSchedulers;
@@ -41,6 +48,10 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
     private static final String INITIALIZED_PARCELABLE_KEY = TAG + ":" + "InitializedParcelableKey";
     private static final String POSITION_PARCELABLE_KEY = TAG + ":" + "PositionParcelableKey";
 
+    private static final int NEXT_CHAPTER_PREFETCH_PAGES = 3;
+
+    private static volatile long sLastTransitionLatency = -1;
+
     private ChapterView mChapterView;
     private ChapterMapper mChapterMapper;
     private PagesAdapter mPagesAdapter;
@@ -54,14 +65,22 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
     private boolean mIsRightToLeftDirection;
     private boolean mIsLockOrientation;
     private boolean mIsLockZoom;
+    private int mNextChapterPrefetchThreshold;
 
     private boolean mInitialized;
     private int mInitialPosition;
+    private long mTransitionStartTime;
+    private boolean mIsNextChapterPrefetched;
 
     private Subscription mQueryChapterSubscription;
     private Subscription mQueryRecentChapterSubscription;
     private Subscription mDownloadImageUrlsSubscription;
 
+    private Subscription mPrefetchNextChapterSubscription;
+
+    private PagePrefetcher mPagePrefetcher;
+    private PagePrefetcher mNextChapterPrefetcher;
+
     public ChapterPresenterOnlineImpl(ChapterView chapterView, ChapterMapper chapterMapper) {
         mChapterView = chapterView;
         mChapterMapper = chapterMapper;
@@ -80,6 +99,11 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
 
                 arguments.removeExtra(ChapterActivity.POSITION_ARGUMENT_KEY);
             }
+            if (arguments.hasExtra(ChapterActivity.TRANSITION_ARGUMENT_KEY)) {
+                mTransitionStartTime = arguments.getLongExtra(ChapterActivity.TRANSITION_ARGUMENT_KEY, 0);
+
+                arguments.removeExtra(ChapterActivity.TRANSITION_ARGUMENT_KEY);
+            }
         }
     }
 
@@ -97,6 +121,7 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
         mIsRightToLeftDirection = PreferenceUtils.isRightToLeftDirection();
         mIsLockOrientation = PreferenceUtils.isLockOrientation();
         mIsLockZoom = PreferenceUtils.isLockZoom();
+        mNextChapterPrefetchThreshold = PreferenceUtils.getNextChapterPrefetchThreshold();
 
         mChapterMapper.applyIsLockOrientation(mIsLockOrientation);
         mChapterMapper.applyIsLockZoom(mIsLockZoom);
@@ -209,6 +234,18 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
         }
     }
 
+    @Override
+    public void onResume() {
+        DownloadScheduler.getInstance().onReaderResumed();
+    }
+
+    @Override
+    public void onPause() {
+        DownloadScheduler.getInstance().onReaderPaused();
+
+        StorageGovernor.getInstance().requestTrim();
+    }
+
     @Override
     public void destroyAllSubscriptions() {
         if (mQueryChapterSubscription != null) {
@@ -223,6 +260,18 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
             mDownloadImageUrlsSubscription.unsubscribe();
             mDownloadImageUrlsSubscription = null;
         }
+        if (mPrefetchNextChapterSubscription != null) {
+            mPrefetchNextChapterSubscription.unsubscribe();
+            mPrefetchNextChapterSubscription = null;
+        }
+        if (mPagePrefetcher != null) {
+            mPagePrefetcher.cancel();
+            mPagePrefetcher = null;
+        }
+        if (mNextChapterPrefetcher != null) {
+            mNextChapterPrefetcher.cancel();
+            mNextChapterPrefetcher = null;
+        }
     }
 
     @Override
@@ -240,6 +289,19 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
         mChapterView.setSubtitlePositionText(getActualPosition() + 1);
 
         mChapterMapper.applyViewSettings();
+
+        if (mPagePrefetcher != null) {
+            mPagePrefetcher.setPosition(getActualPosition());
+        }
+
+        prefetchNextChapter();
+    }
+
+    @Override
+    public void onPageLoaded(int position) {
+        if (position == mChapterMapper.getPosition()) {
+            recordTransitionLatency();
+        }
     }
 
     @Override
@@ -431,7 +493,7 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
             mImageUrls = new ArrayList<String>();
 
             mDownloadImageUrlsSubscription = NaitoKenzaiManager
-                    .pullImageUrlsFromNetwork(mRequest)
+                    .pullImageUrlsFromNetwork(mRequest, true)
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .subscribe(new Observer<String>() {
@@ -448,6 +510,8 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
                             mChapterView.hideEmptyRelativeLayout();
 
                             mInitialized = true;
+
+                            prefetchNextChapter();
                         }
 
                         @Override
@@ -473,39 +537,100 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
 
     private void preLoadImagesToCache() {
         if (!mIsLazyLoading) {
-            if (mDownloadImageUrlsSubscription != null) {
-                mDownloadImageUrlsSubscription.unsubscribe();
-                mDownloadImageUrlsSubscription = null;
+            if (mPagePrefetcher != null) {
+                mPagePrefetcher.cancel();
+                mPagePrefetcher = null;
             }
 
             if (mImageUrls != null) {
                 int displayWidth = mChapterView.getDisplayWidth();
                 int displayHeight = mChapterView.getDisplayHeight();
 
-                mDownloadImageUrlsSubscription = NaitoKenzaiManager
-                        .cacheFromImagesOfSize(mImageUrls, displayWidth, displayHeight)
-                        .subscribe(new Observer<File>() {
-                            @Override
-                            public void onCompleted() {
-                                // Do Nothing.
-                            }
+                mPagePrefetcher = new PagePrefetcher(mImageUrls, displayWidth, displayHeight);
+                mPagePrefetcher.setPosition(getActualPosition());
+            }
+        }
+    }
 
-                            @Override
-                            public void onError(Throwable e) {
-                                if (BuildConfig.DEBUG) {
-                                    e.printStackTrace();
-                                }
-                            }
+    private void prefetchNextChapter() {
+        if (mIsNextChapterPrefetched || mChapter == null || mNextChapterPrefetchThreshold <= 0) {
+            return;
+        }
+        if (mPagesAdapter == null || mPagesAdapter.getCount() == 0) {
+            return;
+        }
+        if ((getActualPosition() + 1) * 100 < mPagesAdapter.getCount() * mNextChapterPrefetchThreshold) {
+            return;
+        }
+        if (!NetworkUtils.isNetworkAvailableForDownloads(mChapterView.getContext())) {
+            return;
+        }
+
+        mIsNextChapterPrefetched = true;
+
+        final String chapterSource = mChapter.getSource();
 
-                            @Override
-                            public void onNext(File file) {
-                                // Do Nothing.
+        mPrefetchNextChapterSubscription = QueryManager
+                .queryAdjacentChapterFromRequestAndNumber(new RequestWrapper(chapterSource, mChapter.getParentUrl()), mChapter.getNumber() + 1)
+                .flatMap(new Func1<Cursor, Observable<List<String>>>() {
+                    @Override
+                    public Observable<List<String>> call(Cursor adjacentCursor) {
+                        if (adjacentCursor != null && adjacentCursor.getCount() != 0) {
+                            Chapter adjacentChapter = QueryManager.toObject(adjacentCursor, Chapter.class);
+
+                            if (adjacentChapter != null) {
+                                return NaitoKenzaiManager
+                                        .pullImageUrlsFromNetwork(new RequestWrapper(chapterSource, adjacentChapter.getUrl()))
+                                        .toList();
                             }
-                        });
+                        }
+
+                        return Observable.empty();
+                    }
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Observer<List<String>>() {
+                    @Override
+                    public void onCompleted() {
+                        // Do Nothing.
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        if (BuildConfig.DEBUG) {
+                            e.printStackTrace();
+                        }
+                    }
+
+                    @Override
+                    public void onNext(List<String> imageUrls) {
+                        if (imageUrls != null && imageUrls.size() != 0) {
+                            int displayWidth = mChapterView.getDisplayWidth();
+                            int displayHeight = mChapterView.getDisplayHeight();
+
+                            mNextChapterPrefetcher = new PagePrefetcher(imageUrls.subList(0, Math.min(NEXT_CHAPTER_PREFETCH_PAGES, imageUrls.size())), displayWidth, displayHeight);
+                            mNextChapterPrefetcher.setPosition(0);
+                        }
+                    }
+                });
+    }
+
+    private void recordTransitionLatency() {
+        if (mTransitionStartTime > 0) {
+            sLastTransitionLatency = SystemClock.elapsedRealtime() - mTransitionStartTime;
+            mTransitionStartTime = 0;
+
+            if (BuildConfig.DEBUG) {
+                Log.d(TAG, "Chapter Transition in " + sLastTransitionLatency + " ms");
             }
         }
     }
 
+    public static long getLastTransitionLatency() {
+        return sLastTransitionLatency;
+    }
+
     private void updateAdapter() {
         if (mImageUrls != null) {
             ArrayList<String> imageUrls = new ArrayList<String>(mImageUrls.size());
@@ -564,6 +689,8 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
 
     private void nextChapter() {
         if (mChapter != null) {
+            final long transitionStartTime = SystemClock.elapsedRealtime();
+
             if (mQueryChapterSubscription != null) {
                 mQueryChapterSubscription.unsubscribe();
                 mQueryChapterSubscription = null;
@@ -606,6 +733,7 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
                         public void onNext(String adjacentChapterUrl) {
                             if (adjacentChapterUrl != null) {
                                 Intent adjacentChapterIntent = ChapterActivity.constructOnlineChapterActivityIntent(mChapterView.getContext(), new RequestWrapper(mChapter.getSource(), adjacentChapterUrl), 0);
+                                adjacentChapterIntent.putExtra(ChapterActivity.TRANSITION_ARGUMENT_KEY, transitionStartTime);
 
                                 mChapterView.finishAndLaunchActivity(adjacentChapterIntent, true);
                             } else {
@@ -620,6 +748,8 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
 
     private void previousChapter() {
         if (mChapter != null) {
+            final long transitionStartTime = SystemClock.elapsedRealtime();
+
             if (mQueryChapterSubscription != null) {
                 mQueryChapterSubscription.unsubscribe();
                 mQueryChapterSubscription = null;
@@ -662,6 +792,7 @@ public class ChapterPresenterOnlineImpl implements ChapterPresenter {
                         public void onNext(String adjacentChapterUrl) {
                             if (adjacentChapterUrl != null) {
                                 Intent adjacentChapterIntent = ChapterActivity.constructOnlineChapterActivityIntent(mChapterView.getContext(), new RequestWrapper(mChapter.getSource(), adjacentChapterUrl), 0);
+                                adjacentChapterIntent.putExtra(ChapterActivity.TRANSITION_ARGUMENT_KEY, transitionStartTime);
 
                                 mChapterView.finishAndLaunchActivity(adjacentChapterIntent, true);
                             } else {
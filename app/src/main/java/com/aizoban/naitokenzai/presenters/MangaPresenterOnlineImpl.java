@@ -15,6 +15,7 @@ import com.aizoban.naitokenzai.models.Chapter;
 import com.aizoban.naitokenzai.models.Manga;
 import com.aizoban.naitokenzai.models.databases.RecentChapter;
 import com.aizoban.naitokenzai.presenters.mapper.MangaMapper;
+import com.aizoban.naitokenzai.utils.wrappers.MangaUpdateWrapper;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.aizoban.naitokenzai.views.MangaView;
 import com.aizoban.naitokenzai.views.activities.ChapterActivity;
@@ -30,7 +31,6 @@ import rx.Observer;
 import rx.Subscription;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
-import rx.functions.Func2;
 import rx.functions.Func3;
 import rx.schedulers.Schedulers;
 
@@ -404,33 +404,20 @@ public class MangaPresenterOnlineImpl implements MangaPresenter {
         if (mRequest != null) {
             mMangaView.showRefreshing();
 
-            Observable<Manga> updateMangaFromUrl = NaitoKenzaiManager
-                    .pullMangaFromNetwork(mRequest);
-            Observable<List<Chapter>> updateChaptersFromUrl = NaitoKenzaiManager
-                    .pullChaptersFromNetwork(mRequest)
-                    .onErrorReturn(new Func1<Throwable, List<Chapter>>() {
-                        @Override
-                        public List<Chapter> call(Throwable throwable) {
-                            // Swallow Error with Empty Chapter List.
-                            return null;
-                        }
-                    });
-
-            mUpdateSubscription = Observable.zip(updateMangaFromUrl, updateChaptersFromUrl,
-                    new Func2<Manga, List<Chapter>, Pair<Manga, List<Chapter>>>() {
-                        @Override
-                        public Pair<Manga, List<Chapter>> call(Manga manga, List<Chapter> chapterList) {
-                            return Pair.create(manga, chapterList);
-                        }
-                    })
+            mUpdateSubscription = NaitoKenzaiManager
+                    .pullMangaAndChaptersFromNetwork(mRequest)
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(new Observer<Pair<Manga, List<Chapter>>>() {
+                    .subscribe(new Observer<MangaUpdateWrapper>() {
+                        private boolean mIsModified;
+
                         @Override
                         public void onCompleted() {
                             mMangaView.hideRefreshing();
 
-                            queryBothMangaAndChaptersFromUrl();
+                            if (mIsModified || !mInitialized) {
+                                queryBothMangaAndChaptersFromUrl();
+                            }
 
                             mInitialized = true;
                         }
@@ -446,8 +433,8 @@ public class MangaPresenterOnlineImpl implements MangaPresenter {
                         }
 
                         @Override
-                        public void onNext(Pair<Manga, List<Chapter>> mangaListPair) {
-                            // Do Nothing.
+                        public void onNext(MangaUpdateWrapper mangaUpdateWrapper) {
+                            mIsModified = mangaUpdateWrapper.isModified();
                         }
                     });
         }
@@ -27,6 +27,8 @@ public interface QueuePresenter {
 
     public void onOptionCancel();
 
+    public void onOptionDownloadFirst();
+
     public void onOptionSelectAll();
 
     public void onOptionClear();
@@ -9,6 +9,7 @@ import android.util.SparseBooleanArray;
 import com.aizoban.naitokenzai.BuildConfig;
 import com.aizoban.naitokenzai.controllers.QueryManager;
 import com.aizoban.naitokenzai.controllers.downloads.DownloadService;
+import com.aizoban.naitokenzai.controllers.events.DownloadChapterProgressEvent;
 import com.aizoban.naitokenzai.controllers.events.DownloadChapterUpdateEvent;
 import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
 import com.aizoban.naitokenzai.presenters.mapper.QueueMapper;
@@ -76,6 +77,14 @@ public class QueuePresenterImpl implements QueuePresenter {
         }
     }
 
+    public void onEventMainThread(DownloadChapterProgressEvent event) {
+        if (event != null && event.getCurrentPages() != null && mQueueAdapter != null) {
+            mQueueAdapter.updateCurrentPages(event.getCurrentPages());
+
+            mQueueMapper.refreshCurrentPages(event.getCurrentPages());
+        }
+    }
+
     @Override
     public void unregisterForEvents() {
         EventBus.getDefault().unregister(this);
@@ -157,6 +166,28 @@ public class QueuePresenterImpl implements QueuePresenter {
         }
     }
 
+    @Override
+    public void onOptionDownloadFirst() {
+        if (mQueueAdapter != null) {
+            ArrayList<DownloadChapter> downloadChaptersToPrioritize = new ArrayList<DownloadChapter>();
+
+            SparseBooleanArray checkedItems = mQueueMapper.getCheckedItemPositions();
+            for (int index = 0; index < mQueueAdapter.getCount(); index++) {
+                if (checkedItems.get(index)) {
+                    DownloadChapter downloadChapter = (DownloadChapter)mQueueAdapter.getItem(index);
+                    if (downloadChapter != null) {
+                        downloadChapter.setPriority(DownloadUtils.PRIORITY_FIRST);
+                        downloadChaptersToPrioritize.add(downloadChapter);
+                    }
+                }
+            }
+
+            Intent startService = new Intent(mQueueView.getContext(), DownloadService.class);
+            startService.putExtra(DownloadService.INTENT_PRIORITIZE_DOWNLOAD, downloadChaptersToPrioritize);
+            mQueueView.getContext().startService(startService);
+        }
+    }
+
     @Override
     public void onOptionSelectAll() {
         mQueueView.selectAll();
@@ -12,6 +12,14 @@ public interface CatalogueFilterMapper {
 
     public void setSelectedGenres(List<String> selectedGenres);
 
+    public List<String> getExcludedGenres();
+
+    public void setExcludedGenres(List<String> excludedGenres);
+
+    public String getSelectedGenreMatch();
+
+    public void setSelectedGenreMatch(String selectedGenreMatch);
+
     public String getSelectedStatus();
 
     public void setSelectedStatus(String selectedStatus);
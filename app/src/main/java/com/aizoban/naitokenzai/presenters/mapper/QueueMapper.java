@@ -4,11 +4,15 @@ import android.os.Parcelable;
 import android.util.SparseBooleanArray;
 import android.widget.BaseAdapter;
 
+import java.util.Map;
+
 public interface QueueMapper {
     public void registerAdapter(BaseAdapter adapter);
 
     public SparseBooleanArray getCheckedItemPositions();
 
+    public void refreshCurrentPages(Map<Long, Integer> currentPages);
+
     public Parcelable getPositionState();
 
     public void setPositionState(Parcelable state);
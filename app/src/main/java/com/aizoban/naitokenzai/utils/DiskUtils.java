@@ -1,13 +1,16 @@
 package com.aizoban.naitokenzai.utils;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
 public class DiskUtils {
     public static String hashKeyForDisk(String key) {
         String cacheKey;
@@ -33,50 +36,110 @@ public class DiskUtils {
         return sb.toString();
     }
 
-    public static File saveInputStreamToDirectory(InputStream inputStream, String directory, String name) throws IOException {
-        File fileDirectory = new File(directory);
-        if (!fileDirectory.exists()) {
+    public static long writeSourceToFile(BufferedSource source, File writeFile, boolean append) throws IOException {
+        File fileDirectory = writeFile.getParentFile();
+        if (fileDirectory != null && !fileDirectory.exists()) {
             if (!fileDirectory.mkdirs()) {
                 throw new IOException("Failed Creating  Directory");
             }
         }
 
-        File writeFile = new File(fileDirectory, name);
-        if (writeFile.exists()) {
-            if (writeFile.delete()) {
-                writeFile = new File(fileDirectory, name);
-            } else {
+        BufferedSink sink = null;
+
+        try {
+            FileOutputStream outputStream = new FileOutputStream(writeFile, append);
+            sink = Okio.buffer(Okio.sink(outputStream));
+
+            long byteCount = sink.writeAll(source);
+            sink.flush();
+
+            outputStream.getFD().sync();
+
+            return byteCount;
+        } finally {
+            source.close();
+
+            if (sink != null) {
+                sink.close();
+            }
+        }
+    }
+
+    public static File moveFile(File sourceFile, File destinationFile) throws IOException {
+        if (destinationFile.exists()) {
+            if (!destinationFile.delete()) {
                 throw new IOException("Failed Deleting Existing File for Overwrite");
             }
         }
 
-        OutputStream outputStream = null;
+        if (!sourceFile.renameTo(destinationFile)) {
+            throw new IOException("Failed Renaming " + sourceFile.getName() + " to " + destinationFile.getName());
+        }
+
+        return destinationFile;
+    }
+
+    public static String readStringFromFile(File readFile) {
+        if (!readFile.exists()) {
+            return null;
+        }
+
+        BufferedSource source = null;
 
         try {
-            outputStream = new FileOutputStream(writeFile);
+            source = Okio.buffer(Okio.source(new FileInputStream(readFile)));
 
-            byte[] fileBuffer= new byte[1024];
-            for (int counter = 0; counter != -1; counter = inputStream.read(fileBuffer, 0, 1024)) {
-                outputStream.write(fileBuffer, 0, counter);
+            return source.readUtf8();
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (source != null) {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    // Do Nothing.
+                }
             }
+        }
+    }
+
+    public static void writeStringToFile(String string, File writeFile) throws IOException {
+        BufferedSink sink = null;
 
-            outputStream.flush();
+        try {
+            sink = Okio.buffer(Okio.sink(new FileOutputStream(writeFile)));
+            sink.writeUtf8(string);
         } finally {
-            if (inputStream != null) {
-                inputStream.close();
+            if (sink != null) {
+                sink.close();
             }
-            if (outputStream != null) {
-                outputStream.close();
+        }
+    }
+
+    public static long sizeOfFiles(File inputFile) {
+        if (inputFile.isDirectory()) {
+            long totalSize = 0;
+
+            File[] childFiles = inputFile.listFiles();
+            if (childFiles != null) {
+                for (File childFile : childFiles) {
+                    totalSize += sizeOfFiles(childFile);
+                }
             }
+
+            return totalSize;
         }
 
-        return writeFile;
+        return inputFile.length();
     }
 
     public static void deleteFiles(File inputFile) {
         if (inputFile.isDirectory()) {
-            for (File childFile : inputFile.listFiles()) {
-                deleteFiles(childFile);
+            File[] childFiles = inputFile.listFiles();
+            if (childFiles != null) {
+                for (File childFile : childFiles) {
+                    deleteFiles(childFile);
+                }
             }
         }
 
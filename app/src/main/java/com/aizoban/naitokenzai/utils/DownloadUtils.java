@@ -1,5 +1,10 @@
 package com.aizoban.naitokenzai.utils;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class DownloadUtils {
     public static final long TIMEOUT = 100;
 
@@ -9,4 +14,56 @@ public class DownloadUtils {
     public static final int FLAG_RUNNING = 100;
     public static final int FLAG_COMPLETED = 200;
     public static final int FLAG_CANCELED = 1337;
+
+    public static final int PRIORITY_FIRST = 100;
+
+    public static final int QUEUE_PROGRESS_INTERVAL = 50;
+
+    public static final String PARTIAL_FILE_EXTENSION = ".part";
+    public static final String ENTITY_TAG_FILE_EXTENSION = ".etag";
+
+    private static final String PAGE_URL_SEPARATOR = "\n";
+
+    public static boolean isPartialFile(File file) {
+        String fileName = file.getName();
+
+        return fileName.endsWith(PARTIAL_FILE_EXTENSION) || fileName.endsWith(ENTITY_TAG_FILE_EXTENSION);
+    }
+
+    public static String joinPageUrls(List<String> pageUrls) {
+        StringBuilder joinedPageUrls = new StringBuilder();
+
+        for (int index = 0; index < pageUrls.size(); index++) {
+            if (index > 0) {
+                joinedPageUrls.append(PAGE_URL_SEPARATOR);
+            }
+            joinedPageUrls.append(pageUrls.get(index));
+        }
+
+        return joinedPageUrls.toString();
+    }
+
+    public static List<String> splitPageUrls(String joinedPageUrls) {
+        if (joinedPageUrls == null || joinedPageUrls.length() == 0) {
+            return new ArrayList<String>();
+        }
+
+        return new ArrayList<String>(Arrays.asList(joinedPageUrls.split(PAGE_URL_SEPARATOR)));
+    }
+
+    public static byte[] constructCompletedPages(int totalPages) {
+        return new byte[(totalPages + 7) / 8];
+    }
+
+    public static boolean isPageCompleted(byte[] completedPages, int pageIndex) {
+        if (completedPages == null || pageIndex / 8 >= completedPages.length) {
+            return false;
+        }
+
+        return (completedPages[pageIndex / 8] & (1 << (pageIndex % 8))) != 0;
+    }
+
+    public static void setPageCompleted(byte[] completedPages, int pageIndex) {
+        completedPages[pageIndex / 8] |= (1 << (pageIndex % 8));
+    }
 }
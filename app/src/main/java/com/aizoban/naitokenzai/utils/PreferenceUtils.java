@@ -73,6 +73,19 @@ public class PreferenceUtils {
         editor.commit();
     }
 
+    public static int getNextChapterPrefetchThreshold() {
+        Context context = NaitoKenzaiApplication.getInstance();
+
+        SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(context);
+        String prefetchThreshold = sharedPreferences.getString(context.getString(R.string.preference_next_chapter_prefetch_key), context.getString(R.string.preference_next_chapter_prefetch_default_value));
+
+        try {
+            return Integer.parseInt(prefetchThreshold);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     public static boolean isWiFiOnly() {
         Context context = NaitoKenzaiApplication.getInstance();
 
@@ -86,4 +99,17 @@ public class PreferenceUtils {
         SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(context);
         return sharedPreferences.getBoolean(context.getString(R.string.preference_download_directory_key), false);
     }
+
+    public static long getStorageBudget() {
+        Context context = NaitoKenzaiApplication.getInstance();
+
+        SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(context);
+        String storageBudget = sharedPreferences.getString(context.getString(R.string.preference_storage_budget_key), context.getString(R.string.preference_storage_budget_default_value));
+
+        try {
+            return Long.parseLong(storageBudget) * 1024 * 1024;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 }
@@ -11,4 +11,33 @@ public class SearchUtils {
 
     public static final String ORDER_BY_NAME = LibraryContract.Manga.COLUMN_NAME;
     public static final String ORDER_BY_RANK = LibraryContract.Manga.COLUMN_RANK;
+
+    public static final String GENRE_MATCH_ALL = "AND";
+    public static final String GENRE_MATCH_ANY = "OR";
+
+    private static final String TOKEN_SEPARATOR = "[^\\p{L}\\p{N}]+";
+
+    public static String constructPrefixMatch(String column, String query) {
+        StringBuilder prefixMatch = new StringBuilder();
+
+        for (String token : query.split(TOKEN_SEPARATOR)) {
+            if (token.length() > 0) {
+                if (prefixMatch.length() > 0) {
+                    prefixMatch.append(" ");
+                }
+                prefixMatch.append(column).append(":").append(token).append("*");
+            }
+        }
+
+        return prefixMatch.toString();
+    }
+
+    // Matches One Entry of the Comma Separated Genre Column the Same Way the GenreMask Triggers Do.
+    public static String constructGenreTextMatch() {
+        return "(',' || REPLACE(" + LibraryContract.Manga.COLUMN_GENRE + ", ' ', '') || ',') LIKE ?";
+    }
+
+    public static String constructGenreTextPattern(String genre) {
+        return "%," + genre.replace(" ", "") + ",%";
+    }
 }
@@ -0,0 +1,29 @@
+package com.aizoban.naitokenzai.utils.wrappers;
+
+public class ChapterMergeWrapper {
+    private final int mNewCount;
+    private final int mChangedCount;
+    private final int mRemovedCount;
+
+    public ChapterMergeWrapper(int newCount, int changedCount, int removedCount) {
+        mNewCount = newCount;
+        mChangedCount = changedCount;
+        mRemovedCount = removedCount;
+    }
+
+    public int getNewCount() {
+        return mNewCount;
+    }
+
+    public int getChangedCount() {
+        return mChangedCount;
+    }
+
+    public int getRemovedCount() {
+        return mRemovedCount;
+    }
+
+    public boolean isUnchanged() {
+        return mNewCount == 0 && mChangedCount == 0 && mRemovedCount == 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.aizoban.naitokenzai.utils.wrappers;
+
+import com.aizoban.naitokenzai.models.Chapter;
+import com.aizoban.naitokenzai.models.Manga;
+
+import java.util.List;
+
+public class MangaUpdateWrapper {
+    private final Manga mManga;
+    private final List<Chapter> mChapters;
+    private final boolean mIsModified;
+
+    public MangaUpdateWrapper(Manga manga, List<Chapter> chapters) {
+        mManga = manga;
+        mChapters = chapters;
+        mIsModified = true;
+    }
+
+    private MangaUpdateWrapper() {
+        mManga = null;
+        mChapters = null;
+        mIsModified = false;
+    }
+
+    public static MangaUpdateWrapper constructNotModified() {
+        return new MangaUpdateWrapper();
+    }
+
+    public Manga getManga() {
+        return mManga;
+    }
+
+    public List<Chapter> getChapters() {
+        return mChapters;
+    }
+
+    public boolean isModified() {
+        return mIsModified;
+    }
+}
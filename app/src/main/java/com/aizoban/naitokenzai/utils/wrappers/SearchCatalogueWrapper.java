@@ -26,6 +26,8 @@ public class SearchCatalogueWrapper implements Parcelable {
     private String mStatusArgs;
     private String mOrderByArgs;
     private List<String> mGenresArgs;
+    private List<String> mExcludedGenresArgs;
+    private String mGenreMatchArgs;
 
     public SearchCatalogueWrapper() {
     }
@@ -37,6 +39,11 @@ public class SearchCatalogueWrapper implements Parcelable {
 
         mGenresArgs = new ArrayList<String>();
         inputParcel.readStringList(mGenresArgs);
+
+        mExcludedGenresArgs = new ArrayList<String>();
+        inputParcel.readStringList(mExcludedGenresArgs);
+
+        mGenreMatchArgs = inputParcel.readString();
     }
 
     public String getNameArgs() {
@@ -71,6 +78,22 @@ public class SearchCatalogueWrapper implements Parcelable {
         mGenresArgs = genresArgs;
     }
 
+    public List<String> getExcludedGenresArgs() {
+        return mExcludedGenresArgs;
+    }
+
+    public void setExcludedGenresArgs(List<String> excludedGenresArgs) {
+        mExcludedGenresArgs = excludedGenresArgs;
+    }
+
+    public String getGenreMatchArgs() {
+        return mGenreMatchArgs;
+    }
+
+    public void setGenreMatchArgs(String genreMatchArgs) {
+        mGenreMatchArgs = genreMatchArgs;
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -82,5 +105,7 @@ public class SearchCatalogueWrapper implements Parcelable {
         outputParcel.writeString(mStatusArgs);
         outputParcel.writeString(mOrderByArgs);
         outputParcel.writeStringList(mGenresArgs);
+        outputParcel.writeStringList(mExcludedGenresArgs);
+        outputParcel.writeString(mGenreMatchArgs);
     }
 }
@@ -34,15 +34,17 @@ import com.aizoban.naitokenzai.presenters.ChapterPresenterOnlineImpl;
 import com.aizoban.naitokenzai.presenters.mapper.ChapterMapper;
 import com.aizoban.naitokenzai.utils.wrappers.RequestWrapper;
 import com.aizoban.naitokenzai.views.ChapterView;
+import com.aizoban.naitokenzai.views.fragments.PageFragment;
 import com.aizoban.naitokenzai.views.widgets.GestureViewPager;
 import com.melnykov.fab.FloatingActionButton;
 
-public class ChapterActivity extends AppCompatActivity implements ChapterView, ChapterMapper {
+public class ChapterActivity extends AppCompatActivity implements ChapterView, ChapterMapper, PageFragment.OnPageLoadListener {
     public static final String TAG = ChapterActivity.class.getSimpleName();
 
     public static final String PRESENTER_ARGUMENT_KEY = TAG + ":" + "PresenterArgumentKey";
     public static final String REQUEST_ARGUMENT_KEY = TAG + ":" + "RequestArgumentKey";
     public static final String POSITION_ARGUMENT_KEY = TAG + ":" + "PositionArgumentKey";
+    public static final String TRANSITION_ARGUMENT_KEY = TAG + ":" + "TransitionArgumentKey";
 
     private ChapterPresenter mChapterPresenter;
 
@@ -111,11 +113,19 @@ public class ChapterActivity extends AppCompatActivity implements ChapterView, C
         mChapterPresenter.initializeDataFromUrl(getSupportFragmentManager());
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+
+        mChapterPresenter.onResume();
+    }
+
     @Override
     protected void onPause() {
         super.onPause();
 
         mChapterPresenter.saveChapterToRecentChapters();
+        mChapterPresenter.onPause();
     }
 
     @Override
@@ -480,4 +490,11 @@ public class ChapterActivity extends AppCompatActivity implements ChapterView, C
             mViewPager.setIsLockZoom(isLockZoom);
         }
     }
+
+    // PageFragment.OnPageLoadListener:
+
+    @Override
+    public void onPageLoaded(int position) {
+        mChapterPresenter.onPageLoaded(position);
+    }
 }
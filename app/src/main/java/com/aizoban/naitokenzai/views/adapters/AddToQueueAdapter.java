@@ -34,7 +34,7 @@ public class AddToQueueAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        Chapter currentChapter = (Chapter) getItem(position);
+        Chapter currentChapter = (Chapter) getItemForView(position);
         viewHolder.renderView(currentChapter);
 
         return currentView;
@@ -4,6 +4,8 @@ import android.content.Context;
 import android.database.Cursor;
 import android.widget.BaseAdapter;
 
+import com.aizoban.naitokenzai.controllers.databases.mappers.CursorMapper;
+
 import static nl.qbusict.cupboard.CupboardFactory.cupboard;
 
 public abstract class BaseCursorAdapter extends BaseAdapter {
@@ -12,11 +14,19 @@ public abstract class BaseCursorAdapter extends BaseAdapter {
     protected Class<?> mClassType;
     protected Cursor mCursor;
 
+    private CursorMapper<Object> mCursorMapper;
+    private Object mReusableItem;
+
+    @SuppressWarnings("unchecked")
     public BaseCursorAdapter(Context context, Class<?> classType) {
         mContext = context;
 
         mClassType = classType;
         mCursor = null;
+
+        if (classType != null) {
+            mCursorMapper = (CursorMapper) CursorMapper.forClass(classType);
+        }
     }
 
     @Override
@@ -33,7 +43,9 @@ public abstract class BaseCursorAdapter extends BaseAdapter {
         if (mCursor != null) {
             mCursor.moveToPosition(position);
 
-            if (mClassType != null) {
+            if (mCursorMapper != null) {
+                return mCursorMapper.mapRow(mCursor, null);
+            } else if (mClassType != null) {
                 return cupboard().withCursor(mCursor).get(mClassType);
             }
         }
@@ -41,6 +53,18 @@ public abstract class BaseCursorAdapter extends BaseAdapter {
         return null;
     }
 
+    protected Object getItemForView(int position) {
+        if (mCursor != null && mCursorMapper != null) {
+            mCursor.moveToPosition(position);
+
+            mReusableItem = mCursorMapper.mapRow(mCursor, mReusableItem);
+
+            return mReusableItem;
+        }
+
+        return getItem(position);
+    }
+
     @Override
     public long getItemId(int position) {
         return position;
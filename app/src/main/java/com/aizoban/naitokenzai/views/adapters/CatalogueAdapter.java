@@ -7,6 +7,7 @@ import android.graphics.drawable.GradientDrawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.BaseAdapter;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
@@ -15,26 +16,77 @@ import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.request.animation.GlideAnimation;
 import com.aizoban.naitokenzai.R;
+import com.aizoban.naitokenzai.controllers.databases.CataloguePager;
 import com.aizoban.naitokenzai.models.Manga;
 import com.aizoban.naitokenzai.utils.PaletteBitmapTarget;
 import com.aizoban.naitokenzai.utils.PaletteBitmapTranscoder;
 import com.aizoban.naitokenzai.utils.PaletteUtils;
 import com.aizoban.naitokenzai.utils.wrappers.PaletteBitmapWrapper;
 
-public class CatalogueAdapter extends BaseCursorAdapter {
+public class CatalogueAdapter extends BaseAdapter implements CataloguePager.OnPageLoadListener {
+    private Context mContext;
+
+    private CataloguePager mCataloguePager;
+
     public CatalogueAdapter(Context context) {
-        super(context, Manga.class);
+        mContext = context;
     }
 
     @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        if (mCursor == null) {
-            throw new IllegalStateException("Null Cursor");
+    public int getCount() {
+        if (mCataloguePager != null) {
+            return mCataloguePager.getCount();
+        } else {
+            return 0;
+        }
+    }
+
+    @Override
+    public Object getItem(int position) {
+        if (mCataloguePager != null) {
+            return mCataloguePager.getManga(position);
+        }
+
+        return null;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    public void setPager(CataloguePager newCataloguePager) {
+        if (mCataloguePager == newCataloguePager) {
+            return;
+        }
+
+        if (mCataloguePager != null) {
+            mCataloguePager.setOnPageLoadListener(null);
+        }
+
+        mCataloguePager = newCataloguePager;
+        if (mCataloguePager != null) {
+            mCataloguePager.setOnPageLoadListener(this);
+
+            notifyDataSetChanged();
+        } else {
+            notifyDataSetInvalidated();
         }
-        if (!mCursor.moveToPosition(position)) {
-            throw new IllegalStateException("Can't Move Cursor to Position " + position);
+    }
+
+    @Override
+    public void onPageLoad() {
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        if (mCataloguePager == null) {
+            throw new IllegalStateException("Null Pager");
         }
 
+        Manga currentManga = (Manga) getItem(position);
+
         ViewHolder viewHolder;
         View currentView = convertView;
 
@@ -46,8 +98,11 @@ public class CatalogueAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        Manga currentManga = (Manga) getItem(position);
-        viewHolder.renderView(mContext, currentManga);
+        if (currentManga != null) {
+            viewHolder.renderView(mContext, currentManga);
+        } else {
+            viewHolder.renderPlaceholder(mContext);
+        }
 
         return currentView;
     }
@@ -72,6 +127,20 @@ public class CatalogueAdapter extends BaseCursorAdapter {
             setThumbnail(context, manga.getThumbnailUrl(), context.getResources().getColor(R.color.accentPinkA200));
         }
 
+        public void renderPlaceholder(Context context) {
+            setName(null);
+            setMask(context.getResources().getColor(R.color.Black500));
+            setFooter(context.getResources().getColor(R.color.Black500));
+
+            Glide.clear(mThumbnailImageView);
+
+            Drawable placeHolderDrawable = context.getResources().getDrawable(R.drawable.ic_image_white_48dp);
+            placeHolderDrawable.setColorFilter(context.getResources().getColor(R.color.accentPinkA200), PorterDuff.Mode.MULTIPLY);
+
+            mThumbnailImageView.setScaleType(ImageView.ScaleType.CENTER);
+            mThumbnailImageView.setImageDrawable(placeHolderDrawable);
+        }
+
         private void setThumbnail(Context context, String thumbnailUrl, final int defaultColor) {
             mThumbnailImageView.setScaleType(ImageView.ScaleType.CENTER);
 
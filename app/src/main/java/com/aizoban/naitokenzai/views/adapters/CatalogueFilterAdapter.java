@@ -1,12 +1,12 @@
 package com.aizoban.naitokenzai.views.adapters;
 
 import android.content.Context;
+import android.graphics.Paint;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
 import android.widget.CheckBox;
-import android.widget.CompoundButton;
 
 import com.aizoban.naitokenzai.R;
 
@@ -17,28 +17,33 @@ public class CatalogueFilterAdapter extends BaseAdapter {
 
     private List<String> mAvailableGenres;
     private List<String> mSelectedGenres;
-    private CompoundButton.OnCheckedChangeListener mOnCheckedChangeListener = new CompoundButton.OnCheckedChangeListener() {
+    private List<String> mExcludedGenres;
+    private View.OnClickListener mOnClickListener = new View.OnClickListener() {
         @Override
-        public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
-            String currentName = buttonView.getText().toString();
-
-            if (isChecked) {
-                if (!mSelectedGenres.contains(currentName)) {
-                    mSelectedGenres.add(currentName);
-                }
+        public void onClick(View view) {
+            CheckBox genreCheckBox = (CheckBox) view;
+            String currentName = genreCheckBox.getText().toString();
+
+            // Each Tap Cycles a Genre Through Included, Excluded and Ignored.
+            if (mSelectedGenres.contains(currentName)) {
+                mSelectedGenres.remove(currentName);
+                mExcludedGenres.add(currentName);
+            } else if (mExcludedGenres.contains(currentName)) {
+                mExcludedGenres.remove(currentName);
             } else {
-                if (mSelectedGenres.contains(currentName)) {
-                    mSelectedGenres.remove(currentName);
-                }
+                mSelectedGenres.add(currentName);
             }
+
+            ((ViewHolder) genreCheckBox.getTag()).renderView(currentName, mSelectedGenres.contains(currentName), mExcludedGenres.contains(currentName));
         }
     };
 
-    public CatalogueFilterAdapter(Context context, List<String> availableGenres, List<String> selectedGenres) {
+    public CatalogueFilterAdapter(Context context, List<String> availableGenres, List<String> selectedGenres, List<String> excludedGenres) {
         mContext = context;
 
         mAvailableGenres = availableGenres;
         mSelectedGenres = selectedGenres;
+        mExcludedGenres = excludedGenres;
     }
 
     @Override
@@ -71,9 +76,10 @@ public class CatalogueFilterAdapter extends BaseAdapter {
 
         String genreName = mAvailableGenres.get(position);
         boolean genreChecked = mSelectedGenres.contains(genreName);
+        boolean genreExcluded = mExcludedGenres.contains(genreName);
 
-        viewHolder.renderView(genreName, genreChecked);
-        viewHolder.attachOnCheckedChangeListener(mOnCheckedChangeListener);
+        viewHolder.renderView(genreName, genreChecked, genreExcluded);
+        viewHolder.attachOnClickListener(mOnClickListener);
 
         return currentView;
     }
@@ -88,6 +94,16 @@ public class CatalogueFilterAdapter extends BaseAdapter {
         notifyDataSetChanged();
     }
 
+    public List<String> getExcludedGenres() {
+        return mExcludedGenres;
+    }
+
+    public void setExcludedGenres(List<String> excludedGenres) {
+        mExcludedGenres = excludedGenres;
+
+        notifyDataSetChanged();
+    }
+
     private static class ViewHolder {
         private CheckBox mCheckBox;
 
@@ -95,13 +111,19 @@ public class CatalogueFilterAdapter extends BaseAdapter {
             mCheckBox = (CheckBox) itemView.findViewById(R.id.genreCheckBox);
         }
 
-        public void renderView(String name, boolean isChecked) {
+        public void renderView(String name, boolean isChecked, boolean isExcluded) {
             mCheckBox.setText(name);
             mCheckBox.setChecked(isChecked);
+
+            if (isExcluded) {
+                mCheckBox.setPaintFlags(mCheckBox.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
+            } else {
+                mCheckBox.setPaintFlags(mCheckBox.getPaintFlags() & ~Paint.STRIKE_THRU_TEXT_FLAG);
+            }
         }
 
-        public void attachOnCheckedChangeListener(CompoundButton.OnCheckedChangeListener listener) {
-            mCheckBox.setOnCheckedChangeListener(listener);
+        public void attachOnClickListener(View.OnClickListener listener) {
+            mCheckBox.setOnClickListener(listener);
         }
     }
 }
@@ -53,7 +53,7 @@ public class ChapterListingsAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        Chapter currentChapter = (Chapter) getItem(position);
+        Chapter currentChapter = (Chapter) getItemForView(position);
         if (mRecentChapterUrls != null && mRecentChapterUrls.contains(currentChapter.getUrl())) {
             viewHolder.renderView(currentChapter, mContext.getResources().getColor(R.color.secondaryText), true);
         } else {
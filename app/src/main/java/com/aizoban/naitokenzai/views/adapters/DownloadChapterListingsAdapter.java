@@ -51,7 +51,7 @@ public class DownloadChapterListingsAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        DownloadChapter currentDownloadChapter = (DownloadChapter) getItem(position);
+        DownloadChapter currentDownloadChapter = (DownloadChapter) getItemForView(position);
         if (mRecentChapterUrls != null && mRecentChapterUrls.contains(currentDownloadChapter.getUrl())) {
             viewHolder.renderView(currentDownloadChapter, mContext.getResources().getColor(R.color.secondaryText), true);
         } else {
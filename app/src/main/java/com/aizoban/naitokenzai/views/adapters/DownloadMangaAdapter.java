@@ -43,7 +43,7 @@ public class DownloadMangaAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        DownloadManga currentDownloadManga = (DownloadManga) getItem(position);
+        DownloadManga currentDownloadManga = (DownloadManga) getItemForView(position);
         viewHolder.renderView(mContext, currentDownloadManga);
 
         return currentView;
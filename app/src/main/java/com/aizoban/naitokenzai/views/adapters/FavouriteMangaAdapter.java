@@ -43,7 +43,7 @@ public class FavouriteMangaAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        FavouriteManga currentFavouriteManga = (FavouriteManga) getItem(position);
+        FavouriteManga currentFavouriteManga = (FavouriteManga) getItemForView(position);
         viewHolder.renderView(mContext, currentFavouriteManga);
 
         return currentView;
@@ -52,7 +52,7 @@ public class LatestMangaAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        Manga currentManga = (Manga) getItem(position);
+        Manga currentManga = (Manga) getItemForView(position);
         viewHolder.renderView(mContext, currentManga);
 
         return currentView;
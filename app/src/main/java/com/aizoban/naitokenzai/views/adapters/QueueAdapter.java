@@ -1,6 +1,7 @@
 package com.aizoban.naitokenzai.views.adapters;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,9 +11,38 @@ import com.aizoban.naitokenzai.R;
 import com.aizoban.naitokenzai.models.downloads.DownloadChapter;
 import com.aizoban.naitokenzai.utils.DownloadUtils;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class QueueAdapter extends BaseCursorAdapter {
+    private Map<Long, Integer> mCurrentPages;
+
     public QueueAdapter(Context context) {
         super(context, DownloadChapter.class);
+
+        mCurrentPages = new HashMap<Long, Integer>();
+    }
+
+    @Override
+    public void setCursor(Cursor newCursor) {
+        mCurrentPages.clear();
+
+        super.setCursor(newCursor);
+    }
+
+    public void updateCurrentPages(Map<Long, Integer> currentPages) {
+        mCurrentPages.putAll(currentPages);
+    }
+
+    public void refreshCurrentPage(View itemView, Map<Long, Integer> currentPages) {
+        if (itemView != null && itemView.getTag() instanceof ViewHolder) {
+            ViewHolder viewHolder = (ViewHolder) itemView.getTag();
+
+            Integer currentPage = currentPages.get(viewHolder.getDownloadChapterId());
+            if (currentPage != null) {
+                viewHolder.renderCurrentPage(mContext, currentPage);
+            }
+        }
     }
 
     @Override
@@ -35,7 +65,12 @@ public class QueueAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        DownloadChapter currentDownloadChapter = (DownloadChapter) getItem(position);
+        DownloadChapter currentDownloadChapter = (DownloadChapter) getItemForView(position);
+
+        Integer currentPage = mCurrentPages.get(currentDownloadChapter.getId());
+        if (currentPage != null && currentPage > currentDownloadChapter.getCurrentPage()) {
+            currentDownloadChapter.setCurrentPage(currentPage);
+        }
         viewHolder.renderView(mContext, currentDownloadChapter);
 
         return currentView;
@@ -46,35 +81,61 @@ public class QueueAdapter extends BaseCursorAdapter {
         private TextView mSourceTextView;
         private TextView mFlagTextView;
 
+        private Long mDownloadChapterId;
+        private int mFlag;
+        private int mCurrentPage;
+        private int mTotalPages;
+
         public ViewHolder(View itemView) {
             mNameTextView = (TextView) itemView.findViewById(R.id.nameTextView);
             mSourceTextView = (TextView) itemView.findViewById(R.id.sourceTextView);
             mFlagTextView = (TextView) itemView.findViewById(R.id.flagTextView);
         }
 
+        public Long getDownloadChapterId() {
+            return mDownloadChapterId;
+        }
+
         public void renderView(Context context, DownloadChapter downloadChapter) {
             mNameTextView.setText(downloadChapter.getName());
             mSourceTextView.setText(downloadChapter.getSource());
 
-            if (downloadChapter.getFlag() == DownloadUtils.FLAG_FAILED) {
+            mDownloadChapterId = downloadChapter.getId();
+            mFlag = downloadChapter.getFlag();
+            mCurrentPage = downloadChapter.getCurrentPage();
+            mTotalPages = downloadChapter.getTotalPages();
+
+            renderFlag(context);
+        }
+
+        public void renderCurrentPage(Context context, int currentPage) {
+            if (currentPage > mCurrentPage) {
+                mCurrentPage = currentPage;
+
+                renderFlag(context);
+            }
+        }
+
+        private void renderFlag(Context context) {
+            if (mFlag == DownloadUtils.FLAG_FAILED) {
                 mFlagTextView.setText(context.getResources().getString(R.string.flag_failed));
-            } else if (downloadChapter.getFlag() == DownloadUtils.FLAG_PAUSED) {
+            } else if (mFlag == DownloadUtils.FLAG_PAUSED) {
                 mFlagTextView.setText(context.getResources().getString(R.string.flag_paused));
-            } else if (downloadChapter.getFlag() == DownloadUtils.FLAG_PENDING) {
-                if (downloadChapter.getTotalPages() != 0) {
-                    mFlagTextView.setText(context.getResources().getString(R.string.flag_pending) + ": " + downloadChapter.getCurrentPage() + "/" + downloadChapter.getTotalPages());
+            } else if (mFlag == DownloadUtils.FLAG_PENDING) {
+                if (mTotalPages != 0) {
+                    mFlagTextView.setText(context.getResources().getString(R.string.flag_pending) + ": " + mCurrentPage + "/" + mTotalPages);
                 } else {
                     mFlagTextView.setText(context.getResources().getString(R.string.flag_pending));
                 }
-            } else if (downloadChapter.getFlag() == DownloadUtils.FLAG_RUNNING) {
-                if (downloadChapter.getTotalPages() != 0) {
-                    mFlagTextView.setText(context.getResources().getString(R.string.flag_running_downloading) + ": " + downloadChapter.getCurrentPage() + "/" + downloadChapter.getTotalPages());
+            } else if (mFlag == DownloadUtils.FLAG_RUNNING) {
+                if (mTotalPages != 0) {
+                    mFlagTextView.setText(context.getResources().getString(R.string.flag_running_downloading) + ": " + mCurrentPage + "/" + mTotalPages);
                 } else {
                     mFlagTextView.setText(context.getResources().getString(R.string.flag_running_fetching));
                 }
-            } else if (downloadChapter.getFlag() == DownloadUtils.FLAG_COMPLETED) {
+            } else if (mFlag == DownloadUtils.FLAG_COMPLETED) {
                 mFlagTextView.setText(context.getResources().getString(R.string.flag_completed));
-            } else if (downloadChapter.getFlag() == DownloadUtils.FLAG_CANCELED) {
+            } else if (mFlag == DownloadUtils.FLAG_CANCELED) {
                 mFlagTextView.setText(context.getResources().getString(R.string.flag_canceled));
             }
         }
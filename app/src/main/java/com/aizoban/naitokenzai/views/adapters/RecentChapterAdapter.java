@@ -46,7 +46,7 @@ public class RecentChapterAdapter extends BaseCursorAdapter {
             viewHolder = (ViewHolder) currentView.getTag();
         }
 
-        RecentChapter currentRecentChapter = (RecentChapter) getItem(position);
+        RecentChapter currentRecentChapter = (RecentChapter) getItemForView(position);
         viewHolder.renderView(mContext, currentRecentChapter);
 
         return currentView;
@@ -14,6 +14,7 @@ import android.widget.BaseAdapter;
 import android.widget.Button;
 import android.widget.GridView;
 import android.widget.RadioButton;
+import android.widget.RadioGroup;
 import android.widget.TextView;
 
 import com.aizoban.naitokenzai.R;
@@ -35,7 +36,12 @@ public class CatalogueFilterFragment extends DialogFragment implements Catalogue
     private CatalogueFilterPresenter mCatalogueFilterPresenter;
 
     private TextView mGenreTextView;
+    private TextView mGenreHintTextView;
     private GridView mGenreGridView;
+    private TextView mGenreMatchTextView;
+    private RadioGroup mGenreMatchRadioGroup;
+    private RadioButton mMatchAllRadioButton;
+    private RadioButton mMatchAnyRadioButton;
     private RadioButton mAllRadioButton;
     private RadioButton mCompletedRadioButton;
     private RadioButton mOngoingRadioButton;
@@ -64,7 +70,12 @@ public class CatalogueFilterFragment extends DialogFragment implements Catalogue
     public Dialog onCreateDialog(Bundle savedInstanceState) {
         View catalogueFilterView = LayoutInflater.from(getActivity()).inflate(R.layout.fragment_catalogue_filter, null);
         mGenreTextView = (TextView) catalogueFilterView.findViewById(R.id.genreTextView);
+        mGenreHintTextView = (TextView) catalogueFilterView.findViewById(R.id.genreHintTextView);
         mGenreGridView = (GridView) catalogueFilterView.findViewById(R.id.genreGridView);
+        mGenreMatchTextView = (TextView) catalogueFilterView.findViewById(R.id.genreMatchTextView);
+        mGenreMatchRadioGroup = (RadioGroup) catalogueFilterView.findViewById(R.id.genreMatchRadioGroup);
+        mMatchAllRadioButton = (RadioButton) catalogueFilterView.findViewById(R.id.radioMatchAll);
+        mMatchAnyRadioButton = (RadioButton) catalogueFilterView.findViewById(R.id.radioMatchAny);
         mAllRadioButton = (RadioButton) catalogueFilterView.findViewById(R.id.radioAll);
         mCompletedRadioButton = (RadioButton) catalogueFilterView.findViewById(R.id.radioCompleted);
         mOngoingRadioButton = (RadioButton) catalogueFilterView.findViewById(R.id.radioOngoing);
@@ -143,6 +154,11 @@ public class CatalogueFilterFragment extends DialogFragment implements Catalogue
             mGenreTextView.setVisibility(View.GONE);
             mGenreGridView.setVisibility(View.GONE);
         }
+        if (mGenreHintTextView != null && mGenreMatchTextView != null && mGenreMatchRadioGroup != null) {
+            mGenreHintTextView.setVisibility(View.GONE);
+            mGenreMatchTextView.setVisibility(View.GONE);
+            mGenreMatchRadioGroup.setVisibility(View.GONE);
+        }
     }
 
     @Override
@@ -175,6 +191,52 @@ public class CatalogueFilterFragment extends DialogFragment implements Catalogue
         }
     }
 
+    @Override
+    public List<String> getExcludedGenres() {
+        if (mGenreGridView != null) {
+            return ((CatalogueFilterAdapter) mGenreGridView.getAdapter()).getExcludedGenres();
+        }
+
+        return new ArrayList<String>();
+    }
+
+    @Override
+    public void setExcludedGenres(List<String> excludedGenres) {
+        if (mGenreGridView != null) {
+            ((CatalogueFilterAdapter) mGenreGridView.getAdapter()).setExcludedGenres(excludedGenres);
+        }
+    }
+
+    @Override
+    public String getSelectedGenreMatch() {
+        if (mMatchAllRadioButton != null && mMatchAllRadioButton.isChecked()) {
+            return SearchUtils.GENRE_MATCH_ALL;
+        }
+        if (mMatchAnyRadioButton != null && mMatchAnyRadioButton.isChecked()) {
+            return SearchUtils.GENRE_MATCH_ANY;
+        }
+
+        return DefaultFactory.SearchCatalogueWrapper.DEFAULT_GENRE_MATCH;
+    }
+
+    @Override
+    public void setSelectedGenreMatch(String selectedGenreMatch) {
+        if (selectedGenreMatch.equals(SearchUtils.GENRE_MATCH_ALL)) {
+            if (mMatchAllRadioButton != null) {
+                mMatchAllRadioButton.setChecked(true);
+            }
+
+            return;
+        }
+        if (selectedGenreMatch.equals(SearchUtils.GENRE_MATCH_ANY)) {
+            if (mMatchAnyRadioButton != null) {
+                mMatchAnyRadioButton.setChecked(true);
+            }
+
+            return;
+        }
+    }
+
     @Override
     public String getSelectedStatus() {
         if (mAllRadioButton != null && mAllRadioButton.isChecked()) {
@@ -15,15 +15,22 @@ import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.load.resource.drawable.GlideDrawable;
 import com.bumptech.glide.request.animation.GlideAnimation;
 import com.bumptech.glide.request.target.GlideDrawableImageViewTarget;
+import com.bumptech.glide.request.target.SimpleTarget;
 import com.aizoban.naitokenzai.R;
 import com.aizoban.naitokenzai.views.widgets.GestureImageView;
 
+import java.io.File;
+
 public class PageFragment extends Fragment {
     public static final String TAG = PageFragment.class.getSimpleName();
 
     public static final String URL_ARGUMENT_KEY = TAG + ":" + "UrlArgumentKey";
     public static final String POSITION_ARGUMENT_KEY = TAG + ":" + "PositionArgumentKey";
 
+    public interface OnPageLoadListener {
+        public void onPageLoaded(int position);
+    }
+
     private GestureImageView mGestureImageView;
 
     private String mUrl;
@@ -77,6 +84,7 @@ public class PageFragment extends Fragment {
         Glide.with(this)
                 .load(mUrl)
                 .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .fitCenter()
                 .placeholder(placeHolderDrawable)
                 .error(errorHolderDrawable)
                 .animate(android.R.anim.fade_in)
@@ -87,6 +95,28 @@ public class PageFragment extends Fragment {
 
                         mGestureImageView.setTag(PageFragment.TAG + ":" + mPosition);
                         mGestureImageView.initialize();
+
+                        if (getActivity() instanceof OnPageLoadListener) {
+                            ((OnPageLoadListener) getActivity()).onPageLoaded(mPosition);
+                        }
+
+                        loadTileSource();
+                    }
+                });
+    }
+
+    private void loadTileSource() {
+        int tileSourceWidth = Math.max(1, mGestureImageView.getWidth());
+        int tileSourceHeight = Math.max(1, mGestureImageView.getHeight());
+
+        Glide.with(this)
+                .load(mUrl)
+                .downloadOnly(new SimpleTarget<File>(tileSourceWidth, tileSourceHeight) {
+                    @Override
+                    public void onResourceReady(File resource, GlideAnimation<? super File> glideAnimation) {
+                        if (mGestureImageView != null) {
+                            mGestureImageView.setTileSource(resource);
+                        }
                     }
                 });
     }
@@ -35,6 +35,9 @@ import com.aizoban.naitokenzai.presenters.QueuePresenter;
 import com.aizoban.naitokenzai.presenters.QueuePresenterImpl;
 import com.aizoban.naitokenzai.presenters.mapper.QueueMapper;
 import com.aizoban.naitokenzai.views.QueueView;
+import com.aizoban.naitokenzai.views.adapters.QueueAdapter;
+
+import java.util.Map;
 
 public class QueueFragment extends Fragment implements QueueView, QueueMapper {
     public static final String TAG = QueueFragment.class.getSimpleName();
@@ -170,6 +173,10 @@ public class QueueFragment extends Fragment implements QueueView, QueueMapper {
                             mQueuePresenter.onOptionCancel();
                             mode.finish();
                             return true;
+                        case R.id.action_download_first:
+                            mQueuePresenter.onOptionDownloadFirst();
+                            mode.finish();
+                            return true;
                         case R.id.action_select_all:
                             mQueuePresenter.onOptionSelectAll();
                             return false;
@@ -261,6 +268,17 @@ public class QueueFragment extends Fragment implements QueueView, QueueMapper {
         }
     }
 
+    @Override
+    public void refreshCurrentPages(Map<Long, Integer> currentPages) {
+        if (mListView != null && mListView.getAdapter() != null) {
+            QueueAdapter queueAdapter = (QueueAdapter) mListView.getAdapter();
+
+            for (int index = 0; index < mListView.getChildCount(); index++) {
+                queueAdapter.refreshCurrentPage(mListView.getChildAt(index), currentPages);
+            }
+        }
+    }
+
     @Override
     public Parcelable getPositionState() {
         if (mListView != null) {
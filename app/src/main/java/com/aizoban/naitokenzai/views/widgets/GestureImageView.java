@@ -2,7 +2,11 @@ package com.aizoban.naitokenzai.views.widgets;
 
 import android.content.Context;
 import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
 import android.graphics.Matrix;
+import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
@@ -12,12 +16,26 @@ import android.view.ScaleGestureDetector;
 import android.widget.ImageView;
 import android.widget.OverScroller;
 
+import com.aizoban.naitokenzai.BuildConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class GestureImageView extends ImageView {
     public static final float MIN_SCALE = 1.00f;
     public static final float MAX_SCALE = 3.00f;
 
     private static final float ZOOM_DURATION = 200f;
     private static final long RUNNABLE_DELAY_MS = 1000 / 60;
+
+    private static final int TILE_SIZE = 512;
+    private static final ExecutorService TILE_DECODE_EXECUTOR = Executors.newSingleThreadExecutor();
+
     private Matrix mBaseMatrix = new Matrix();
     private Matrix mSupplementaryMatrix = new Matrix();
     private Matrix mDisplayMatrix = new Matrix();
@@ -31,6 +49,18 @@ public class GestureImageView extends ImageView {
 
     private boolean mInitialized;
 
+    private BitmapRegionDecoder mRegionDecoder;
+    private int mSourceWidth;
+    private int mSourceHeight;
+    private int mTileSampleSize;
+    private int mTileGeneration;
+    private List<Tile> mTiles = new ArrayList<Tile>();
+    private Matrix mTileInverseMatrix = new Matrix();
+    private RectF mTileVisibleRect = new RectF();
+    private Rect mTileVisibleSourceRect = new Rect();
+    private RectF mTileDestinationRect = new RectF();
+    private Paint mTilePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
     public GestureImageView(Context context) {
         super(context);
 
@@ -56,6 +86,44 @@ public class GestureImageView extends ImageView {
         return true;
     }
 
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (mInitialized && !mTiles.isEmpty()) {
+            int saveCount = canvas.save();
+            canvas.translate(getPaddingLeft(), getPaddingTop());
+            canvas.concat(getImageViewMatrix());
+
+            for (Tile tile : mTiles) {
+                if (tile.mSampleSize != mTileSampleSize) {
+                    drawTile(canvas, tile);
+                }
+            }
+            for (Tile tile : mTiles) {
+                if (tile.mSampleSize == mTileSampleSize) {
+                    drawTile(canvas, tile);
+                }
+            }
+
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        resetTiles();
+    }
+
+    @Override
+    public void setImageMatrix(Matrix matrix) {
+        super.setImageMatrix(matrix);
+
+        updateTiles();
+    }
+
     @Override
     public void setImageBitmap(Bitmap bitmap) {
         super.setImageBitmap(bitmap);
@@ -70,6 +138,8 @@ public class GestureImageView extends ImageView {
     public void setImageDrawable(Drawable drawable) {
         super.setImageDrawable(drawable);
 
+        resetTiles();
+
         if (drawable != null) {
             mBitmapWidth = drawable.getIntrinsicWidth();
             mBitmapHeight = drawable.getIntrinsicHeight();
@@ -104,6 +174,237 @@ public class GestureImageView extends ImageView {
         return mInitialized;
     }
 
+    public void setTileSource(final File sourceFile) {
+        resetTiles();
+
+        final int tileGeneration = mTileGeneration;
+
+        TILE_DECODE_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final BitmapRegionDecoder regionDecoder;
+                try {
+                    regionDecoder = BitmapRegionDecoder.newInstance(sourceFile.getAbsolutePath(), false);
+                } catch (IOException e) {
+                    // Unsupported Formats Stay on the Base Layer.
+                    return;
+                }
+
+                if (regionDecoder == null) {
+                    return;
+                }
+
+                final int sourceWidth = regionDecoder.getWidth();
+                final int sourceHeight = regionDecoder.getHeight();
+
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (tileGeneration != mTileGeneration) {
+                            recycleRegionDecoder(regionDecoder);
+                            return;
+                        }
+
+                        mRegionDecoder = regionDecoder;
+                        mSourceWidth = sourceWidth;
+                        mSourceHeight = sourceHeight;
+
+                        updateTiles();
+                    }
+                });
+            }
+        });
+    }
+
+    private void updateTiles() {
+        if (mRegionDecoder == null || !mInitialized || getWidth() == 0 || getHeight() == 0 || mBitmapWidth <= 0 || mBitmapHeight <= 0) {
+            return;
+        }
+
+        Matrix displayMatrix = getImageViewMatrix();
+
+        float baseToSourceX = mSourceWidth / mBitmapWidth;
+        float baseToSourceY = mSourceHeight / mBitmapHeight;
+        float screenPixelsPerSourcePixel = getScaleX(displayMatrix) / baseToSourceX;
+
+        int sampleSize = 1;
+        while (sampleSize * 2 * screenPixelsPerSourcePixel <= 1.00f) {
+            sampleSize *= 2;
+        }
+        if (mSourceWidth / sampleSize <= mBitmapWidth) {
+            sampleSize = 0;
+        }
+        mTileSampleSize = sampleSize;
+
+        if (!displayMatrix.invert(mTileInverseMatrix)) {
+            return;
+        }
+
+        mTileVisibleRect.set(0, 0, getWidth(), getHeight());
+        mTileInverseMatrix.mapRect(mTileVisibleRect);
+        mTileVisibleSourceRect.set(
+                Math.max(0, (int) (mTileVisibleRect.left * baseToSourceX)),
+                Math.max(0, (int) (mTileVisibleRect.top * baseToSourceY)),
+                Math.min(mSourceWidth, (int) Math.ceil(mTileVisibleRect.right * baseToSourceX)),
+                Math.min(mSourceHeight, (int) Math.ceil(mTileVisibleRect.bottom * baseToSourceY))
+        );
+
+        boolean isLevelComplete = true;
+
+        if (sampleSize > 0 && !mTileVisibleSourceRect.isEmpty()) {
+            int tileSourceSize = TILE_SIZE * sampleSize;
+
+            int firstColumn = mTileVisibleSourceRect.left / tileSourceSize;
+            int lastColumn = (mTileVisibleSourceRect.right - 1) / tileSourceSize;
+            int firstRow = mTileVisibleSourceRect.top / tileSourceSize;
+            int lastRow = (mTileVisibleSourceRect.bottom - 1) / tileSourceSize;
+
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    Tile tile = findTile(sampleSize, row, column);
+                    if (tile == null) {
+                        tile = new Tile(sampleSize, row, column);
+                        mTiles.add(tile);
+
+                        decodeTile(tile);
+                    }
+
+                    if (tile.mBitmap == null) {
+                        isLevelComplete = false;
+                    }
+                }
+            }
+        }
+
+        boolean isTileRemoved = false;
+
+        Iterator<Tile> tileIterator = mTiles.iterator();
+        while (tileIterator.hasNext()) {
+            Tile tile = tileIterator.next();
+
+            boolean isVisible = Rect.intersects(tile.mSourceRect, mTileVisibleSourceRect);
+            boolean isKept;
+            if (tile.mSampleSize == sampleSize) {
+                isKept = isVisible;
+            } else {
+                isKept = isVisible && !isLevelComplete && tile.mBitmap != null;
+            }
+
+            if (!isKept) {
+                tile.recycle();
+                tileIterator.remove();
+
+                isTileRemoved = true;
+            }
+        }
+
+        if (isTileRemoved) {
+            invalidate();
+        }
+    }
+
+    private Tile findTile(int sampleSize, int row, int column) {
+        for (Tile tile : mTiles) {
+            if (tile.mSampleSize == sampleSize && tile.mRow == row && tile.mColumn == column) {
+                return tile;
+            }
+        }
+
+        return null;
+    }
+
+    private void decodeTile(final Tile tile) {
+        final BitmapRegionDecoder regionDecoder = mRegionDecoder;
+
+        TILE_DECODE_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (tile.mIsCanceled) {
+                    return;
+                }
+
+                Bitmap tileBitmap = null;
+                try {
+                    BitmapFactory.Options options = new BitmapFactory.Options();
+                    options.inSampleSize = tile.mSampleSize;
+                    options.inPreferredConfig = Bitmap.Config.RGB_565;
+
+                    tileBitmap = regionDecoder.decodeRegion(tile.mSourceRect, options);
+                } catch (Throwable e) {
+                    if (BuildConfig.DEBUG) {
+                        e.printStackTrace();
+                    }
+                }
+
+                if (tileBitmap == null) {
+                    return;
+                }
+
+                final Bitmap decodedBitmap = tileBitmap;
+
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (tile.mIsCanceled) {
+                            decodedBitmap.recycle();
+                            return;
+                        }
+
+                        tile.mBitmap = decodedBitmap;
+
+                        updateTiles();
+                        invalidate();
+                    }
+                });
+            }
+        });
+    }
+
+    private void drawTile(Canvas canvas, Tile tile) {
+        if (tile.mBitmap == null) {
+            return;
+        }
+
+        float sourceToBaseX = mBitmapWidth / mSourceWidth;
+        float sourceToBaseY = mBitmapHeight / mSourceHeight;
+
+        mTileDestinationRect.set(
+                tile.mSourceRect.left * sourceToBaseX,
+                tile.mSourceRect.top * sourceToBaseY,
+                tile.mSourceRect.right * sourceToBaseX,
+                tile.mSourceRect.bottom * sourceToBaseY
+        );
+
+        canvas.drawBitmap(tile.mBitmap, null, mTileDestinationRect, mTilePaint);
+    }
+
+    private void resetTiles() {
+        if (mTiles == null) {
+            return;
+        }
+
+        mTileGeneration++;
+
+        for (Tile tile : mTiles) {
+            tile.recycle();
+        }
+        mTiles.clear();
+
+        if (mRegionDecoder != null) {
+            recycleRegionDecoder(mRegionDecoder);
+            mRegionDecoder = null;
+        }
+    }
+
+    private static void recycleRegionDecoder(final BitmapRegionDecoder regionDecoder) {
+        TILE_DECODE_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                regionDecoder.recycle();
+            }
+        });
+    }
+
     private float getTransX(Matrix matrix) {
         matrix.getValues(mMatrixValues);
 
@@ -259,6 +560,35 @@ public class GestureImageView extends ImageView {
         center(true, true);
     }
 
+    private class Tile {
+        private final int mSampleSize;
+        private final int mRow;
+        private final int mColumn;
+        private final Rect mSourceRect;
+
+        private Bitmap mBitmap;
+        private volatile boolean mIsCanceled;
+
+        private Tile(int sampleSize, int row, int column) {
+            mSampleSize = sampleSize;
+            mRow = row;
+            mColumn = column;
+
+            int tileSourceSize = TILE_SIZE * sampleSize;
+            mSourceRect = new Rect(
+                    column * tileSourceSize,
+                    row * tileSourceSize,
+                    Math.min((column + 1) * tileSourceSize, mSourceWidth),
+                    Math.min((row + 1) * tileSourceSize, mSourceHeight)
+            );
+        }
+
+        private void recycle() {
+            mIsCanceled = true;
+            mBitmap = null;
+        }
+    }
+
     private class FlingRunnable implements Runnable {
         private OverScroller mOverScroller;
 